@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.util.Random;
+
+final class Corpus {
+	static final String SMALL = "small";
+
+	static final String WASM = "wasm";
+
+	static final String NUMBERS = "numbers";
+
+	static final String STRINGS = "strings";
+
+	static final String DEEP = "deep";
+
+	static final String LARGE = "large";
+
+	private static final String[] WORDS = { "lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing",
+			"elit", "sed", "do", "eiusmod", "tempor", "incididunt", "ut", "labore", "et", "dolore", "magna", "aliqua",
+			"café", "naïve", "日本語", "😀", "tab\there", "line\nbreak", "\"quoted\"",
+			"back\\slash", "path/to" };
+
+	private Corpus() {
+	}
+
+	static String load(String name) {
+		final Random random = new Random(42);
+		switch (name) {
+			case SMALL:
+				return small(random, 0).toString();
+			case WASM:
+				return wasm();
+			case NUMBERS:
+				return numbers(random, 10_000);
+			case STRINGS:
+				return strings(random, 2_000);
+			case DEEP:
+				return deep(512);
+			case LARGE:
+				return large(random, 4 * 1024 * 1024);
+			default:
+				throw new IllegalArgumentException("Unknown payload: " + name);
+		}
+	}
+
+	private static StringBuilder small(Random random, int id) {
+		return new StringBuilder(256).append("{\"id\":")
+			.append(id)
+			.append(",\"name\":\"")
+			.append(WORDS[random.nextInt(19)])
+			.append(' ')
+			.append(WORDS[random.nextInt(19)])
+			.append("\",\"email\":\"user")
+			.append(id)
+			.append("@example.com\",\"active\":")
+			.append(random.nextBoolean())
+			.append(",\"score\":")
+			.append(random.nextInt(100_000) / 100.0)
+			.append(",\"roles\":[\"admin\",\"user\"],\"address\":{\"city\":\"Tokyo\",\"zip\":\"100-0001\"},\"manager\":null}");
+	}
+
+	private static String wasm() {
+		return "{\"url\":\"http://localhost:8080/hello?name=wasm\",\"method\":\"POST\","
+				+ "\"headers\":{\"accept\":\"*/*\",\"content-type\":\"application/json\",\"content-length\":\"15\","
+				+ "\"host\":\"localhost:8080\",\"user-agent\":\"curl/8.1.2\"},"
+				+ "\"body\":\"WASM\",\"kv\":{},\"params\":{\"name\":\"wasm\"}}";
+	}
+
+	private static String numbers(Random random, int count) {
+		final StringBuilder json = new StringBuilder(count * 12).append('[');
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			switch (i % 4) {
+				case 0:
+					json.append(random.nextInt());
+					break;
+				case 1:
+					json.append(random.nextLong());
+					break;
+				case 2:
+					json.append(random.nextInt(10_000_000) / 1000.0);
+					break;
+				default:
+					json.append(random.nextDouble() * 1e-5);
+			}
+		}
+		return json.append(']').toString();
+	}
+
+	private static String strings(Random random, int count) {
+		final StringBuilder json = new StringBuilder(count * 64).append('{');
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append("\"key").append(i).append("\":\"");
+			final int words = 4 + random.nextInt(12);
+			for (int j = 0; j < words; j++) {
+				if (j > 0) {
+					json.append(' ');
+				}
+				escape(WORDS[random.nextInt(WORDS.length)], json);
+			}
+			json.append('"');
+		}
+		return json.append('}').toString();
+	}
+
+	private static String deep(int depth) {
+		final StringBuilder json = new StringBuilder(depth * 16);
+		for (int i = 0; i < depth; i++) {
+			json.append(i % 2 == 0 ? "{\"child\":" : "[1,");
+		}
+		json.append("\"leaf\"");
+		for (int i = depth - 1; i >= 0; i--) {
+			json.append(i % 2 == 0 ? '}' : ']');
+		}
+		return json.toString();
+	}
+
+	private static String large(Random random, int size) {
+		final StringBuilder json = new StringBuilder(size + 512).append('[');
+		for (int i = 0; json.length() < size; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			json.append(small(random, i));
+		}
+		return json.append(']').toString();
+	}
+
+	private static void escape(String value, StringBuilder json) {
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			switch (c) {
+				case '"':
+				case '\\':
+					json.append('\\').append(c);
+					break;
+				case '\n':
+					json.append("\\n");
+					break;
+				case '\t':
+					json.append("\\t");
+					break;
+				default:
+					json.append(c);
+			}
+		}
+	}
+}
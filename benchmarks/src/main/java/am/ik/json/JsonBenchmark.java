@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+	@Param({ Corpus.SMALL, Corpus.WASM, Corpus.NUMBERS, Corpus.STRINGS, Corpus.DEEP, Corpus.LARGE })
+	public String payload;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final JsonParseContext context = new JsonParseContext();
+
+	private final JsonDocumentCache cache = new JsonDocumentCache(64 << 20);
+
+	private String json;
+
+	private byte[] utf8;
+
+	private am.ik.json.JsonNode node;
+
+	private JsonNode jacksonNode;
+
+	@Setup
+	public void setup() throws IOException {
+		this.json = Corpus.load(this.payload);
+		this.utf8 = this.json.getBytes(StandardCharsets.UTF_8);
+		this.node = Json.parse(this.json);
+		this.jacksonNode = this.objectMapper.readTree(this.json);
+	}
+
+	@Benchmark
+	public am.ik.json.JsonNode parseString() {
+		return Json.parse(this.json);
+	}
+
+	@Benchmark
+	public am.ik.json.JsonNode parseBytes() {
+		return Json.parse(this.utf8);
+	}
+
+	@Benchmark
+	public am.ik.json.JsonNode parseContext() {
+		return this.context.parse(this.json);
+	}
+
+	@Benchmark
+	public am.ik.json.JsonNode parseContextRecycled() {
+		final am.ik.json.JsonNode node = this.context.parse(this.json);
+		this.context.release(node);
+		return node;
+	}
+
+	@Benchmark
+	public am.ik.json.JsonNode parseCached() {
+		return this.cache.parse(this.utf8);
+	}
+
+	@Benchmark
+	public JsonReader skip() {
+		final JsonReader reader = new JsonReader(new JsonLexer(this.json));
+		reader.skipValue();
+		return reader;
+	}
+
+	@Benchmark
+	public String stringify() {
+		return Json.stringify(this.node);
+	}
+
+	@Benchmark
+	public JsonNode parseStringJackson() throws IOException {
+		return this.objectMapper.readTree(this.json);
+	}
+
+	@Benchmark
+	public JsonNode parseBytesJackson() throws IOException {
+		return this.objectMapper.readTree(this.utf8);
+	}
+
+	@Benchmark
+	public String stringifyJackson() throws IOException {
+		return this.objectMapper.writeValueAsString(this.jacksonNode);
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberCodecBenchmark {
+	private String[] texts;
+
+	private double[] doubles;
+
+	private float[] floats;
+
+	private final char[] buffer = new char[32];
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(42);
+		this.texts = new String[1024];
+		this.doubles = new double[1024];
+		this.floats = new float[1024];
+		for (int i = 0; i < this.texts.length; i++) {
+			final double value = random.nextInt(10_000_000) / 1000.0 - 5000.0;
+			this.texts[i] = Double.toString(value);
+			this.doubles[i] = value;
+			this.floats[i] = (float) value;
+		}
+	}
+
+	@Benchmark
+	public void parseDoubleCodec(Blackhole blackhole) {
+		for (String text : this.texts) {
+			blackhole.consume(NumberCodec.parseDouble(text));
+		}
+	}
+
+	@Benchmark
+	public void parseDoubleJdk(Blackhole blackhole) {
+		for (String text : this.texts) {
+			blackhole.consume(Double.parseDouble(text));
+		}
+	}
+
+	@Benchmark
+	public void parseFloatCodec(Blackhole blackhole) {
+		for (String text : this.texts) {
+			blackhole.consume(NumberCodec.parseFloat(text));
+		}
+	}
+
+	@Benchmark
+	public void parseFloatJdk(Blackhole blackhole) {
+		for (String text : this.texts) {
+			blackhole.consume(Float.parseFloat(text));
+		}
+	}
+
+	@Benchmark
+	public void formatDoubleCodec(Blackhole blackhole) {
+		for (double value : this.doubles) {
+			blackhole.consume(NumberCodec.format(value, this.buffer));
+		}
+	}
+
+	@Benchmark
+	public void formatDoubleJdk(Blackhole blackhole) {
+		for (double value : this.doubles) {
+			blackhole.consume(Double.toString(value));
+		}
+	}
+
+	@Benchmark
+	public void formatFloatCodec(Blackhole blackhole) {
+		for (float value : this.floats) {
+			blackhole.consume(NumberCodec.format(value, this.buffer));
+		}
+	}
+
+	@Benchmark
+	public void formatFloatJdk(Blackhole blackhole) {
+		for (float value : this.floats) {
+			blackhole.consume(Float.toString(value));
+		}
+	}
+}
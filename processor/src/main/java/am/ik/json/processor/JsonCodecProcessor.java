@@ -0,0 +1,498 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic.Kind;
+
+@SupportedAnnotationTypes(JsonCodecProcessor.SERIALIZABLE)
+public class JsonCodecProcessor extends AbstractProcessor {
+	static final String SERIALIZABLE = "am.ik.json.JsonSerializable";
+
+	private static final String NAME = "am.ik.json.JsonName";
+
+	private static final String CODECS = "am.ik.json.JsonCodecs";
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				try {
+					this.generate((TypeElement) element);
+				}
+				catch (CodecException e) {
+					this.processingEnv.getMessager().printMessage(Kind.ERROR, e.getMessage(), e.element);
+				}
+				catch (IOException e) {
+					this.processingEnv.getMessager()
+						.printMessage(Kind.ERROR, "Failed to write codec: " + e.getMessage(), element);
+				}
+			}
+		}
+		return true;
+	}
+
+	private void generate(TypeElement type) throws IOException {
+		if (type.getModifiers().contains(Modifier.PRIVATE)) {
+			throw new CodecException("@JsonSerializable type must not be private", type);
+		}
+		if (!type.getTypeParameters().isEmpty()) {
+			throw new CodecException("@JsonSerializable type must not be generic", type);
+		}
+		if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)
+				&& type.getKind() == ElementKind.CLASS) {
+			throw new CodecException("@JsonSerializable inner class must be static", type);
+		}
+		final boolean record = type.getKind().name().equals("RECORD");
+		if (type.getKind() != ElementKind.CLASS && !record) {
+			throw new CodecException("@JsonSerializable must be placed on a class or a record", type);
+		}
+		if (!record && type.getModifiers().contains(Modifier.ABSTRACT)) {
+			throw new CodecException("@JsonSerializable class must not be abstract", type);
+		}
+		final List<Property> properties = record ? this.recordProperties(type) : this.beanProperties(type);
+		final Map<String, Property> names = new HashMap<>();
+		for (Property property : properties) {
+			final Property duplicate = names.putIfAbsent(property.name, property);
+			if (duplicate != null) {
+				throw new CodecException("Duplicate JSON name \"" + property.name + "\" on "
+						+ duplicate.element.getSimpleName() + " and " + property.element.getSimpleName(),
+						property.element);
+			}
+		}
+		final String packageName = this.processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		final String codecName = codecSimpleName(type);
+		final String typeName = type.getQualifiedName().toString();
+		final StringBuilder source = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+		source.append("public final class ").append(codecName).append(" implements am.ik.json.JsonCodec<")
+			.append(typeName)
+			.append("> {\n");
+		source.append("\tpublic static final ").append(codecName).append(" INSTANCE = new ").append(codecName)
+			.append("();\n");
+		for (int i = 0; i < properties.size(); i++) {
+			final Property property = properties.get(i);
+			if (property.type.getKind() == TypeKind.CHAR) {
+				throw new CodecException("Unsupported type: " + property.type, property.element);
+			}
+			if (!property.type.getKind().isPrimitive()) {
+				source.append("\n\tprivate static final am.ik.json.JsonCodec<").append(property.type).append("> CODEC_")
+					.append(i)
+					.append(" = ")
+					.append(this.codec(property.type, property.element))
+					.append(";\n");
+			}
+		}
+		source.append("\n\tprivate ").append(codecName).append("() {\n\t}\n");
+		this.appendRead(source, typeName, properties, record);
+		this.appendWrite(source, typeName, properties);
+		source.append("}\n");
+		try (Writer writer = this.processingEnv.getFiler()
+			.createSourceFile(packageName.isEmpty() ? codecName : packageName + "." + codecName, type)
+			.openWriter()) {
+			writer.write(source.toString());
+		}
+	}
+
+	private void appendRead(StringBuilder source, String typeName, List<Property> properties, boolean record) {
+		source.append("\n\t@Override\n\tpublic ").append(typeName)
+			.append(" read(am.ik.json.JsonReader reader) {\n");
+		source.append("\t\tif (").append(CODECS).append(".isNull(reader)) {\n\t\t\treturn null;\n\t\t}\n");
+		if (record) {
+			for (int i = 0; i < properties.size(); i++) {
+				final Property property = properties.get(i);
+				source.append("\t\t").append(property.type).append(" p").append(i).append(" = ")
+					.append(defaultValue(property.type))
+					.append(";\n");
+			}
+		}
+		else {
+			source.append("\t\tfinal ").append(typeName).append(" value = new ").append(typeName).append("();\n");
+		}
+		source.append("\t\treader.beginObject();\n");
+		source.append("\t\twhile (reader.hasNext()) {\n");
+		source.append("\t\t\tswitch (reader.nextName()) {\n");
+		for (int i = 0; i < properties.size(); i++) {
+			final Property property = properties.get(i);
+			if (!record && property.setter == null) {
+				continue;
+			}
+			final String read = read(property.type, i);
+			source.append("\t\t\t\tcase ").append(literal(property.name)).append(":\n");
+			if (record) {
+				source.append("\t\t\t\t\tp").append(i).append(" = ").append(read).append(";\n");
+			}
+			else {
+				source.append("\t\t\t\t\t").append(String.format(property.setter, read)).append(";\n");
+			}
+			source.append("\t\t\t\t\tbreak;\n");
+		}
+		source.append("\t\t\t\tdefault:\n\t\t\t\t\treader.skipValue();\n");
+		source.append("\t\t\t}\n\t\t}\n");
+		source.append("\t\treader.endObject();\n");
+		if (record) {
+			source.append("\t\treturn new ").append(typeName).append("(");
+			for (int i = 0; i < properties.size(); i++) {
+				source.append(i == 0 ? "" : ", ").append("p").append(i);
+			}
+			source.append(");\n");
+		}
+		else {
+			source.append("\t\treturn value;\n");
+		}
+		source.append("\t}\n");
+	}
+
+	private void appendWrite(StringBuilder source, String typeName, List<Property> properties) {
+		source.append("\n\t@Override\n\tpublic void write(am.ik.json.JsonGenerator generator, ").append(typeName)
+			.append(" value) {\n");
+		source.append("\t\tif (value == null) {\n\t\t\tgenerator.writeNull();\n\t\t\treturn;\n\t\t}\n");
+		source.append("\t\tgenerator.writeStartObject();\n");
+		for (int i = 0; i < properties.size(); i++) {
+			final Property property = properties.get(i);
+			if (property.getter == null) {
+				continue;
+			}
+			source.append("\t\tgenerator.writeName(").append(literal(property.name)).append(");\n");
+			source.append("\t\t").append(write(property.type, i, property.getter)).append(";\n");
+		}
+		source.append("\t\tgenerator.writeEndObject();\n");
+		source.append("\t}\n");
+	}
+
+	private List<Property> recordProperties(TypeElement type) {
+		final List<Property> properties = new ArrayList<>();
+		for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+			if (field.getModifiers().contains(Modifier.STATIC)) {
+				continue;
+			}
+			final String name = field.getSimpleName().toString();
+			properties.add(new Property(jsonName(field, null), field.asType(), field, "value." + name + "()", null));
+		}
+		return properties;
+	}
+
+	private List<Property> beanProperties(TypeElement type) {
+		boolean constructor = false;
+		for (ExecutableElement c : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+			if (c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE)) {
+				constructor = true;
+			}
+		}
+		if (!constructor) {
+			throw new CodecException("@JsonSerializable class requires a non-private no-arg constructor", type);
+		}
+		final Elements elements = this.processingEnv.getElementUtils();
+		final List<ExecutableElement> methods = new ArrayList<>();
+		for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+			if (method.getModifiers().contains(Modifier.PUBLIC)
+					|| elements.getPackageOf(method).equals(elements.getPackageOf(type))) {
+				methods.add(method);
+			}
+		}
+		final List<VariableElement> fields = new ArrayList<>();
+		for (TypeElement t = type; t != null; t = superclass(t)) {
+			fields.addAll(0, ElementFilter.fieldsIn(t.getEnclosedElements()));
+		}
+		final List<Property> properties = new ArrayList<>();
+		for (VariableElement field : fields) {
+			final Set<Modifier> modifiers = field.getModifiers();
+			if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+				continue;
+			}
+			final TypeMirror fieldType = this.processingEnv.getTypeUtils()
+				.asMemberOf((DeclaredType) type.asType(), field);
+			final String name = field.getSimpleName().toString();
+			final String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+			final boolean accessible = modifiers.contains(Modifier.PUBLIC) || !modifiers.contains(Modifier.PRIVATE)
+					&& elements.getPackageOf(field).equals(elements.getPackageOf(type));
+			ExecutableElement getter = findMethod(methods, "get" + capitalized, 0);
+			if (getter == null && fieldType.getKind() == TypeKind.BOOLEAN) {
+				getter = findMethod(methods, "is" + capitalized, 0);
+			}
+			final ExecutableElement setter = findMethod(methods, "set" + capitalized, 1);
+			String read = null;
+			if (getter != null) {
+				read = "value." + getter.getSimpleName() + "()";
+			}
+			else if (accessible) {
+				read = "value." + name;
+			}
+			String write = null;
+			if (setter != null) {
+				write = "value." + setter.getSimpleName() + "(%s)";
+			}
+			else if (accessible && !modifiers.contains(Modifier.FINAL)) {
+				write = "value." + name + " = %s";
+			}
+			if (read == null && write == null) {
+				continue;
+			}
+			properties.add(new Property(jsonName(field, getter), fieldType, field, read, write));
+		}
+		return properties;
+	}
+
+	private static TypeElement superclass(TypeElement type) {
+		final TypeMirror superclass = type.getSuperclass();
+		if (superclass.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		final TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+		return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+	}
+
+	private String codec(TypeMirror type, Element element) {
+		if (type.getKind() == TypeKind.DECLARED) {
+			final DeclaredType declared = (DeclaredType) type;
+			final TypeElement typeElement = (TypeElement) declared.asElement();
+			final List<? extends TypeMirror> arguments = declared.getTypeArguments();
+			switch (typeElement.getQualifiedName().toString()) {
+				case "java.lang.String":
+					return CODECS + ".STRING";
+				case "java.lang.Integer":
+					return CODECS + ".INTEGER";
+				case "java.lang.Long":
+					return CODECS + ".LONG";
+				case "java.lang.Float":
+					return CODECS + ".FLOAT";
+				case "java.lang.Double":
+					return CODECS + ".DOUBLE";
+				case "java.lang.Boolean":
+					return CODECS + ".BOOLEAN";
+				case "java.math.BigDecimal":
+					return CODECS + ".BIG_DECIMAL";
+				case "java.math.BigInteger":
+					return CODECS + ".BIG_INTEGER";
+				case "am.ik.json.JsonNode":
+					return CODECS + ".NODE";
+				case "java.util.List":
+					if (arguments.size() == 1) {
+						return CODECS + ".list(" + this.codec(arguments.get(0), element) + ")";
+					}
+					break;
+				case "java.util.Map":
+					if (arguments.size() == 2 && arguments.get(0).toString().equals("java.lang.String")) {
+						return CODECS + ".map(" + this.codec(arguments.get(1), element) + ")";
+					}
+					break;
+				default:
+					if (typeElement.getKind() == ElementKind.ENUM) {
+						return CODECS + ".enumeration(" + typeElement.getQualifiedName() + "::valueOf)";
+					}
+					if (hasAnnotation(typeElement, SERIALIZABLE)) {
+						final String packageName = this.processingEnv.getElementUtils()
+							.getPackageOf(typeElement)
+							.getQualifiedName()
+							.toString();
+						return (packageName.isEmpty() ? "" : packageName + ".") + codecSimpleName(typeElement)
+								+ ".INSTANCE";
+					}
+			}
+		}
+		throw new CodecException("Unsupported type: " + type, element);
+	}
+
+	private static String read(TypeMirror type, int index) {
+		switch (type.getKind()) {
+			case INT:
+				return "reader.nextInt()";
+			case LONG:
+				return "reader.nextLong()";
+			case FLOAT:
+				return "reader.nextFloat()";
+			case DOUBLE:
+				return "reader.nextDouble()";
+			case BOOLEAN:
+				return "reader.nextBoolean()";
+			case SHORT:
+				return "(short) reader.nextInt()";
+			case BYTE:
+				return "(byte) reader.nextInt()";
+			default:
+				return "CODEC_" + index + ".read(reader)";
+		}
+	}
+
+	private static String write(TypeMirror type, int index, String value) {
+		switch (type.getKind()) {
+			case BOOLEAN:
+				return "generator.writeBoolean(" + value + ")";
+			case INT:
+			case LONG:
+			case FLOAT:
+			case DOUBLE:
+			case SHORT:
+			case BYTE:
+				return "generator.writeNumber(" + value + ")";
+			default:
+				return "CODEC_" + index + ".write(generator, " + value + ")";
+		}
+	}
+
+	private static ExecutableElement findMethod(List<ExecutableElement> methods, String name, int parameters) {
+		for (ExecutableElement method : methods) {
+			if (method.getSimpleName().contentEquals(name) && method.getParameters().size() == parameters
+					&& !method.getModifiers().contains(Modifier.PRIVATE)
+					&& !method.getModifiers().contains(Modifier.STATIC)) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	private static String jsonName(Element field, Element getter) {
+		for (Element element : new Element[] { field, getter }) {
+			if (element == null) {
+				continue;
+			}
+			for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+				if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(NAME)) {
+					for (AnnotationValue value : annotation.getElementValues().values()) {
+						return value.getValue().toString();
+					}
+				}
+			}
+		}
+		return field.getSimpleName().toString();
+	}
+
+	private static boolean hasAnnotation(Element element, String annotationName) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName()
+				.contentEquals(annotationName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String codecSimpleName(TypeElement type) {
+		final StringBuilder name = new StringBuilder(type.getSimpleName());
+		Element enclosing = type.getEnclosingElement();
+		while (enclosing instanceof TypeElement) {
+			name.insert(0, ((TypeElement) enclosing).getSimpleName() + "_");
+			enclosing = enclosing.getEnclosingElement();
+		}
+		return name.append("JsonCodec").toString();
+	}
+
+	private static String defaultValue(TypeMirror type) {
+		switch (type.getKind()) {
+			case BOOLEAN:
+				return "false";
+			case INT:
+			case LONG:
+			case FLOAT:
+			case DOUBLE:
+			case SHORT:
+			case BYTE:
+				return "0";
+			default:
+				return "null";
+		}
+	}
+
+	private static String literal(String value) {
+		final StringBuilder sb = new StringBuilder("\"");
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			if (c == '"' || c == '\\') {
+				sb.append('\\').append(c);
+			}
+			else if (c == '\n') {
+				sb.append("\\n");
+			}
+			else if (c == '\r') {
+				sb.append("\\r");
+			}
+			else if (c == '\t') {
+				sb.append("\\t");
+			}
+			else if (c < ' ') {
+				sb.append(String.format("\\%03o", (int) c));
+			}
+			else if (c > '~') {
+				sb.append(String.format("\\u%04x", (int) c));
+			}
+			else {
+				sb.append(c);
+			}
+		}
+		return sb.append('"').toString();
+	}
+
+	private static final class Property {
+		final String name;
+
+		final TypeMirror type;
+
+		final Element element;
+
+		final String getter;
+
+		final String setter;
+
+		Property(String name, TypeMirror type, Element element, String getter, String setter) {
+			this.name = name;
+			this.type = type;
+			this.element = element;
+			this.getter = getter;
+			this.setter = setter;
+		}
+	}
+
+	private static final class CodecException extends RuntimeException {
+		private final transient Element element;
+
+		CodecException(String message, Element element) {
+			super(message);
+			this.element = element;
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import am.ik.json.Json;
+import am.ik.json.JsonCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+class JsonCodecProcessorTest {
+
+	@Test
+	void roundTrip() {
+		final String json = "{\"name\":\"John\",\"age\":30,\"active\":true,\"score\":12.5,\"id\":12345678901,\"e-mail\":\"john@example.com\",\"balance\":1234.50,\"role\":\"ADMIN\",\"tags\":[\"a\", \"b\"],\"counts\":{\"x\":1,\"y\":null},\"address\":{\"city\":\"Tokyo\",\"zip\":100},\"previous\":[{\"city\":\"Osaka\",\"zip\":530}],\"extra\":{\"any\":[1, 2]},\"nickname\":\"J\"}";
+		final Person person = Json.parse(json, PersonJsonCodec.INSTANCE);
+		assertThat(person.getName()).isEqualTo("John");
+		assertThat(person.getAge()).isEqualTo(30);
+		assertThat(person.isActive()).isTrue();
+		assertThat(person.getId()).isEqualTo(12345678901L);
+		assertThat(person.getEmail()).isEqualTo("john@example.com");
+		assertThat(person.getRole()).isEqualTo(Person.Role.ADMIN);
+		assertThat(person.getCounts()).containsEntry("x", 1).containsEntry("y", null);
+		assertThat(person.getAddress().city).isEqualTo("Tokyo");
+		assertThat(person.getPrevious()).extracting(a -> a.zip).containsExactly(530);
+		assertThat(person.getExtra().asObject().get("any").asArray().size()).isEqualTo(2);
+		assertThat(person.nickname).isEqualTo("J");
+		assertThat(Json.stringify(person, PersonJsonCodec.INSTANCE)).isEqualTo(json);
+	}
+
+	@Test
+	void unknownAndNullFields() {
+		final Person person = Json.parse("{\"unknown\":{\"nested\":[1]},\"name\":null,\"address\":null,\"tags\":null,\"age\":1}", PersonJsonCodec.INSTANCE);
+		assertThat(person.getName()).isNull();
+		assertThat(person.getAddress()).isNull();
+		assertThat(person.getTags()).isNull();
+		assertThat(person.getAge()).isEqualTo(1);
+		assertThat(Json.parse("null", PersonJsonCodec.INSTANCE)).isNull();
+		assertThat(Json.stringify(new Person.Address(), Person_AddressJsonCodec.INSTANCE)).isEqualTo("{\"city\":null,\"zip\":0}");
+	}
+
+	@Test
+	void record(@TempDir Path dir) throws Exception {
+		assumeThat(Integer.parseInt(System.getProperty("java.specification.version").replaceFirst("^1\\.", ""))).isGreaterThanOrEqualTo(16);
+		final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(dir, "Point",
+				"package test;\n@am.ik.json.JsonSerializable\npublic record Point(int x, int y, String label) {}\n");
+		assertThat(diagnostics).isEmpty();
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] { dir.toUri().toURL() }, getClass().getClassLoader())) {
+			final Field instance = classLoader.loadClass("test.PointJsonCodec").getField("INSTANCE");
+			@SuppressWarnings("unchecked")
+			final JsonCodec<Object> codec = (JsonCodec<Object>) instance.get(null);
+			final Object point = Json.parse("{\"y\":2,\"x\":1,\"label\":\"p\"}", codec);
+			assertThat(point.toString()).isEqualTo("Point[x=1, y=2, label=p]");
+			assertThat(Json.stringify(point, codec)).isEqualTo("{\"x\":1,\"y\":2,\"label\":\"p\"}");
+		}
+	}
+
+	@Test
+	void inheritedPropertiesAndEscapedNames(@TempDir Path dir) throws Exception {
+		final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(dir, "Child",
+				"package test;\nclass Base<T> {\n\tpublic T value;\n\tprivate int count;\n\tpublic int getCount() {\n\t\treturn this.count;\n\t}\n\tpublic void setCount(int count) {\n\t\tthis.count = count;\n\t}\n}\n@am.ik.json.JsonSerializable\npublic class Child extends Base<String> {\n\t@am.ik.json.JsonName(\"line\\nbreak\\r\\t\\u0001\")\n\tpublic String name;\n}\n");
+		assertThat(diagnostics).isEmpty();
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] { dir.toUri().toURL() }, getClass().getClassLoader())) {
+			final Field instance = classLoader.loadClass("test.ChildJsonCodec").getField("INSTANCE");
+			@SuppressWarnings("unchecked")
+			final JsonCodec<Object> codec = (JsonCodec<Object>) instance.get(null);
+			final String json = "{\"value\":\"v\",\"count\":2,\"line\\nbreak\\r\\t\\u0001\":\"n\"}";
+			assertThat(Json.stringify(Json.parse(json, codec), codec)).isEqualTo(json);
+		}
+	}
+
+	@Test
+	void unsupportedType(@TempDir Path dir) throws Exception {
+		final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(dir, "Bad",
+				"package test;\n@am.ik.json.JsonSerializable\npublic class Bad {\n\tpublic java.util.Date date;\n}\n");
+		assertThat(diagnostics).extracting(d -> d.getMessage(null)).contains("Unsupported type: java.util.Date");
+	}
+
+	@Test
+	void missingConstructor(@TempDir Path dir) throws Exception {
+		final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(dir, "Bad",
+				"package test;\n@am.ik.json.JsonSerializable\npublic class Bad {\n\tpublic Bad(int x) {\n\t}\n}\n");
+		assertThat(diagnostics).extracting(d -> d.getMessage(null)).contains("@JsonSerializable class requires a non-private no-arg constructor");
+	}
+
+	@Test
+	void duplicateName(@TempDir Path dir) throws Exception {
+		final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(dir, "Bad",
+				"package test;\n@am.ik.json.JsonSerializable\npublic class Bad {\n\tpublic String id;\n\t@am.ik.json.JsonName(\"id\")\n\tpublic String key;\n}\n");
+		assertThat(diagnostics).extracting(d -> d.getMessage(null)).containsExactly("Duplicate JSON name \"id\" on id and key");
+		assertThat(diagnostics.get(0).getKind()).isEqualTo(Diagnostic.Kind.ERROR);
+		assertThat(diagnostics.get(0).getLineNumber()).isEqualTo(6);
+		assertThat(dir.resolve("test/BadJsonCodec.class")).doesNotExist();
+	}
+
+	private static List<Diagnostic<? extends JavaFileObject>> compile(Path dir, String name, String source) throws IOException {
+		final Path file = dir.resolve(name + ".java");
+		Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+			final List<String> options = Arrays.asList("-d", dir.toString(), "-classpath", System.getProperty("java.class.path"), "-implicit:class");
+			final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+					fileManager.getJavaFileObjectsFromFiles(Collections.singletonList(new File(file.toString()))));
+			task.setProcessors(Collections.singletonList(new JsonCodecProcessor()));
+			task.call();
+		}
+		return diagnostics.getDiagnostics();
+	}
+}
\ No newline at end of file
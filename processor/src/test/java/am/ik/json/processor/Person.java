@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json.processor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import am.ik.json.JsonName;
+import am.ik.json.JsonNode;
+import am.ik.json.JsonSerializable;
+
+@JsonSerializable
+public class Person {
+	private String name;
+
+	private int age;
+
+	private boolean active;
+
+	private double score;
+
+	private Long id;
+
+	@JsonName("e-mail")
+	private String email;
+
+	private BigDecimal balance;
+
+	private Role role;
+
+	private List<String> tags;
+
+	private Map<String, Integer> counts;
+
+	private Address address;
+
+	private List<Address> previous;
+
+	private JsonNode extra;
+
+	String nickname;
+
+	private transient String ignored;
+
+	public enum Role {
+		ADMIN, USER
+	}
+
+	@JsonSerializable
+	public static class Address {
+		public String city;
+
+		public int zip;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public int getAge() {
+		return this.age;
+	}
+
+	public void setAge(int age) {
+		this.age = age;
+	}
+
+	public boolean isActive() {
+		return this.active;
+	}
+
+	public void setActive(boolean active) {
+		this.active = active;
+	}
+
+	public double getScore() {
+		return this.score;
+	}
+
+	public void setScore(double score) {
+		this.score = score;
+	}
+
+	public Long getId() {
+		return this.id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getEmail() {
+		return this.email;
+	}
+
+	public void setEmail(String email) {
+		this.email = email;
+	}
+
+	public BigDecimal getBalance() {
+		return this.balance;
+	}
+
+	public void setBalance(BigDecimal balance) {
+		this.balance = balance;
+	}
+
+	public Role getRole() {
+		return this.role;
+	}
+
+	public void setRole(Role role) {
+		this.role = role;
+	}
+
+	public List<String> getTags() {
+		return this.tags;
+	}
+
+	public void setTags(List<String> tags) {
+		this.tags = tags;
+	}
+
+	public Map<String, Integer> getCounts() {
+		return this.counts;
+	}
+
+	public void setCounts(Map<String, Integer> counts) {
+		this.counts = counts;
+	}
+
+	public Address getAddress() {
+		return this.address;
+	}
+
+	public void setAddress(Address address) {
+		this.address = address;
+	}
+
+	public List<Address> getPrevious() {
+		return this.previous;
+	}
+
+	public void setPrevious(List<Address> previous) {
+		this.previous = previous;
+	}
+
+	public JsonNode getExtra() {
+		return this.extra;
+	}
+
+	public void setExtra(JsonNode extra) {
+		this.extra = extra;
+	}
+}
\ No newline at end of file
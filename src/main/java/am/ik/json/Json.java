@@ -15,20 +15,122 @@
  */
 package am.ik.json;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
 public final class Json {
+	private static volatile JsonMetricsListener metricsListener = JsonMetricsListener.NOOP;
+
+	public static void setMetricsListener(JsonMetricsListener listener) {
+		metricsListener = listener == null ? JsonMetricsListener.NOOP : listener;
+	}
+
+	static JsonMetricsListener metricsListener() {
+		return metricsListener;
+	}
+
 	public static JsonNode parse(String json) {
-		return new JsonParser(new JsonLexer(json)).parse();
+		return new JsonParser(new JsonReader(new JsonLexer(json)), metricsListener).parse();
+	}
+
+	public static JsonNode parse(String json, JsonKeyCache keyCache) {
+		return new JsonParser(new JsonReader(new JsonLexer(json), keyCache), metricsListener).parse();
+	}
+
+	public static JsonNode parse(String json, JsonParserOptions options) {
+		return new JsonParser(new JsonReader(new JsonLexer(json), options), metricsListener).parse();
+	}
+
+	public static JsonNode parse(byte[] utf8, JsonParserOptions options) {
+		return new JsonParser(new JsonReader(new JsonLexer(utf8, 0, utf8.length), options), metricsListener).parse();
+	}
+
+	public static JsonNode parse(InputStream json, JsonParserOptions options) {
+		return new JsonParser(new JsonReader(new JsonLexer(new InputStreamReader(json, StandardCharsets.UTF_8)), options),
+				metricsListener)
+			.parse();
+	}
+
+	public static JsonNode parseParallel(String json) {
+		return ParallelArrayParser.parse(json);
+	}
+
+	public static JsonNode parseParallel(String json, JsonParserOptions options) {
+		return ParallelArrayParser.parse(json, options);
+	}
+
+	public static JsonNode parseLazy(String json) {
+		return JsonTape.parse(json);
+	}
+
+	public static JsonNode parse(byte[] utf8) {
+		return parse(utf8, 0, utf8.length);
+	}
+
+	public static JsonNode parse(byte[] utf8, int offset, int length) {
+		return new JsonParser(new JsonReader(new JsonLexer(utf8, offset, length)), metricsListener).parse();
+	}
+
+	public static JsonNode parse(ByteBuffer utf8) {
+		return new JsonParser(new JsonReader(new JsonLexer(utf8)), metricsListener).parse();
+	}
+
+	public static JsonNode parse(Reader json) {
+		return new JsonParser(new JsonReader(json), metricsListener).parse();
+	}
+
+	public static JsonNode parse(InputStream json) {
+		return new JsonParser(new JsonReader(json), metricsListener).parse();
+	}
+
+	public static JsonNode parse(Path json) {
+		try (JsonReader reader = reader(json)) {
+			return new JsonParser(reader, metricsListener).parse();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public static JsonReader reader(Path json) {
+		return new JsonReader(MappedFile.lexer(json));
+	}
+
+	public static <T> T parse(String json, JsonCodec<T> codec) {
+		return codec.read(new JsonReader(new JsonLexer(json)));
+	}
+
+	public static <T> T parse(byte[] utf8, JsonCodec<T> codec) {
+		return codec.read(new JsonReader(new JsonLexer(utf8, 0, utf8.length)));
+	}
+
+	public static <T> String stringify(T value, JsonCodec<T> codec) {
+		final StringBuilder sb = new StringBuilder();
+		codec.write(new JsonGenerator(sb, metricsListener), value);
+		return sb.toString();
 	}
 
 	public static String stringify(JsonNode json) {
-		return json == null ? "null" : json.toString();
+		final StringBuilder sb = new StringBuilder();
+		new JsonGenerator(sb, metricsListener).writeNode(json);
+		return sb.toString();
 	}
 
 	public static String stringify(JsonArray json) {
-		return json == null ? "null" : json.toString();
+		final StringBuilder sb = new StringBuilder();
+		new JsonGenerator(sb, metricsListener).writeArray(json);
+		return sb.toString();
 	}
 
 	public static String stringify(JsonObject json) {
-		return json == null ? "null" : json.toString();
+		final StringBuilder sb = new StringBuilder();
+		new JsonGenerator(sb, metricsListener).writeObject(json);
+		return sb.toString();
 	}
 }
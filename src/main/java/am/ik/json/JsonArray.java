@@ -15,41 +15,176 @@
  */
 package am.ik.json;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 
 public class JsonArray {
-	private final List<JsonNode> values;
+	private static final JsonNode[] EMPTY_VALUES = {};
+
+	private JsonNode[] values;
+
+	private int size;
+
+	private JsonTape tape;
+
+	private int index;
+
+	private JsonHash digest;
 
 	public JsonArray() {
-		this.values = new ArrayList<>();
+		this.values = EMPTY_VALUES;
+	}
+
+	JsonArray(JsonNode[] values) {
+		this.values = values;
+		this.size = values.length;
+	}
+
+	JsonArray(JsonTape tape, int index) {
+		this();
+		this.tape = tape;
+		this.index = index;
 	}
 
 	public JsonArray add(JsonNode value) {
-		this.values.add(value);
+		this.materialize();
+		if (this.size == this.values.length) {
+			this.values = Arrays.copyOf(this.values, Math.max(4, this.size + (this.size >> 1)));
+		}
+		this.values[this.size++] = value;
 		return this;
 	}
 
+	public JsonArray add(int index, JsonNode value) {
+		this.materialize();
+		if (index < 0 || index > this.size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+		}
+		if (this.size == this.values.length) {
+			this.values = Arrays.copyOf(this.values, Math.max(4, this.size + (this.size >> 1)));
+		}
+		System.arraycopy(this.values, index, this.values, index + 1, this.size - index);
+		this.values[index] = value;
+		this.size++;
+		return this;
+	}
+
+	public JsonArray set(int index, JsonNode value) {
+		this.materialize();
+		this.checkIndex(index);
+		this.values[index] = value;
+		return this;
+	}
+
+	public JsonNode remove(int index) {
+		this.materialize();
+		this.checkIndex(index);
+		final JsonNode removed = this.values[index];
+		System.arraycopy(this.values, index + 1, this.values, index, this.size - index - 1);
+		this.values[--this.size] = null;
+		return removed;
+	}
+
 	public JsonNode get(int index) {
-		return this.values.get(index);
+		this.materialize();
+		this.checkIndex(index);
+		return this.values[index];
 	}
 
 	public int size() {
-		return this.values.size();
+		if (this.tape != null) {
+			return this.tape.count(this.index);
+		}
+		return this.size;
 	}
 
 	public List<JsonNode> values() {
-		return Collections.unmodifiableList(this.values);
+		this.materialize();
+		return Collections.unmodifiableList(Arrays.asList(this.values).subList(0, this.size));
+	}
+
+	void assign(JsonNode[] source, int from, int to) {
+		final int length = to - from;
+		if (this.values.length < length) {
+			this.values = new JsonNode[length];
+		}
+		System.arraycopy(source, from, this.values, 0, length);
+		this.size = length;
+	}
+
+	void recycle() {
+		this.materialize();
+		Arrays.fill(this.values, 0, this.size, null);
+		this.size = 0;
 	}
 
 	public JsonNode toNode() {
 		return new JsonNode(this);
 	}
 
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof JsonArray && JsonHash.equal(this, (JsonArray) o);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.structuralHash().value;
+	}
+
 	@Override
 	public String toString() {
-		return Objects.toString(this.values);
+		return Json.stringify(this);
+	}
+
+	JsonHash structuralHash() {
+		JsonHash digest = this.digest;
+		if (digest == null) {
+			final int size = this.size();
+			boolean stable = this instanceof PersistentJsonArray;
+			int h = 1;
+			for (int i = 0; i < size; i++) {
+				final Object value = JsonHash.value(this.get(i));
+				final JsonHash child = JsonHash.container(value);
+				h = 31 * h + (child == null ? JsonHash.hash(value) : child.value);
+				stable &= child == null || child.isStable();
+			}
+			digest = new JsonHash(h, stable);
+			if (stable) {
+				this.digest = digest;
+			}
+		}
+		return digest;
+	}
+
+	JsonHash digest() {
+		final JsonHash digest = this.digest;
+		if (digest != null || !(this instanceof PersistentJsonArray)) {
+			return digest;
+		}
+		final JsonHash computed = this.structuralHash();
+		return computed.isStable() ? computed : null;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+		}
+	}
+
+	private void materialize() {
+		if (this.tape != null) {
+			final JsonTape tape = this.tape;
+			this.tape = null;
+			final int count = tape.count(this.index);
+			this.values = count == 0 ? EMPTY_VALUES : new JsonNode[count];
+			int child = tape.firstChild(this.index);
+			for (int i = 0; i < count; i++) {
+				this.values[i] = tape.node(child);
+				child = tape.nextSibling(child);
+			}
+			this.size = count;
+		}
 	}
 }
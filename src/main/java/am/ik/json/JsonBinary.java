@@ -0,0 +1,531 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public final class JsonBinary {
+	private static final int MAJOR_UNSIGNED = 0;
+
+	private static final int MAJOR_NEGATIVE = 1;
+
+	private static final int MAJOR_BYTES = 2;
+
+	private static final int MAJOR_TEXT = 3;
+
+	private static final int MAJOR_ARRAY = 4;
+
+	private static final int MAJOR_MAP = 5;
+
+	private static final int MAJOR_TAG = 6;
+
+	private static final int MAJOR_SIMPLE = 7;
+
+	private static final int TAG_POSITIVE_BIGNUM = 2;
+
+	private static final int TAG_NEGATIVE_BIGNUM = 3;
+
+	private static final int TAG_DECIMAL_FRACTION = 4;
+
+	private static final int FALSE = 0xF4;
+
+	private static final int TRUE = 0xF5;
+
+	private static final int NULL = 0xF6;
+
+	private static final int HALF = 0xF9;
+
+	private static final int SINGLE = 0xFA;
+
+	private static final int DOUBLE = 0xFB;
+
+	private byte[] bytes;
+
+	private int position;
+
+	private final char[] digits = new char[32];
+
+	private JsonBinary(byte[] bytes) {
+		this.bytes = bytes;
+	}
+
+	public static byte[] encode(JsonNode node) {
+		final JsonBinary binary = new JsonBinary(new byte[64]);
+		binary.writeNode(node);
+		return Arrays.copyOf(binary.bytes, binary.position);
+	}
+
+	public static byte[] encode(JsonObject object) {
+		return encode(new JsonNode(object));
+	}
+
+	public static byte[] encode(JsonArray array) {
+		return encode(new JsonNode(array));
+	}
+
+	public static void encode(JsonNode node, ByteBuffer out) {
+		final JsonBinary binary = new JsonBinary(new byte[64]);
+		binary.writeNode(node);
+		out.put(binary.bytes, 0, binary.position);
+	}
+
+	public static JsonNode decode(byte[] cbor) {
+		return decode(cbor, 0, cbor.length);
+	}
+
+	public static JsonNode decode(byte[] cbor, JsonParserOptions options) {
+		return decode(cbor, 0, cbor.length, options);
+	}
+
+	public static JsonNode decode(byte[] cbor, int offset, int length) {
+		return decode(cbor, offset, length, JsonParserOptions.defaults());
+	}
+
+	public static JsonNode decode(byte[] cbor, int offset, int length, JsonParserOptions options) {
+		final Decoder decoder = new Decoder(ByteBuffer.wrap(cbor, offset, length), options);
+		final JsonNode node = decoder.decode();
+		if (decoder.in.hasRemaining()) {
+			throw new JsonParseException("Unexpected trailing bytes at offset " + decoder.in.position());
+		}
+		return node;
+	}
+
+	public static JsonNode decode(ByteBuffer cbor) {
+		return decode(cbor, JsonParserOptions.defaults());
+	}
+
+	public static JsonNode decode(ByteBuffer cbor, JsonParserOptions options) {
+		return new Decoder(cbor, options).decode();
+	}
+
+	private void writeNode(JsonNode node) {
+		final Object value = node == null ? null : node.value();
+		if (value == null) {
+			this.write(NULL);
+		}
+		else if (value instanceof String) {
+			this.writeText((String) value);
+		}
+		else if (value instanceof JsonObject) {
+			final JsonObject object = (JsonObject) value;
+			final int size = object.materializedSize();
+			this.writeHead(MAJOR_MAP, size);
+			for (int i = 0; i < size; i++) {
+				this.writeText(object.keyAt(i));
+				this.writeNode(object.valueAt(i));
+			}
+		}
+		else if (value instanceof JsonArray) {
+			final JsonArray array = (JsonArray) value;
+			final int size = array.size();
+			this.writeHead(MAJOR_ARRAY, size);
+			for (int i = 0; i < size; i++) {
+				this.writeNode(array.get(i));
+			}
+		}
+		else if (value instanceof Boolean) {
+			this.write((Boolean) value ? TRUE : FALSE);
+		}
+		else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+			this.writeLong(((Number) value).longValue());
+		}
+		else if (value instanceof Double) {
+			this.writeDouble((Double) value);
+		}
+		else if (value instanceof Float) {
+			this.write(SINGLE);
+			this.writeInt(Float.floatToIntBits((Float) value));
+		}
+		else if (value instanceof JsonNumber) {
+			this.writeNumber((JsonNumber) value);
+		}
+		else if (value instanceof BigInteger) {
+			this.writeBigInteger((BigInteger) value);
+		}
+		else if (value instanceof BigDecimal) {
+			this.writeBigDecimal((BigDecimal) value);
+		}
+		else if (value instanceof Number) {
+			this.writeDouble(((Number) value).doubleValue());
+		}
+		else {
+			this.writeText(value.toString());
+		}
+	}
+
+	private void writeNumber(JsonNumber number) {
+		if (number.fitsLong()) {
+			this.writeLong(number.longValue());
+			return;
+		}
+		if (number.isIntegral()) {
+			this.writeBigInteger(number.bigIntegerValue());
+			return;
+		}
+		final double value = number.doubleValue();
+		final int length = NumberCodec.format(value, this.digits);
+		final String text = number.toString();
+		if (text.length() == length && text.contentEquals(CharBuffer.wrap(this.digits, 0, length))) {
+			this.writeDouble(value);
+			return;
+		}
+		this.writeBigDecimal(number.bigDecimalValue());
+	}
+
+	private void writeDouble(double value) {
+		this.write(DOUBLE);
+		this.writeLongBits(Double.doubleToLongBits(value));
+	}
+
+	private void writeLong(long value) {
+		if (value >= 0) {
+			this.writeHead(MAJOR_UNSIGNED, value);
+		}
+		else {
+			this.writeHead(MAJOR_NEGATIVE, -1 - value);
+		}
+	}
+
+	private void writeBigInteger(BigInteger value) {
+		if (value.bitLength() < 64) {
+			this.writeLong(value.longValue());
+			return;
+		}
+		final boolean negative = value.signum() < 0;
+		this.writeHead(MAJOR_TAG, negative ? TAG_NEGATIVE_BIGNUM : TAG_POSITIVE_BIGNUM);
+		byte[] magnitude = (negative ? value.negate().subtract(BigInteger.ONE) : value).toByteArray();
+		if (magnitude[0] == 0 && magnitude.length > 1) {
+			magnitude = Arrays.copyOfRange(magnitude, 1, magnitude.length);
+		}
+		this.writeHead(MAJOR_BYTES, magnitude.length);
+		this.ensure(magnitude.length);
+		System.arraycopy(magnitude, 0, this.bytes, this.position, magnitude.length);
+		this.position += magnitude.length;
+	}
+
+	private void writeBigDecimal(BigDecimal value) {
+		this.writeHead(MAJOR_TAG, TAG_DECIMAL_FRACTION);
+		this.writeHead(MAJOR_ARRAY, 2);
+		this.writeLong(-(long) value.scale());
+		this.writeBigInteger(value.unscaledValue());
+	}
+
+	private void writeText(String value) {
+		final int length = value.length();
+		int utf8Length = length;
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+			if (c >= 0x80) {
+				utf8Length = -1;
+				break;
+			}
+		}
+		if (utf8Length < 0) {
+			final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+			this.writeHead(MAJOR_TEXT, utf8.length);
+			this.ensure(utf8.length);
+			System.arraycopy(utf8, 0, this.bytes, this.position, utf8.length);
+			this.position += utf8.length;
+			return;
+		}
+		this.writeHead(MAJOR_TEXT, length);
+		this.ensure(length);
+		final byte[] bytes = this.bytes;
+		int position = this.position;
+		for (int i = 0; i < length; i++) {
+			bytes[position++] = (byte) value.charAt(i);
+		}
+		this.position = position;
+	}
+
+	private void writeHead(int major, long argument) {
+		final int type = major << 5;
+		if (argument < 24) {
+			this.write(type | (int) argument);
+		}
+		else if (argument < 0x100) {
+			this.write(type | 24);
+			this.write((int) argument);
+		}
+		else if (argument < 0x10000) {
+			this.write(type | 25);
+			this.write((int) (argument >> 8));
+			this.write((int) argument);
+		}
+		else if (argument < 0x100000000L) {
+			this.write(type | 26);
+			this.writeInt((int) argument);
+		}
+		else {
+			this.write(type | 27);
+			this.writeLongBits(argument);
+		}
+	}
+
+	private void writeInt(int value) {
+		this.ensure(4);
+		this.bytes[this.position++] = (byte) (value >> 24);
+		this.bytes[this.position++] = (byte) (value >> 16);
+		this.bytes[this.position++] = (byte) (value >> 8);
+		this.bytes[this.position++] = (byte) value;
+	}
+
+	private void writeLongBits(long value) {
+		this.writeInt((int) (value >> 32));
+		this.writeInt((int) value);
+	}
+
+	private void write(int b) {
+		this.ensure(1);
+		this.bytes[this.position++] = (byte) b;
+	}
+
+	private void ensure(int length) {
+		if (this.position + length > this.bytes.length) {
+			this.bytes = Arrays.copyOf(this.bytes, Math.max(this.position + length, this.bytes.length * 2));
+		}
+	}
+
+	private static final class Decoder {
+		private final ByteBuffer in;
+
+		private final JsonParserOptions options;
+
+		private int depth;
+
+		Decoder(ByteBuffer in, JsonParserOptions options) {
+			this.in = in;
+			this.options = options;
+		}
+
+		JsonNode decode() {
+			if (this.in.remaining() > this.options.maxInputLength()) {
+				throw new JsonParseException("Input length exceeds the maximum of " + this.options.maxInputLength());
+			}
+			try {
+				return this.readNode();
+			}
+			catch (BufferUnderflowException e) {
+				throw new JsonParseException("Unexpected end of CBOR input");
+			}
+		}
+
+		private JsonNode readNode() {
+			final int initial = this.read();
+			final int major = initial >>> 5;
+			final int info = initial & 0x1F;
+			switch (major) {
+				case MAJOR_UNSIGNED:
+				case MAJOR_NEGATIVE: {
+					final long argument = this.readArgument(info);
+					if (argument < 0) {
+						final BigInteger unsigned = new BigInteger(Long.toUnsignedString(argument));
+						return new JsonNode(new JsonNumber((major == MAJOR_NEGATIVE ? unsigned.negate().subtract(BigInteger.ONE) : unsigned).toString()));
+					}
+					final long value = major == MAJOR_NEGATIVE ? -1 - argument : argument;
+					if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+						return JsonNode.valueOf((int) value);
+					}
+					return new JsonNode(new JsonNumber(Long.toString(value)));
+				}
+				case MAJOR_TEXT:
+					return new JsonNode(this.readText(info));
+				case MAJOR_ARRAY: {
+					final int size = this.readLength(info, 1);
+					this.enter();
+					final JsonNode[] values = new JsonNode[size];
+					for (int i = 0; i < size; i++) {
+						values[i] = this.readNode();
+					}
+					this.depth--;
+					return new JsonNode(new JsonArray(values));
+				}
+				case MAJOR_MAP: {
+					final int size = this.readLength(info, 2);
+					if (size > this.options.maxEntries()) {
+						throw new JsonParseException("Object entries exceed the maximum of " + this.options.maxEntries());
+					}
+					this.enter();
+					final JsonObject object = new JsonObject(size);
+					for (int i = 0; i < size; i++) {
+						final int key = this.read();
+						if (key >>> 5 != MAJOR_TEXT) {
+							throw new JsonParseException("Object keys must be text strings at offset " + (this.in.position() - 1));
+						}
+						object.put(this.readText(key & 0x1F), this.readNode());
+					}
+					this.depth--;
+					return new JsonNode(object);
+				}
+				case MAJOR_TAG:
+					return new JsonNode(new JsonNumber(this.readTagged(this.readArgument(info))));
+				case MAJOR_SIMPLE:
+					return this.readSimple(initial);
+				default:
+					throw this.unsupported(initial);
+			}
+		}
+
+		private String readTagged(long tag) {
+			if (tag == TAG_POSITIVE_BIGNUM || tag == TAG_NEGATIVE_BIGNUM) {
+				return this.readBignum(tag).toString();
+			}
+			if (tag == TAG_DECIMAL_FRACTION) {
+				final int head = this.read();
+				if (head != ((MAJOR_ARRAY << 5) | 2)) {
+					throw this.unsupported(head);
+				}
+				final BigInteger exponent = this.readInteger();
+				final BigInteger mantissa = this.readInteger();
+				if (exponent.bitLength() > 31 || exponent.intValue() == Integer.MIN_VALUE) {
+					throw new JsonParseException("Decimal exponent out of range: " + exponent);
+				}
+				return new BigDecimal(mantissa, -exponent.intValue()).toString();
+			}
+			throw new JsonParseException("Unsupported CBOR tag: " + tag);
+		}
+
+		private BigInteger readInteger() {
+			final int initial = this.read();
+			final int major = initial >>> 5;
+			if (major == MAJOR_UNSIGNED || major == MAJOR_NEGATIVE) {
+				final BigInteger value = new BigInteger(Long.toUnsignedString(this.readArgument(initial & 0x1F)));
+				return major == MAJOR_NEGATIVE ? value.negate().subtract(BigInteger.ONE) : value;
+			}
+			if (major == MAJOR_TAG) {
+				return this.readBignum(this.readArgument(initial & 0x1F));
+			}
+			throw this.unsupported(initial);
+		}
+
+		private BigInteger readBignum(long tag) {
+			final int head = this.read();
+			if (head >>> 5 != MAJOR_BYTES || tag != TAG_POSITIVE_BIGNUM && tag != TAG_NEGATIVE_BIGNUM) {
+				throw this.unsupported(head);
+			}
+			final byte[] magnitude = new byte[this.readLength(head & 0x1F, 1)];
+			this.in.get(magnitude);
+			final BigInteger value = new BigInteger(1, magnitude);
+			return tag == TAG_NEGATIVE_BIGNUM ? value.negate().subtract(BigInteger.ONE) : value;
+		}
+
+		private JsonNode readSimple(int initial) {
+			switch (initial) {
+				case FALSE:
+					return JsonNode.FALSE;
+				case TRUE:
+					return JsonNode.TRUE;
+				case NULL:
+					return JsonNode.NULL;
+				case HALF:
+					return new JsonNode(halfToFloat(this.in.getShort() & 0xFFFF));
+				case SINGLE:
+					return new JsonNode(Float.intBitsToFloat(this.in.getInt()));
+				case DOUBLE:
+					return new JsonNode(Double.longBitsToDouble(this.in.getLong()));
+				default:
+					throw this.unsupported(initial);
+			}
+		}
+
+		private String readText(int info) {
+			final int length = this.readLength(info, 1);
+			final ByteBuffer in = this.in;
+			if (length > this.options.maxStringLength()) {
+				throw new JsonParseException("String length exceeds the maximum of " + this.options.maxStringLength());
+			}
+			final String text;
+			if (in.hasArray()) {
+				text = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+				((Buffer) in).position(in.position() + length);
+			}
+			else {
+				final byte[] utf8 = new byte[length];
+				in.get(utf8);
+				text = new String(utf8, StandardCharsets.UTF_8);
+			}
+			return text;
+		}
+
+		private int readLength(int info, int minBytesPerItem) {
+			final int position = this.in.position();
+			final long length = this.readArgument(info);
+			if (length < 0 || length > this.in.remaining() / minBytesPerItem) {
+				throw new JsonParseException("Length " + Long.toUnsignedString(length)
+						+ " exceeds the remaining input at offset " + position);
+			}
+			return (int) length;
+		}
+
+		private void enter() {
+			if (++this.depth > this.options.maxDepth()) {
+				throw new JsonParseException("Nesting depth exceeds the maximum of " + this.options.maxDepth());
+			}
+		}
+
+		private long readArgument(int info) {
+			if (info < 24) {
+				return info;
+			}
+			switch (info) {
+				case 24:
+					return this.read();
+				case 25:
+					return this.in.getShort() & 0xFFFF;
+				case 26:
+					return this.in.getInt() & 0xFFFFFFFFL;
+				case 27:
+					return this.in.getLong();
+				default:
+					throw new JsonParseException("Unsupported CBOR additional information: " + info);
+			}
+		}
+
+		private int read() {
+			if (!this.in.hasRemaining()) {
+				throw new JsonParseException("Unexpected end of CBOR input");
+			}
+			return this.in.get() & 0xFF;
+		}
+
+		private JsonParseException unsupported(int initial) {
+			return new JsonParseException("Unsupported CBOR item 0x" + Integer.toHexString(initial) + " at offset " + (this.in.position() - 1));
+		}
+
+		private static float halfToFloat(int half) {
+			final int exponent = (half >> 10) & 0x1F;
+			final int mantissa = half & 0x3FF;
+			final float magnitude;
+			if (exponent == 0) {
+				magnitude = mantissa * 0x1p-24f;
+			}
+			else if (exponent == 0x1F) {
+				magnitude = mantissa == 0 ? Float.POSITIVE_INFINITY : Float.NaN;
+			}
+			else {
+				magnitude = Float.intBitsToFloat(((exponent + 112) << 23) | (mantissa << 13));
+			}
+			return (half & 0x8000) != 0 ? -magnitude : magnitude;
+		}
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Function;
+
+public final class JsonCodecs {
+	public static final JsonCodec<String> STRING = new JsonCodec<String>() {
+		@Override
+		public String read(JsonReader reader) {
+			return isNull(reader) ? null : reader.nextString();
+		}
+
+		@Override
+		public void write(JsonGenerator generator, String value) {
+			generator.writeString(value);
+		}
+	};
+
+	public static final JsonCodec<Integer> INTEGER = new JsonCodec<Integer>() {
+		@Override
+		public Integer read(JsonReader reader) {
+			return isNull(reader) ? null : reader.nextInt();
+		}
+
+		@Override
+		public void write(JsonGenerator generator, Integer value) {
+			generator.writeNumber(value);
+		}
+	};
+
+	public static final JsonCodec<Long> LONG = new JsonCodec<Long>() {
+		@Override
+		public Long read(JsonReader reader) {
+			return isNull(reader) ? null : reader.nextLong();
+		}
+
+		@Override
+		public void write(JsonGenerator generator, Long value) {
+			generator.writeNumber(value);
+		}
+	};
+
+	public static final JsonCodec<Float> FLOAT = new JsonCodec<Float>() {
+		@Override
+		public Float read(JsonReader reader) {
+			return isNull(reader) ? null : reader.nextFloat();
+		}
+
+		@Override
+		public void write(JsonGenerator generator, Float value) {
+			generator.writeNumber(value);
+		}
+	};
+
+	public static final JsonCodec<Double> DOUBLE = new JsonCodec<Double>() {
+		@Override
+		public Double read(JsonReader reader) {
+			return isNull(reader) ? null : reader.nextDouble();
+		}
+
+		@Override
+		public void write(JsonGenerator generator, Double value) {
+			generator.writeNumber(value);
+		}
+	};
+
+	public static final JsonCodec<Boolean> BOOLEAN = new JsonCodec<Boolean>() {
+		@Override
+		public Boolean read(JsonReader reader) {
+			return isNull(reader) ? null : reader.nextBoolean();
+		}
+
+		@Override
+		public void write(JsonGenerator generator, Boolean value) {
+			if (value == null) {
+				generator.writeNull();
+			}
+			else {
+				generator.writeBoolean(value);
+			}
+		}
+	};
+
+	public static final JsonCodec<BigDecimal> BIG_DECIMAL = new JsonCodec<BigDecimal>() {
+		@Override
+		public BigDecimal read(JsonReader reader) {
+			return isNull(reader) ? null : new JsonNode(reader.nextNumber()).asBigDecimal();
+		}
+
+		@Override
+		public void write(JsonGenerator generator, BigDecimal value) {
+			generator.writeNumber(value);
+		}
+	};
+
+	public static final JsonCodec<BigInteger> BIG_INTEGER = new JsonCodec<BigInteger>() {
+		@Override
+		public BigInteger read(JsonReader reader) {
+			return isNull(reader) ? null : new JsonNode(reader.nextNumber()).asBigInteger();
+		}
+
+		@Override
+		public void write(JsonGenerator generator, BigInteger value) {
+			generator.writeNumber(value);
+		}
+	};
+
+	public static final JsonCodec<JsonNode> NODE = new JsonCodec<JsonNode>() {
+		@Override
+		public JsonNode read(JsonReader reader) {
+			return new JsonParser(reader).parse();
+		}
+
+		@Override
+		public void write(JsonGenerator generator, JsonNode value) {
+			generator.writeNode(value);
+		}
+	};
+
+	private JsonCodecs() {
+	}
+
+	public static <T> JsonCodec<List<T>> list(JsonCodec<T> element) {
+		return new JsonCodec<List<T>>() {
+			@Override
+			public List<T> read(JsonReader reader) {
+				if (isNull(reader)) {
+					return null;
+				}
+				final List<T> values = new ArrayList<>();
+				reader.beginArray();
+				while (reader.hasNext()) {
+					values.add(element.read(reader));
+				}
+				reader.endArray();
+				return values;
+			}
+
+			@Override
+			public void write(JsonGenerator generator, List<T> value) {
+				if (value == null) {
+					generator.writeNull();
+					return;
+				}
+				generator.writeStartArray();
+				for (T v : value) {
+					element.write(generator, v);
+				}
+				generator.writeEndArray();
+			}
+		};
+	}
+
+	public static <T> JsonCodec<Map<String, T>> map(JsonCodec<T> value) {
+		return new JsonCodec<Map<String, T>>() {
+			@Override
+			public Map<String, T> read(JsonReader reader) {
+				if (isNull(reader)) {
+					return null;
+				}
+				final Map<String, T> values = new LinkedHashMap<>();
+				reader.beginObject();
+				while (reader.hasNext()) {
+					final String name = reader.nextName();
+					values.put(name, value.read(reader));
+				}
+				reader.endObject();
+				return values;
+			}
+
+			@Override
+			public void write(JsonGenerator generator, Map<String, T> values) {
+				if (values == null) {
+					generator.writeNull();
+					return;
+				}
+				generator.writeStartObject();
+				for (Entry<String, T> entry : values.entrySet()) {
+					generator.writeName(entry.getKey());
+					value.write(generator, entry.getValue());
+				}
+				generator.writeEndObject();
+			}
+		};
+	}
+
+	public static <E extends Enum<E>> JsonCodec<E> enumeration(Function<String, E> valueOf) {
+		return new JsonCodec<E>() {
+			@Override
+			public E read(JsonReader reader) {
+				if (isNull(reader)) {
+					return null;
+				}
+				final String name = reader.nextString();
+				try {
+					return valueOf.apply(name);
+				}
+				catch (IllegalArgumentException e) {
+					throw new JsonParseException("Unknown constant: " + name);
+				}
+			}
+
+			@Override
+			public void write(JsonGenerator generator, E value) {
+				generator.writeString(value == null ? null : value.name());
+			}
+		};
+	}
+
+	public static boolean isNull(JsonReader reader) {
+		if (reader.peek() == TokenType.NULL) {
+			reader.nextNull();
+			return true;
+		}
+		return false;
+	}
+}
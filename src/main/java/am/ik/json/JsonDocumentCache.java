@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class JsonDocumentCache {
+	private static final int DEFAULT_STRIPES = 16;
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final Stripe[] stripes;
+
+	private final long maxRetainedBytesPerStripe;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	public JsonDocumentCache(long maxRetainedBytes) {
+		this(maxRetainedBytes, DEFAULT_STRIPES);
+	}
+
+	public JsonDocumentCache(long maxRetainedBytes, int concurrency) {
+		if (maxRetainedBytes < 0) {
+			throw new IllegalArgumentException("maxRetainedBytes must not be negative: " + maxRetainedBytes);
+		}
+		if (concurrency <= 0) {
+			throw new IllegalArgumentException("concurrency must be positive: " + concurrency);
+		}
+		final int stripes = Integer.highestOneBit(concurrency * 2 - 1);
+		this.stripes = new Stripe[stripes];
+		for (int i = 0; i < stripes; i++) {
+			this.stripes[i] = new Stripe();
+		}
+		this.maxRetainedBytesPerStripe = maxRetainedBytes / stripes;
+	}
+
+	public JsonNode parse(String json) {
+		long hash = FNV_OFFSET;
+		for (int i = 0; i < json.length(); i++) {
+			hash = (hash ^ json.charAt(i)) * FNV_PRIME;
+		}
+		final Key key = new Key(hash, json.length(), false);
+		final Stripe stripe = this.stripe(hash);
+		final Entry cached = stripe.get(key);
+		if (cached != null && cached.source instanceof String && cached.source.equals(json)) {
+			this.hits.increment();
+			return cached.document;
+		}
+		this.misses.increment();
+		final JsonNode document = PersistentJsonObject.persistent(Json.parse(json));
+		this.put(stripe, key, new Entry(json, document, 40L + 2L * json.length() + retainedSize(document)));
+		return document;
+	}
+
+	public JsonNode parse(byte[] utf8) {
+		return this.parse(utf8, 0, utf8.length);
+	}
+
+	public JsonNode parse(byte[] utf8, int offset, int length) {
+		long hash = FNV_OFFSET;
+		for (int i = offset; i < offset + length; i++) {
+			hash = (hash ^ (utf8[i] & 0xff)) * FNV_PRIME;
+		}
+		final Key key = new Key(hash, length, true);
+		final Stripe stripe = this.stripe(hash);
+		final Entry cached = stripe.get(key);
+		if (cached != null && cached.source instanceof byte[]
+				&& sameBytes((byte[]) cached.source, utf8, offset, length)) {
+			this.hits.increment();
+			return cached.document;
+		}
+		this.misses.increment();
+		final JsonNode document = PersistentJsonObject.persistent(Json.parse(utf8, offset, length));
+		final byte[] source = Arrays.copyOfRange(utf8, offset, offset + length);
+		this.put(stripe, key, new Entry(source, document, 16L + length + retainedSize(document)));
+		return document;
+	}
+
+	public long hits() {
+		return this.hits.sum();
+	}
+
+	public long misses() {
+		return this.misses.sum();
+	}
+
+	public long evictions() {
+		return this.evictions.sum();
+	}
+
+	public int size() {
+		int size = 0;
+		for (Stripe stripe : this.stripes) {
+			synchronized (stripe) {
+				size += stripe.entries.size();
+			}
+		}
+		return size;
+	}
+
+	public long retainedBytes() {
+		long retained = 0;
+		for (Stripe stripe : this.stripes) {
+			synchronized (stripe) {
+				retained += stripe.retained;
+			}
+		}
+		return retained;
+	}
+
+	public void clear() {
+		for (Stripe stripe : this.stripes) {
+			synchronized (stripe) {
+				stripe.entries.clear();
+				stripe.retained = 0;
+			}
+		}
+	}
+
+	private Stripe stripe(long hash) {
+		return this.stripes[(int) (hash ^ (hash >>> 32)) & (this.stripes.length - 1)];
+	}
+
+	private void put(Stripe stripe, Key key, Entry entry) {
+		if (entry.retained > this.maxRetainedBytesPerStripe) {
+			return;
+		}
+		synchronized (stripe) {
+			final Entry previous = stripe.entries.put(key, entry);
+			if (previous != null) {
+				stripe.retained -= previous.retained;
+			}
+			stripe.retained += entry.retained;
+			final Iterator<Entry> eldest = stripe.entries.values().iterator();
+			while (stripe.retained > this.maxRetainedBytesPerStripe) {
+				final Entry evicted = eldest.next();
+				eldest.remove();
+				stripe.retained -= evicted.retained;
+				this.evictions.increment();
+			}
+		}
+	}
+
+	static long retainedSize(JsonNode node) {
+		final Object value = node == null ? null : node.value();
+		if (value instanceof JsonObject) {
+			final JsonObject object = (JsonObject) value;
+			final int size = object.materializedSize();
+			long retained = 64;
+			for (int i = 0; i < size; i++) {
+				retained += 48 + 40 + 2L * object.keyAt(i).length() + retainedSize(object.valueAt(i));
+			}
+			return retained;
+		}
+		if (value instanceof JsonArray) {
+			final JsonArray array = (JsonArray) value;
+			final int size = array.size();
+			long retained = 56;
+			for (int i = 0; i < size; i++) {
+				retained += 8 + retainedSize(array.get(i));
+			}
+			return retained;
+		}
+		if (value instanceof String) {
+			return 16 + 40 + 2L * ((String) value).length();
+		}
+		if (value instanceof JsonNumber) {
+			return 16 + 56 + 2L * value.toString().length();
+		}
+		if (value instanceof Number) {
+			return node.isShared() ? 0 : 16 + 24;
+		}
+		return 0;
+	}
+
+	private static boolean sameBytes(byte[] cached, byte[] utf8, int offset, int length) {
+		if (cached.length != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (cached[i] != utf8[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static final class Key {
+		private final long hash;
+
+		private final int length;
+
+		private final boolean utf8;
+
+		Key(long hash, int length, boolean utf8) {
+			this.hash = hash;
+			this.length = length;
+			this.utf8 = utf8;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			final Key key = (Key) o;
+			return this.hash == key.hash && this.length == key.length && this.utf8 == key.utf8;
+		}
+
+		@Override
+		public int hashCode() {
+			return (Long.hashCode(this.hash) * 31 + this.length) * 31 + Boolean.hashCode(this.utf8);
+		}
+	}
+
+	private static final class Entry {
+		private final Object source;
+
+		private final JsonNode document;
+
+		private final long retained;
+
+		Entry(Object source, JsonNode document, long retained) {
+			this.source = source;
+			this.document = document;
+			this.retained = retained;
+		}
+	}
+
+	private static final class Stripe {
+		private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+		private long retained;
+
+		synchronized Entry get(Key key) {
+			return this.entries.get(key);
+		}
+	}
+}
@@ -0,0 +1,667 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class JsonFeedParser {
+	private static final int DOCUMENT = 0;
+
+	private static final int EMPTY_ARRAY = 1;
+
+	private static final int NONEMPTY_ARRAY = 2;
+
+	private static final int ARRAY_COMMA = 3;
+
+	private static final int EMPTY_OBJECT = 4;
+
+	private static final int OBJECT_COMMA = 5;
+
+	private static final int DANGLING_NAME = 6;
+
+	private static final int OBJECT_COLON = 7;
+
+	private static final int NONEMPTY_OBJECT = 8;
+
+	private static final int NONE = 0;
+
+	private static final int STRING = 1;
+
+	private static final int ESCAPE = 2;
+
+	private static final int UNICODE = 3;
+
+	private static final int NUMBER = 4;
+
+	private static final int LITERAL = 5;
+
+	private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+	private final int maxDepth;
+
+	private final long maxInputLength;
+
+	private final int maxStringLength;
+
+	private final int maxNumberLength;
+
+	private final int maxEntries;
+
+	private ByteBuffer input = EMPTY;
+
+	private boolean endOfInput;
+
+	private long offset;
+
+	private int[] stack = new int[32];
+
+	private int[] entries = new int[32];
+
+	private int stackSize;
+
+	private int state = NONE;
+
+	private boolean name;
+
+	private int byteOrderMark;
+
+	private int unicodeDigits;
+
+	private int unicodeValue;
+
+	private int utf8Remaining;
+
+	private int utf8CodePoint;
+
+	private int utf8Minimum;
+
+	private char[] text = new char[32];
+
+	private int textLength;
+
+	private int textLimit;
+
+	private JsonEvent event;
+
+	private boolean booleanValue;
+
+	private final JsonMetricsListener listener;
+
+	private final JsonMetricsRecorder recorder;
+
+	public JsonFeedParser() {
+		this(JsonParserOptions.defaults());
+	}
+
+	public JsonFeedParser(JsonParserOptions options) {
+		this.maxDepth = options.maxDepth();
+		this.maxInputLength = options.maxInputLength();
+		this.maxStringLength = options.maxStringLength();
+		this.maxNumberLength = options.maxNumberLength();
+		this.maxEntries = options.maxEntries();
+		this.listener = Json.metricsListener();
+		this.recorder = this.listener == JsonMetricsListener.NOOP ? null : new JsonMetricsRecorder();
+		this.push(DOCUMENT);
+	}
+
+	public JsonFeedParser feed(ByteBuffer bytes) {
+		if (this.endOfInput) {
+			throw new IllegalStateException("Input has already ended");
+		}
+		if (this.input.hasRemaining()) {
+			throw new IllegalStateException("Previous input has not been consumed");
+		}
+		if (this.offset + bytes.remaining() > this.maxInputLength) {
+			throw new JsonParseException("Input length exceeds the maximum of " + this.maxInputLength);
+		}
+		this.input = bytes;
+		return this;
+	}
+
+	public JsonFeedParser feed(byte[] bytes, int offset, int length) {
+		return this.feed(ByteBuffer.wrap(bytes, offset, length));
+	}
+
+	public JsonFeedParser endOfInput() {
+		this.endOfInput = true;
+		return this;
+	}
+
+	public boolean needsInput() {
+		return !this.endOfInput && !this.input.hasRemaining();
+	}
+
+	public JsonEvent nextEvent() {
+		if (this.recorder == null) {
+			return this.next();
+		}
+		final JsonEvent previous = this.event;
+		final JsonEvent event;
+		try {
+			event = this.next();
+		}
+		catch (RuntimeException e) {
+			this.listener.failed(this.recorder.metrics(this.offset), e);
+			throw e;
+		}
+		if (event != previous || event != JsonEvent.END_OF_INPUT) {
+			this.record(event);
+		}
+		return event;
+	}
+
+	private JsonEvent next() {
+		while (true) {
+			if (this.state != NONE) {
+				final JsonEvent event = this.resume();
+				if (event == null) {
+					return this.suspend();
+				}
+				return this.event = event;
+			}
+			if (!this.input.hasRemaining()) {
+				return this.suspend();
+			}
+			final int b = this.input.get() & 0xFF;
+			this.offset++;
+			if (this.byteOrderMark > 0) {
+				if (b != (this.byteOrderMark == 2 ? 0xBB : 0xBF)) {
+					throw this.invalidUtf8();
+				}
+				this.byteOrderMark--;
+				continue;
+			}
+			switch (b) {
+				case ' ':
+				case '\t':
+				case '\n':
+				case '\r':
+					continue;
+				case '{':
+					this.beforeValue(TokenType.LEFT_BRACE);
+					this.push(EMPTY_OBJECT);
+					return this.event = JsonEvent.START_OBJECT;
+				case '[':
+					this.beforeValue(TokenType.LEFT_BRACKET);
+					this.push(EMPTY_ARRAY);
+					return this.event = JsonEvent.START_ARRAY;
+				case '}':
+					this.close(EMPTY_OBJECT, NONEMPTY_OBJECT, TokenType.RIGHT_BRACE);
+					return this.event = JsonEvent.END_OBJECT;
+				case ']':
+					this.close(EMPTY_ARRAY, NONEMPTY_ARRAY, TokenType.RIGHT_BRACKET);
+					return this.event = JsonEvent.END_ARRAY;
+				case ',':
+					this.separator();
+					continue;
+				case ':':
+					if (this.peek() != DANGLING_NAME) {
+						throw this.unexpected(TokenType.COLON);
+					}
+					this.stack[this.stackSize - 1] = OBJECT_COLON;
+					continue;
+				case '"': {
+					final int scope = this.peek();
+					this.name = scope == EMPTY_OBJECT || scope == OBJECT_COMMA;
+					if (!this.name) {
+						this.beforeValue(TokenType.STRING);
+					}
+					else if (++this.entries[this.stackSize - 1] > this.maxEntries) {
+						throw new JsonParseException("Object entries exceed the maximum of " + this.maxEntries);
+					}
+					this.textLength = 0;
+					this.textLimit = this.maxStringLength;
+					this.state = STRING;
+					continue;
+				}
+				default:
+					if (b == '-' || b >= '0' && b <= '9') {
+						this.beforeValue(TokenType.INT);
+						this.textLength = 0;
+						this.textLimit = this.maxNumberLength;
+						this.append((char) b);
+						this.state = NUMBER;
+						continue;
+					}
+					if (b >= 'a' && b <= 'z') {
+						this.beforeValue(TokenType.BOOLEAN);
+						this.textLength = 0;
+						this.textLimit = this.maxStringLength;
+						this.append((char) b);
+						this.state = LITERAL;
+						continue;
+					}
+					if (b == 0xEF && this.offset == 1) {
+						this.byteOrderMark = 2;
+						continue;
+					}
+					throw new JsonLexerException("Invalid Character: " + (char) b);
+			}
+		}
+	}
+
+	public JsonEvent currentEvent() {
+		return this.event;
+	}
+
+	public String stringValue() {
+		return new String(this.text, 0, this.textLength);
+	}
+
+	public boolean booleanValue() {
+		return this.booleanValue;
+	}
+
+	public int intValue() {
+		return Integer.parseInt(this.stringValue());
+	}
+
+	public long longValue() {
+		return Long.parseLong(this.stringValue());
+	}
+
+	public double doubleValue() {
+		return NumberCodec.parseDouble(this.stringValue());
+	}
+
+	public Number numberValue() {
+		return JsonNumber.valueOf(this.stringValue());
+	}
+
+	public int depth() {
+		return this.stackSize - 1;
+	}
+
+	private void record(JsonEvent event) {
+		switch (event) {
+			case START_OBJECT:
+				this.recorder.startObject();
+				break;
+			case END_OBJECT:
+				this.recorder.endObject();
+				break;
+			case START_ARRAY:
+				this.recorder.startArray();
+				break;
+			case END_ARRAY:
+				this.recorder.endArray();
+				break;
+			case NAME:
+				this.recorder.key();
+				break;
+			case STRING:
+				this.recorder.value(TokenType.STRING);
+				break;
+			case INT:
+				this.recorder.value(TokenType.INT);
+				break;
+			case FLOAT:
+				this.recorder.value(TokenType.FLOAT);
+				break;
+			case BOOLEAN:
+				this.recorder.value(TokenType.BOOLEAN);
+				break;
+			case NULL:
+				this.recorder.value(TokenType.NULL);
+				break;
+			case END_OF_INPUT:
+				this.listener.parsed(this.recorder.metrics(this.offset));
+				break;
+			default:
+		}
+	}
+
+	private JsonEvent suspend() {
+		if (!this.endOfInput) {
+			return this.event = JsonEvent.NEED_MORE_INPUT;
+		}
+		if (this.stackSize > 1) {
+			throw new JsonParseException("Unexpected token: " + TokenType.EOF);
+		}
+		return this.event = JsonEvent.END_OF_INPUT;
+	}
+
+	private JsonEvent resume() {
+		switch (this.state) {
+			case NUMBER:
+				return this.resumeNumber();
+			case LITERAL:
+				return this.resumeLiteral();
+			default:
+				return this.resumeString();
+		}
+	}
+
+	private JsonEvent resumeString() {
+		final ByteBuffer input = this.input;
+		while (input.hasRemaining()) {
+			final int b = input.get() & 0xFF;
+			this.offset++;
+			if (this.utf8Remaining > 0) {
+				this.continuation(b);
+				continue;
+			}
+			switch (this.state) {
+				case ESCAPE:
+					this.escape(b);
+					continue;
+				case UNICODE: {
+					final int digit = Character.digit(b, 16);
+					if (digit < 0) {
+						throw new JsonLexerException("Invalid unicode escape: " + this.stringValue());
+					}
+					this.unicodeValue = (this.unicodeValue << 4) | digit;
+					if (++this.unicodeDigits == 4) {
+						this.append((char) this.unicodeValue);
+						this.state = STRING;
+					}
+					continue;
+				}
+				default:
+			}
+			if (b == '"') {
+				this.state = NONE;
+				if (this.name) {
+					this.stack[this.stackSize - 1] = DANGLING_NAME;
+					return JsonEvent.NAME;
+				}
+				this.afterValue();
+				return JsonEvent.STRING;
+			}
+			if (b == '\\') {
+				this.state = ESCAPE;
+			}
+			else if (b < 0x80) {
+				this.append((char) b);
+			}
+			else if (b >= 0xC2 && b < 0xE0) {
+				this.startSequence(b & 0x1F, 1, 0x80);
+			}
+			else if (b >= 0xE0 && b < 0xF0) {
+				this.startSequence(b & 0x0F, 2, 0x800);
+			}
+			else if (b >= 0xF0 && b < 0xF5) {
+				this.startSequence(b & 0x07, 3, 0x10000);
+			}
+			else {
+				throw this.invalidUtf8();
+			}
+		}
+		if (this.endOfInput) {
+			throw new JsonLexerException("Unterminated string: " + this.stringValue());
+		}
+		return null;
+	}
+
+	private void escape(int b) {
+		this.state = STRING;
+		switch (b) {
+			case '"':
+			case '\\':
+			case '/':
+				this.append((char) b);
+				break;
+			case 'b':
+				this.append('\b');
+				break;
+			case 'f':
+				this.append('\f');
+				break;
+			case 'n':
+				this.append('\n');
+				break;
+			case 'r':
+				this.append('\r');
+				break;
+			case 't':
+				this.append('\t');
+				break;
+			case 'u':
+				this.unicodeDigits = 0;
+				this.unicodeValue = 0;
+				this.state = UNICODE;
+				break;
+			default:
+				this.append('\\');
+				this.append((char) b);
+		}
+	}
+
+	private void startSequence(int bits, int remaining, int minimum) {
+		this.utf8CodePoint = bits;
+		this.utf8Remaining = remaining;
+		this.utf8Minimum = minimum;
+	}
+
+	private void continuation(int b) {
+		if ((b & 0xC0) != 0x80) {
+			throw this.invalidUtf8();
+		}
+		this.utf8CodePoint = (this.utf8CodePoint << 6) | (b & 0x3F);
+		if (--this.utf8Remaining > 0) {
+			return;
+		}
+		final int codePoint = this.utf8CodePoint;
+		if (codePoint < this.utf8Minimum || codePoint > Character.MAX_CODE_POINT
+				|| codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE) {
+			throw this.invalidUtf8();
+		}
+		if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+			this.append(Character.highSurrogate(codePoint));
+			this.append(Character.lowSurrogate(codePoint));
+		}
+		else {
+			this.append((char) codePoint);
+		}
+	}
+
+	private JsonEvent resumeNumber() {
+		final ByteBuffer input = this.input;
+		while (input.hasRemaining()) {
+			final int b = input.get(input.position());
+			if (!(b >= '0' && b <= '9' || b == '.' || b == 'e' || b == 'E' || b == '+' || b == '-')) {
+				return this.completeNumber();
+			}
+			((Buffer) input).position(input.position() + 1);
+			this.offset++;
+			this.append((char) b);
+		}
+		return this.endOfInput ? this.completeNumber() : null;
+	}
+
+	private JsonEvent completeNumber() {
+		this.state = NONE;
+		final JsonEvent event = this.numberEvent();
+		if (event == null) {
+			throw new JsonLexerException("Invalid number: " + this.stringValue());
+		}
+		this.afterValue();
+		return event;
+	}
+
+	private JsonEvent numberEvent() {
+		final char[] text = this.text;
+		final int length = this.textLength;
+		int i = text[0] == '-' ? 1 : 0;
+		if (i == length || !isDigit(text[i])) {
+			return null;
+		}
+		if (text[i++] != '0') {
+			while (i < length && isDigit(text[i])) {
+				i++;
+			}
+		}
+		boolean fraction = false;
+		if (i < length && text[i] == '.') {
+			fraction = true;
+			final int start = ++i;
+			while (i < length && isDigit(text[i])) {
+				i++;
+			}
+			if (i == start) {
+				return null;
+			}
+		}
+		if (i < length && (text[i] == 'e' || text[i] == 'E')) {
+			fraction = true;
+			i++;
+			if (i < length && (text[i] == '+' || text[i] == '-')) {
+				i++;
+			}
+			final int start = i;
+			while (i < length && isDigit(text[i])) {
+				i++;
+			}
+			if (i == start) {
+				return null;
+			}
+		}
+		if (i != length) {
+			return null;
+		}
+		return fraction ? JsonEvent.FLOAT : JsonEvent.INT;
+	}
+
+	private JsonEvent resumeLiteral() {
+		final ByteBuffer input = this.input;
+		while (input.hasRemaining()) {
+			final int b = input.get(input.position());
+			if (b < 'a' || b > 'z') {
+				return this.completeLiteral();
+			}
+			((Buffer) input).position(input.position() + 1);
+			this.offset++;
+			this.append((char) b);
+		}
+		return this.endOfInput ? this.completeLiteral() : null;
+	}
+
+	private JsonEvent completeLiteral() {
+		this.state = NONE;
+		final JsonEvent event;
+		if (this.isText("true")) {
+			this.booleanValue = true;
+			event = JsonEvent.BOOLEAN;
+		}
+		else if (this.isText("false")) {
+			this.booleanValue = false;
+			event = JsonEvent.BOOLEAN;
+		}
+		else if (this.isText("null")) {
+			event = JsonEvent.NULL;
+		}
+		else {
+			throw new JsonLexerException("Invalid literal: " + this.stringValue());
+		}
+		this.afterValue();
+		return event;
+	}
+
+	private void beforeValue(TokenType type) {
+		switch (this.peek()) {
+			case DOCUMENT:
+			case OBJECT_COLON:
+				break;
+			case EMPTY_ARRAY:
+			case ARRAY_COMMA:
+				this.stack[this.stackSize - 1] = NONEMPTY_ARRAY;
+				break;
+			default:
+				throw this.unexpected(type);
+		}
+	}
+
+	private void afterValue() {
+		if (this.peek() == OBJECT_COLON) {
+			this.stack[this.stackSize - 1] = NONEMPTY_OBJECT;
+		}
+	}
+
+	private void close(int empty, int nonempty, TokenType type) {
+		final int scope = this.peek();
+		if (scope != empty && scope != nonempty) {
+			throw this.unexpected(type);
+		}
+		this.stackSize--;
+		this.afterValue();
+	}
+
+	private void separator() {
+		switch (this.peek()) {
+			case NONEMPTY_ARRAY:
+				this.stack[this.stackSize - 1] = ARRAY_COMMA;
+				break;
+			case NONEMPTY_OBJECT:
+				this.stack[this.stackSize - 1] = OBJECT_COMMA;
+				break;
+			default:
+				throw this.unexpected(TokenType.COMMA);
+		}
+	}
+
+	private int peek() {
+		return this.stack[this.stackSize - 1];
+	}
+
+	private void push(int scope) {
+		if (this.stackSize == this.stack.length) {
+			this.stack = Arrays.copyOf(this.stack, this.stackSize * 2);
+			this.entries = Arrays.copyOf(this.entries, this.stackSize * 2);
+		}
+		this.entries[this.stackSize] = 0;
+		this.stack[this.stackSize++] = scope;
+		if (this.stackSize > this.maxDepth + 1) {
+			throw new JsonParseException("Nesting depth exceeds the maximum of " + this.maxDepth);
+		}
+	}
+
+	private boolean isText(String literal) {
+		if (this.textLength != literal.length()) {
+			return false;
+		}
+		for (int i = 0; i < this.textLength; i++) {
+			if (this.text[i] != literal.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void append(char c) {
+		if (this.textLength == this.textLimit) {
+			throw new JsonParseException(
+					(this.state == NUMBER ? "Number" : "String") + " length exceeds the maximum of " + this.textLimit);
+		}
+		if (this.textLength == this.text.length) {
+			this.text = Arrays.copyOf(this.text, this.textLength * 2);
+		}
+		this.text[this.textLength++] = c;
+	}
+
+	private JsonParseException unexpected(TokenType type) {
+		return new JsonParseException("Unexpected token: " + type + " at offset " + (this.offset - 1));
+	}
+
+	private JsonLexerException invalidUtf8() {
+		return new JsonLexerException("Invalid UTF-8 byte sequence at offset " + (this.offset - 1));
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+}
@@ -0,0 +1,464 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class JsonGenerator implements Closeable, Flushable {
+	private static final int EMPTY_DOCUMENT = 0;
+
+	private static final int NONEMPTY_DOCUMENT = 1;
+
+	private static final int EMPTY_ARRAY = 2;
+
+	private static final int NONEMPTY_ARRAY = 3;
+
+	private static final int EMPTY_OBJECT = 4;
+
+	private static final int DANGLING_NAME = 5;
+
+	private static final int NONEMPTY_OBJECT = 6;
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final Appendable out;
+
+	private final JsonMetricsListener listener;
+
+	private final JsonMetricsRecorder recorder;
+
+	private final Counter counter;
+
+	private final char[] digits = new char[32];
+
+	private int[] stack = new int[32];
+
+	private int stackSize = 0;
+
+	public JsonGenerator(Appendable out) {
+		this(out, JsonMetricsListener.NOOP);
+	}
+
+	public JsonGenerator(Appendable out, JsonMetricsListener listener) {
+		this.listener = listener;
+		if (listener == JsonMetricsListener.NOOP) {
+			this.out = out;
+			this.recorder = null;
+			this.counter = null;
+		}
+		else {
+			this.counter = new Counter(out);
+			this.out = this.counter;
+			this.recorder = new JsonMetricsRecorder();
+		}
+		this.push(EMPTY_DOCUMENT);
+	}
+
+	public JsonGenerator(OutputStream out) {
+		this(new Utf8Writer(out));
+	}
+
+	public JsonGenerator(ByteBuffer out) {
+		this(new Utf8Writer(out));
+	}
+
+	public JsonGenerator writeStartObject() {
+		this.beforeValue();
+		this.push(EMPTY_OBJECT);
+		if (this.recorder != null) {
+			this.recorder.startObject();
+		}
+		return this.append('{');
+	}
+
+	public JsonGenerator writeEndObject() {
+		final int scope = this.peek();
+		if (scope != EMPTY_OBJECT && scope != NONEMPTY_OBJECT) {
+			throw new IllegalStateException("Not in an object");
+		}
+		this.stackSize--;
+		this.append('}');
+		if (this.recorder != null) {
+			this.recorder.endObject();
+			this.completed();
+		}
+		return this;
+	}
+
+	public JsonGenerator writeStartArray() {
+		this.beforeValue();
+		this.push(EMPTY_ARRAY);
+		if (this.recorder != null) {
+			this.recorder.startArray();
+		}
+		return this.append('[');
+	}
+
+	public JsonGenerator writeEndArray() {
+		final int scope = this.peek();
+		if (scope != EMPTY_ARRAY && scope != NONEMPTY_ARRAY) {
+			throw new IllegalStateException("Not in an array");
+		}
+		this.stackSize--;
+		this.append(']');
+		if (this.recorder != null) {
+			this.recorder.endArray();
+			this.completed();
+		}
+		return this;
+	}
+
+	public JsonGenerator writeName(String name) {
+		final int scope = this.peek();
+		if (scope == NONEMPTY_OBJECT) {
+			this.append(',');
+		}
+		else if (scope != EMPTY_OBJECT) {
+			throw new IllegalStateException("Not in an object");
+		}
+		this.stack[this.stackSize - 1] = DANGLING_NAME;
+		if (this.recorder != null) {
+			this.recorder.key();
+		}
+		this.quote(name);
+		return this.append(':');
+	}
+
+	public JsonGenerator writeString(String value) {
+		if (value == null) {
+			return this.writeNull();
+		}
+		this.beforeValue();
+		this.quote(value);
+		return this.afterValue(TokenType.STRING);
+	}
+
+	public JsonGenerator writeNumber(int value) {
+		return this.writeNumber((long) value);
+	}
+
+	public JsonGenerator writeNumber(long value) {
+		this.beforeValue();
+		final char[] digits = this.digits;
+		int position = digits.length;
+		long remaining = value < 0 ? value : -value;
+		do {
+			digits[--position] = (char) ('0' - remaining % 10);
+			remaining /= 10;
+		} while (remaining != 0);
+		if (value < 0) {
+			digits[--position] = '-';
+		}
+		for (int i = position; i < digits.length; i++) {
+			this.append(digits[i]);
+		}
+		return this.afterValue(TokenType.INT);
+	}
+
+	public JsonGenerator writeNumber(float value) {
+		this.beforeValue();
+		this.append(this.digits, NumberCodec.format(value, this.digits));
+		return this.afterValue(TokenType.FLOAT);
+	}
+
+	public JsonGenerator writeNumber(double value) {
+		this.beforeValue();
+		this.append(this.digits, NumberCodec.format(value, this.digits));
+		return this.afterValue(TokenType.FLOAT);
+	}
+
+	public JsonGenerator writeNumber(Number value) {
+		if (value == null) {
+			return this.writeNull();
+		}
+		if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+			return this.writeNumber(value.longValue());
+		}
+		if (value instanceof Double) {
+			return this.writeNumber(value.doubleValue());
+		}
+		if (value instanceof Float) {
+			return this.writeNumber(value.floatValue());
+		}
+		this.beforeValue();
+		this.append(value.toString());
+		return this.afterValue(JsonMetricsRecorder.typeOf(value));
+	}
+
+	public JsonGenerator writeBoolean(boolean value) {
+		this.beforeValue();
+		this.append(value ? "true" : "false");
+		return this.afterValue(TokenType.BOOLEAN);
+	}
+
+	public JsonGenerator writeNull() {
+		this.beforeValue();
+		this.append("null");
+		return this.afterValue(TokenType.NULL);
+	}
+
+	public JsonGenerator writeObject(JsonObject value) {
+		if (value == null) {
+			return this.writeNull();
+		}
+		this.writeStartObject();
+		for (int i = 0; i < value.size(); i++) {
+			this.writeName(value.keyAt(i));
+			this.writeNode(value.valueAt(i));
+		}
+		return this.writeEndObject();
+	}
+
+	public JsonGenerator writeArray(JsonArray value) {
+		if (value == null) {
+			return this.writeNull();
+		}
+		this.writeStartArray();
+		final int size = value.size();
+		for (int i = 0; i < size; i++) {
+			this.writeNode(value.get(i));
+		}
+		return this.writeEndArray();
+	}
+
+	public JsonGenerator writeNode(JsonNode node) {
+		final Object value = node == null ? null : node.value();
+		if (value == null) {
+			return this.writeNull();
+		}
+		if (value instanceof String) {
+			return this.writeString((String) value);
+		}
+		if (value instanceof JsonObject) {
+			return this.writeObject((JsonObject) value);
+		}
+		if (value instanceof JsonArray) {
+			return this.writeArray((JsonArray) value);
+		}
+		if (value instanceof Boolean) {
+			return this.writeBoolean((Boolean) value);
+		}
+		if (value instanceof Number) {
+			return this.writeNumber((Number) value);
+		}
+		this.beforeValue();
+		this.append(value.toString());
+		return this.afterValue(TokenType.STRING);
+	}
+
+	@Override
+	public void flush() {
+		if (this.out instanceof Flushable) {
+			try {
+				((Flushable) this.out).flush();
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.stackSize != 1 || this.stack[0] != NONEMPTY_DOCUMENT) {
+			throw new IllegalStateException("Incomplete document");
+		}
+		if (this.out instanceof Closeable) {
+			((Closeable) this.out).close();
+		}
+	}
+
+	private void beforeValue() {
+		switch (this.peek()) {
+			case EMPTY_DOCUMENT:
+				this.stack[this.stackSize - 1] = NONEMPTY_DOCUMENT;
+				if (this.recorder != null) {
+					this.recorder.restart();
+				}
+				break;
+			case EMPTY_ARRAY:
+				this.stack[this.stackSize - 1] = NONEMPTY_ARRAY;
+				break;
+			case NONEMPTY_ARRAY:
+				this.append(", ");
+				break;
+			case DANGLING_NAME:
+				this.stack[this.stackSize - 1] = NONEMPTY_OBJECT;
+				break;
+			case NONEMPTY_DOCUMENT:
+				throw new IllegalStateException("JSON must have only one top-level value");
+			default:
+				throw new IllegalStateException("Name is required before a value in an object");
+		}
+	}
+
+	private JsonGenerator afterValue(TokenType type) {
+		if (this.recorder != null) {
+			this.recorder.value(type);
+			this.completed();
+		}
+		return this;
+	}
+
+	private void completed() {
+		if (this.stackSize == 1) {
+			this.listener.serialized(this.recorder.metrics(this.counter.count));
+		}
+	}
+
+	private JsonGenerator quote(String value) {
+		this.append('"');
+		final int length = value.length();
+		int start = 0;
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+			if (c >= ' ' && c != '"' && c != '\\' && c != '/') {
+				continue;
+			}
+			if (start < i) {
+				this.append(value, start, i);
+			}
+			start = i + 1;
+			switch (c) {
+				case '\b':
+					this.append("\\b");
+					break;
+				case '\f':
+					this.append("\\f");
+					break;
+				case '\n':
+					this.append("\\n");
+					break;
+				case '\r':
+					this.append("\\r");
+					break;
+				case '\t':
+					this.append("\\t");
+					break;
+				case '\\':
+				case '"':
+				case '/':
+					this.append('\\').append(c);
+					break;
+				default:
+					this.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+			}
+		}
+		if (start < length) {
+			this.append(value, start, length);
+		}
+		return this.append('"');
+	}
+
+	private int peek() {
+		return this.stack[this.stackSize - 1];
+	}
+
+	private void push(int scope) {
+		if (this.stackSize == this.stack.length) {
+			this.stack = Arrays.copyOf(this.stack, this.stackSize * 2);
+		}
+		this.stack[this.stackSize++] = scope;
+	}
+
+	private JsonGenerator append(char c) {
+		try {
+			this.out.append(c);
+			return this;
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private JsonGenerator append(char[] chars, int length) {
+		for (int i = 0; i < length; i++) {
+			this.append(chars[i]);
+		}
+		return this;
+	}
+
+	private JsonGenerator append(CharSequence s) {
+		try {
+			this.out.append(s);
+			return this;
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private JsonGenerator append(CharSequence s, int start, int end) {
+		try {
+			this.out.append(s, start, end);
+			return this;
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static final class Counter implements Appendable, Flushable, Closeable {
+		private final Appendable out;
+
+		private long count;
+
+		Counter(Appendable out) {
+			this.out = out;
+		}
+
+		@Override
+		public Appendable append(CharSequence s) throws IOException {
+			this.count += s.length();
+			this.out.append(s);
+			return this;
+		}
+
+		@Override
+		public Appendable append(CharSequence s, int start, int end) throws IOException {
+			this.count += end - start;
+			this.out.append(s, start, end);
+			return this;
+		}
+
+		@Override
+		public Appendable append(char c) throws IOException {
+			this.count++;
+			this.out.append(c);
+			return this;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (this.out instanceof Flushable) {
+				((Flushable) this.out).flush();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.out instanceof Closeable) {
+				((Closeable) this.out).close();
+			}
+		}
+	}
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+public interface JsonHandler {
+	default void startObject() {
+	}
+
+	default void key(String name) {
+	}
+
+	default void endObject() {
+	}
+
+	default void startArray() {
+	}
+
+	default void endArray() {
+	}
+
+	default void stringValue(String value) {
+	}
+
+	default void intValue(int value) {
+		this.numberValue(value);
+	}
+
+	default void numberValue(Number value) {
+	}
+
+	default void booleanValue(boolean value) {
+	}
+
+	default void nullValue() {
+	}
+}
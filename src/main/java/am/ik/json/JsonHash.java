@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+final class JsonHash {
+	private static final double EXACT_DOUBLE = 0x1p53;
+
+	private static final double EXACT_FLOAT = 0x1p24;
+
+	final int value;
+
+	private final boolean stable;
+
+	JsonHash(int value, boolean stable) {
+		this.value = value;
+		this.stable = stable;
+	}
+
+	boolean isStable() {
+		return this.stable;
+	}
+
+	static JsonHash container(Object value) {
+		if (value instanceof JsonObject) {
+			return ((JsonObject) value).structuralHash();
+		}
+		if (value instanceof JsonArray) {
+			return ((JsonArray) value).structuralHash();
+		}
+		return null;
+	}
+
+	static int hash(Object value) {
+		if (value == null) {
+			return 0;
+		}
+		if (value instanceof Number) {
+			return hash((Number) value);
+		}
+		final JsonHash container = container(value);
+		return container == null ? value.hashCode() : container.value;
+	}
+
+	static boolean equal(Object x, Object y) {
+		if (x == y) {
+			return true;
+		}
+		if (x == null || y == null) {
+			return false;
+		}
+		if (x instanceof Number && y instanceof Number) {
+			return equal((Number) x, (Number) y);
+		}
+		if (x instanceof JsonObject && y instanceof JsonObject) {
+			return equal((JsonObject) x, (JsonObject) y);
+		}
+		if (x instanceof JsonArray && y instanceof JsonArray) {
+			return equal((JsonArray) x, (JsonArray) y);
+		}
+		return x.equals(y);
+	}
+
+	static boolean equal(JsonObject x, JsonObject y) {
+		if (x == y) {
+			return true;
+		}
+		final int size = x.materializedSize();
+		if (size != y.materializedSize() || differ(x.digest(), y.digest())) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			final JsonNode other = y.find(x.keyAt(i));
+			if (other == null || !equal(value(x.valueAt(i)), other.value())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static boolean equal(JsonArray x, JsonArray y) {
+		if (x == y) {
+			return true;
+		}
+		final int size = x.size();
+		if (size != y.size() || differ(x.digest(), y.digest())) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (!equal(value(x.get(i)), value(y.get(i)))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static boolean unchanged(Object x, Object y) {
+		if (x == y) {
+			return true;
+		}
+		if (x instanceof JsonObject && y instanceof JsonObject) {
+			return memoized(((JsonObject) x).digest(), ((JsonObject) y).digest()) && equal(x, y);
+		}
+		if (x instanceof JsonArray && y instanceof JsonArray) {
+			return memoized(((JsonArray) x).digest(), ((JsonArray) y).digest()) && equal(x, y);
+		}
+		return false;
+	}
+
+	private static boolean memoized(JsonHash x, JsonHash y) {
+		return x != null && y != null && x.value == y.value;
+	}
+
+	private static boolean differ(JsonHash x, JsonHash y) {
+		return x != null && y != null && x.value != y.value;
+	}
+
+	static Object value(JsonNode node) {
+		return node == null ? null : node.value();
+	}
+
+	static int hash(Number value) {
+		if (isLong(value)) {
+			return Long.hashCode(value.longValue());
+		}
+		if (value instanceof Double || value instanceof Float) {
+			final double d = value.doubleValue();
+			if (Math.abs(d) < (value instanceof Float ? EXACT_FLOAT : EXACT_DOUBLE)) {
+				if (d == Math.rint(d)) {
+					return Long.hashCode((long) d);
+				}
+				if (value instanceof Double) {
+					return Double.hashCode(d);
+				}
+			}
+		}
+		if (value instanceof JsonNumber && ((JsonNumber) value).fitsLong()) {
+			return Long.hashCode(value.longValue());
+		}
+		final BigDecimal decimal = decimal(value);
+		if (decimal == null) {
+			return Double.hashCode(value.doubleValue());
+		}
+		if (decimal.signum() == 0) {
+			return 0;
+		}
+		if (decimal.precision() - (long) decimal.scale() <= 19) {
+			final BigDecimal integral = decimal.scale() > 0 ? decimal.stripTrailingZeros() : decimal;
+			if (integral.scale() <= 0) {
+				final BigInteger integer = integral.toBigInteger();
+				if (integer.bitLength() < 64) {
+					return Long.hashCode(integer.longValue());
+				}
+			}
+		}
+		return Double.hashCode(decimal.doubleValue());
+	}
+
+	static boolean equal(Number x, Number y) {
+		if (isLong(x) && isLong(y)) {
+			return x.longValue() == y.longValue();
+		}
+		final BigDecimal dx = decimal(x);
+		final BigDecimal dy = decimal(y);
+		if (dx == null || dy == null) {
+			return dx == dy && Double.compare(x.doubleValue(), y.doubleValue()) == 0;
+		}
+		return dx.compareTo(dy) == 0;
+	}
+
+	private static boolean isLong(Number value) {
+		return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+	}
+
+	private static BigDecimal decimal(Number value) {
+		if (value instanceof BigDecimal) {
+			return (BigDecimal) value;
+		}
+		if (value instanceof BigInteger) {
+			return new BigDecimal((BigInteger) value);
+		}
+		if (isLong(value)) {
+			return BigDecimal.valueOf(value.longValue());
+		}
+		if ((value instanceof Double || value instanceof Float)
+				&& (Double.isNaN(value.doubleValue()) || Double.isInfinite(value.doubleValue()))) {
+			return null;
+		}
+		try {
+			return value instanceof JsonNumber ? ((JsonNumber) value).bigDecimalValue()
+					: new BigDecimal(value.toString());
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+public final class JsonKeyCache {
+	private static final int DEFAULT_CAPACITY = 512;
+
+	private static final int DEFAULT_MAX_KEY_LENGTH = 64;
+
+	private final String[] entries;
+
+	private final int mask;
+
+	private final int maxKeyLength;
+
+	public JsonKeyCache() {
+		this(DEFAULT_CAPACITY, DEFAULT_MAX_KEY_LENGTH);
+	}
+
+	public JsonKeyCache(int capacity, int maxKeyLength) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		}
+		if (maxKeyLength < 0) {
+			throw new IllegalArgumentException("maxKeyLength must not be negative: " + maxKeyLength);
+		}
+		final int size = Integer.highestOneBit(Math.min(capacity, 1 << 30) * 2 - 1);
+		this.entries = new String[size];
+		this.mask = size - 1;
+		this.maxKeyLength = maxKeyLength;
+	}
+
+	public int capacity() {
+		return this.entries.length;
+	}
+
+	public String intern(String key) {
+		if (key.length() > this.maxKeyLength) {
+			return key;
+		}
+		final int index = spread(key.hashCode()) & this.mask;
+		final String cached = this.entries[index];
+		if (key.equals(cached)) {
+			return cached;
+		}
+		this.entries[index] = key;
+		return key;
+	}
+
+	String intern(char[] chars, int offset, int length) {
+		if (length > this.maxKeyLength) {
+			return new String(chars, offset, length);
+		}
+		int hash = 0;
+		for (int i = offset; i < offset + length; i++) {
+			hash = 31 * hash + chars[i];
+		}
+		final int index = spread(hash) & this.mask;
+		final String cached = this.entries[index];
+		if (cached != null && matches(cached, chars, offset, length)) {
+			return cached;
+		}
+		final String key = new String(chars, offset, length);
+		this.entries[index] = key;
+		return key;
+	}
+
+	public void clear() {
+		for (int i = 0; i < this.entries.length; i++) {
+			this.entries[i] = null;
+		}
+	}
+
+	private static boolean matches(String cached, char[] chars, int offset, int length) {
+		if (cached.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (cached.charAt(i) != chars[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+}
@@ -15,165 +15,547 @@
  */
 package am.ik.json;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
-public class JsonLexer implements Iterator<Token>, Iterable<Token> {
-	private final String input;
+public class JsonLexer implements Iterator<Token>, Iterable<Token>, Closeable {
+	static final int DEFAULT_BUFFER_SIZE = 1024;
+
+	private static final Token LEFT_BRACE = new Token(TokenType.LEFT_BRACE, "{");
+
+	private static final Token RIGHT_BRACE = new Token(TokenType.RIGHT_BRACE, "}");
+
+	private static final Token LEFT_BRACKET = new Token(TokenType.LEFT_BRACKET, "[");
+
+	private static final Token RIGHT_BRACKET = new Token(TokenType.RIGHT_BRACKET, "]");
+
+	private static final Token COLON = new Token(TokenType.COLON, ":");
+
+	private static final Token COMMA = new Token(TokenType.COMMA, ",");
+
+	private static final Token TRUE = new Token(TokenType.BOOLEAN, "true");
+
+	private static final Token FALSE = new Token(TokenType.BOOLEAN, "false");
+
+	private static final Token NULL = new Token(TokenType.NULL, "null");
+
+	private static final Token EOF = new Token(TokenType.EOF, "");
+
+	private Reader reader;
+
+	private char[] buffer;
 
 	private int position;
 
+	private int limit;
+
+	private long bufferOffset;
+
+	private TokenType tokenType;
+
+	private long tokenStart;
+
+	private long tokenEnd;
+
+	private char[] text = new char[32];
+
+	private int textLength;
+
+	private final CharSequence textView = new TextView();
+
+	private boolean booleanValue;
+
+	private long maxInputLength = Long.MAX_VALUE;
+
+	private int maxStringLength = Integer.MAX_VALUE;
+
+	private int maxNumberLength = Integer.MAX_VALUE;
+
+	private int textLimit = Integer.MAX_VALUE;
+
+	private boolean numberText;
+
 	public JsonLexer(String input) {
-		this.input = input;
+		this.reader = null;
+		this.buffer = input.toCharArray();
+		this.position = 0;
+		this.limit = this.buffer.length;
+	}
+
+	public JsonLexer(byte[] utf8, int offset, int length) {
+		this(ByteBuffer.wrap(utf8, offset, length));
+	}
+
+	public JsonLexer(ByteBuffer utf8) {
+		this(new Utf8Reader(utf8), Math.max(1, Math.min(utf8.remaining(), DEFAULT_BUFFER_SIZE)));
+	}
+
+	public JsonLexer(Reader reader) {
+		this(reader, DEFAULT_BUFFER_SIZE);
+	}
+
+	public JsonLexer(Reader reader, int bufferSize) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+		}
+		this.reader = reader;
+		this.buffer = new char[bufferSize];
+		this.position = 0;
+		this.limit = 0;
+	}
+
+	public JsonLexer reset(CharSequence input) {
+		final int length = input.length();
+		if (this.buffer.length < length) {
+			this.buffer = new char[Math.max(length, this.buffer.length + (this.buffer.length >> 1))];
+		}
+		if (input instanceof String) {
+			((String) input).getChars(0, length, this.buffer, 0);
+		}
+		else {
+			for (int i = 0; i < length; i++) {
+				this.buffer[i] = input.charAt(i);
+			}
+		}
+		this.reader = null;
 		this.position = 0;
+		this.limit = length;
+		this.bufferOffset = 0;
+		this.tokenType = null;
+		this.tokenStart = 0;
+		this.tokenEnd = 0;
+		this.textLength = 0;
+		this.booleanValue = false;
+		this.checkInputLength(length);
+		return this;
+	}
+
+	void limit(JsonParserOptions options) {
+		this.maxInputLength = options.maxInputLength();
+		this.maxStringLength = options.maxStringLength();
+		this.maxNumberLength = options.maxNumberLength();
+		this.checkInputLength(this.bufferOffset + this.limit - this.position);
 	}
 
 	public Token nextToken() {
-		Character current;
+		switch (this.advance()) {
+			case LEFT_BRACE:
+				return LEFT_BRACE;
+			case RIGHT_BRACE:
+				return RIGHT_BRACE;
+			case LEFT_BRACKET:
+				return LEFT_BRACKET;
+			case RIGHT_BRACKET:
+				return RIGHT_BRACKET;
+			case COLON:
+				return COLON;
+			case COMMA:
+				return COMMA;
+			case BOOLEAN:
+				return this.booleanValue ? TRUE : FALSE;
+			case NULL:
+				return NULL;
+			case EOF:
+				return EOF;
+			default:
+				return new Token(this.tokenType, this.stringValue());
+		}
+	}
+
+	public TokenType advance() {
+		int current;
 		do {
 			current = this.consume();
-			if (current == null) {
-				return new Token(TokenType.EOF, "");
+			if (current < 0) {
+				this.tokenStart = this.offset();
+				return this.token(TokenType.EOF);
 			}
-		} while (Character.isWhitespace(current));
+		} while (isWhitespace(current));
+		this.tokenStart = this.offset() - 1;
+		switch (current) {
+			case '{':
+				return this.token(TokenType.LEFT_BRACE);
+			case '}':
+				return this.token(TokenType.RIGHT_BRACE);
+			case '[':
+				return this.token(TokenType.LEFT_BRACKET);
+			case ']':
+				return this.token(TokenType.RIGHT_BRACKET);
+			case ':':
+				return this.token(TokenType.COLON);
+			case ',':
+				return this.token(TokenType.COMMA);
+			case '"':
+				this.scanString();
+				return this.token(TokenType.STRING);
+			default:
+				if (isDigit(current) || current == '-') {
+					return this.token(this.scanNumber((char) current));
+				}
+				if (Character.isLetter(current)) {
+					return this.token(this.scanLiteral((char) current));
+				}
+				throw new JsonLexerException("Invalid Character: " + (char) current);
+		}
+	}
+
+	public TokenType tokenType() {
+		return this.tokenType;
+	}
+
+	public long tokenStart() {
+		return this.tokenStart;
+	}
 
-		if (current == '{') {
-			return new Token(TokenType.LEFT_BRACE, "{");
+	public long tokenEnd() {
+		return this.tokenEnd;
+	}
+
+	public String stringValue() {
+		return new String(this.text, 0, this.textLength);
+	}
+
+	String stringValue(JsonKeyCache keyCache) {
+		return keyCache.intern(this.text, 0, this.textLength);
+	}
+
+	public boolean booleanValue() {
+		return this.booleanValue;
+	}
+
+	public int intValue() {
+		final long value = this.longValue();
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+			throw new NumberFormatException("For input string: \"" + this.stringValue() + "\"");
 		}
-		else if (current == '}') {
-			return new Token(TokenType.RIGHT_BRACE, "}");
+		return (int) value;
+	}
+
+	public long longValue() {
+		final char[] text = this.text;
+		final int length = this.textLength;
+		final boolean negative = length > 0 && text[0] == '-';
+		int i = negative ? 1 : 0;
+		if (i == length) {
+			throw new NumberFormatException("For input string: \"" + this.stringValue() + "\"");
 		}
-		else if (current == '[') {
-			return new Token(TokenType.LEFT_BRACKET, "[");
+		final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		final long multiplyMin = limit / 10;
+		long result = 0;
+		for (; i < length; i++) {
+			final int digit = text[i] - '0';
+			if (digit < 0 || digit > 9 || result < multiplyMin) {
+				throw new NumberFormatException("For input string: \"" + this.stringValue() + "\"");
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				throw new NumberFormatException("For input string: \"" + this.stringValue() + "\"");
+			}
+			result -= digit;
 		}
-		else if (current == ']') {
-			return new Token(TokenType.RIGHT_BRACKET, "]");
+		return negative ? result : -result;
+	}
+
+	public Number numberValue() {
+		final int digits = this.text[0] == '-' ? this.textLength - 1 : this.textLength;
+		if (this.tokenType == TokenType.INT && digits <= 9 && !(digits == 1 && this.text[0] == '-' && this.text[1] == '0')) {
+			return this.intValue();
 		}
-		else if (current == ':') {
-			return new Token(TokenType.COLON, ":");
+		return new JsonNumber(this.stringValue());
+	}
+
+	public float floatValue() {
+		return NumberCodec.parseFloat(this.textView);
+	}
+
+	public double doubleValue() {
+		return NumberCodec.parseDouble(this.textView);
+	}
+
+	private TokenType token(TokenType type) {
+		this.tokenType = type;
+		this.tokenEnd = this.offset();
+		return type;
+	}
+
+	private long offset() {
+		return this.bufferOffset + this.position;
+	}
+
+	static boolean isWhitespace(int c) {
+		if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+			return true;
 		}
-		else if (current == ',') {
-			return new Token(TokenType.COMMA, ",");
+		return c > 0x7F && Character.isWhitespace(c) || c < ' ' && Character.isWhitespace(c);
+	}
+
+	private static boolean isDigit(int c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private char current() {
+		return this.buffer[this.position];
+	}
+
+	private boolean isEof() {
+		return this.position >= this.limit && !this.fill();
+	}
+
+	private boolean fill() {
+		if (this.reader == null) {
+			return false;
 		}
-		else if (current == '"') {
-			return this.stringToken();
+		try {
+			int read;
+			do {
+				read = this.reader.read(this.buffer, 0, this.buffer.length);
+			} while (read == 0);
+			if (read < 0) {
+				return false;
+			}
+			this.bufferOffset += this.limit;
+			this.position = 0;
+			this.limit = read;
+			this.checkInputLength(this.bufferOffset + read);
+			return true;
 		}
-		else if (Character.isDigit(current) || current == '-') {
-			return this.numberToken(current);
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
 		}
-		else if (Character.isLetter(current)) {
-			return this.literalToken(current);
+	}
+
+	private int consume() {
+		if (this.isEof()) {
+			return -1;
 		}
-		throw new JsonLexerException("Invalid Character: " + current);
+		return this.buffer[this.position++];
 	}
 
-	private char current() {
-		return this.input.charAt(this.position);
+	private void checkInputLength(long length) {
+		if (length > this.maxInputLength) {
+			throw new JsonParseException("Input length exceeds the maximum of " + this.maxInputLength);
+		}
 	}
 
+	private void limitText(int limit, boolean number) {
+		this.textLimit = limit;
+		this.numberText = number;
+	}
 
-	private boolean isEof() {
-		return this.position >= this.input.length();
+	private void checkTextLength() {
+		if (this.textLength > this.textLimit) {
+			throw this.textTooLong();
+		}
 	}
 
-	private Character consume() {
-		if (this.isEof()) {
-			return null;
+	private JsonParseException textTooLong() {
+		return new JsonParseException(
+				(this.numberText ? "Number" : "String") + " length exceeds the maximum of " + this.textLimit);
+	}
+
+	private void scanString() {
+		this.textLength = 0;
+		this.limitText(this.maxStringLength, false);
+		while (true) {
+			if (this.isEof()) {
+				throw new JsonLexerException("Unterminated string: " + this.stringValue());
+			}
+			final char[] buffer = this.buffer;
+			final int start = this.position;
+			int end = start;
+			final int limit = this.limit;
+			while (end < limit) {
+				final char c = buffer[end];
+				if (c == '"' || c == '\\') {
+					break;
+				}
+				end++;
+			}
+			this.append(buffer, start, end - start);
+			this.position = end;
+			if (end == limit) {
+				continue;
+			}
+			this.position++;
+			if (buffer[end] == '"') {
+				this.checkTextLength();
+				return;
+			}
+			final int next = this.consume();
+			if (next < 0) {
+				throw new JsonLexerException("Unterminated string: " + this.stringValue());
+			}
+			switch (next) {
+				case '"':
+				case '\\':
+				case '/':
+					this.append((char) next);
+					break;
+				case 'b':
+					this.append('\b');
+					break;
+				case 'f':
+					this.append('\f');
+					break;
+				case 'n':
+					this.append('\n');
+					break;
+				case 'r':
+					this.append('\r');
+					break;
+				case 't':
+					this.append('\t');
+					break;
+				case 'u':
+					this.append(this.unicodeEscape());
+					break;
+				default:
+					this.append('\\');
+					this.append((char) next);
+			}
 		}
-		final char current = this.current();
-		this.position++;
-		return current;
 	}
 
-	private Token stringToken() {
-		final StringBuilder sb = new StringBuilder();
-		Character current = this.consume();
-		while (current != null) {
-			if (current == '"') {
-				return new Token(TokenType.STRING, sb.toString());
+	private char unicodeEscape() {
+		int value = 0;
+		for (int i = 0; i < 4; i++) {
+			final int c = this.consume();
+			final int digit = c < 0 ? -1 : Character.digit(c, 16);
+			if (digit < 0) {
+				throw new JsonLexerException("Invalid unicode escape: " + this.stringValue());
 			}
-			if (current != '\\') {
-				sb.append(current);
+			value = (value << 4) | digit;
+		}
+		return (char) value;
+	}
+
+	private TokenType scanNumber(char c) {
+		this.textLength = 0;
+		this.limitText(this.maxNumberLength, true);
+		this.append(c);
+		if (c == '-') {
+			if (this.isEof() || !isDigit(this.current())) {
+				throw new JsonLexerException("Invalid number: " + this.stringValue());
 			}
-			else {
-				final Character next = this.consume();
-				if (next == null) {
-					throw new JsonLexerException("Unterminated string: " + sb);
-				}
-				switch (next) {
-					case '"':
-					case '\\':
-					case '/':
-						sb.append(next);
-						break;
-					case 'f':
-						sb.append('\f');
-						break;
-					case 'n':
-						sb.append('\n');
-						break;
-					case 'r':
-						sb.append('\r');
-						break;
-					case 't':
-						sb.append('\t');
-						break;
-					default:
-						sb.append('\\').append(next);
-				}
+			c = this.current();
+			this.append(c);
+			this.position++;
+		}
+		if (c != '0') {
+			this.scanDigits();
+		}
+		boolean fraction = false;
+		if (!this.isEof() && this.current() == '.') {
+			fraction = true;
+			this.append('.');
+			this.position++;
+			if (this.scanDigits() == 0) {
+				throw new JsonLexerException("Invalid number: " + this.stringValue());
+			}
+		}
+		if (!this.isEof() && (this.current() == 'e' || this.current() == 'E')) {
+			fraction = true;
+			this.append(this.current());
+			this.position++;
+			if (!this.isEof() && (this.current() == '+' || this.current() == '-')) {
+				this.append(this.current());
+				this.position++;
+			}
+			if (this.scanDigits() == 0) {
+				throw new JsonLexerException("Invalid number: " + this.stringValue());
 			}
-			current = this.consume();
 		}
-		throw new JsonLexerException("Unterminated string: " + sb);
+		if (!this.isEof() && (isDigit(this.current()) || this.current() == '.')) {
+			this.append(this.current());
+			throw new JsonLexerException("Invalid number: " + this.stringValue());
+		}
+		this.checkTextLength();
+		return fraction ? TokenType.FLOAT : TokenType.INT;
 	}
 
-	private Token numberToken(char c) {
-		final StringBuilder sb = new StringBuilder();
-		sb.append(c);
+	private int scanDigits() {
+		int count = 0;
 		while (!this.isEof()) {
 			final char current = this.current();
-			if (Character.isDigit(current) || current == '.') {
-				sb.append(this.consume());
-			}
-			else {
+			if (!isDigit(current)) {
 				break;
 			}
+			this.append(current);
+			this.position++;
+			count++;
 		}
-		final String number = sb.toString();
-		if (number.contains(".")) {
-			return new Token(TokenType.FLOAT, number);
-		}
-		else {
-			return new Token(TokenType.INT, number);
-		}
+		return count;
 	}
 
-	private Token literalToken(char c) {
-		final StringBuilder sb = new StringBuilder();
-		sb.append(c);
+	private TokenType scanLiteral(char c) {
+		this.textLength = 0;
+		this.limitText(this.maxStringLength, false);
+		this.append(c);
 		while (!this.isEof()) {
 			final char current = this.current();
 			if (Character.isLetter(current)) {
-				sb.append(this.consume());
+				this.append(current);
+				this.position++;
 			}
 			else {
 				break;
 			}
 		}
-		final String literal = sb.toString();
-		switch (literal) {
-			case "true":
-			case "false":
-				return new Token(TokenType.BOOLEAN, literal);
-			case "null":
-				return new Token(TokenType.NULL, literal);
-			default:
-				throw new JsonLexerException("Invalid literal: " + literal);
+		if (this.isText("true")) {
+			this.booleanValue = true;
+			return TokenType.BOOLEAN;
+		}
+		if (this.isText("false")) {
+			this.booleanValue = false;
+			return TokenType.BOOLEAN;
 		}
+		if (this.isText("null")) {
+			return TokenType.NULL;
+		}
+		throw new JsonLexerException("Invalid literal: " + this.stringValue());
 	}
 
+	boolean isText(String literal) {
+		if (this.textLength != literal.length()) {
+			return false;
+		}
+		for (int i = 0; i < this.textLength; i++) {
+			if (this.text[i] != literal.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void append(char c) {
+		if (this.textLength == this.text.length) {
+			if (this.textLength >= this.textLimit) {
+				throw this.textTooLong();
+			}
+			this.text = Arrays.copyOf(this.text, this.textLength * 2);
+		}
+		this.text[this.textLength++] = c;
+	}
+
+	private void append(char[] chars, int offset, int length) {
+		final int required = this.textLength + length;
+		if (required > this.text.length) {
+			if (required > this.textLimit) {
+				throw this.textTooLong();
+			}
+			this.text = Arrays.copyOf(this.text, Math.max(required, this.text.length * 2));
+		}
+		System.arraycopy(chars, offset, this.text, this.textLength, length);
+		this.textLength = required;
+	}
 
 	@Override
 	public boolean hasNext() {
@@ -196,4 +578,33 @@ public class JsonLexer implements Iterator<Token>, Iterable<Token> {
 	public Stream<Token> stream() {
 		return StreamSupport.stream(this.spliterator(), false);
 	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.reader != null) {
+			this.reader.close();
+		}
+	}
+
+	private final class TextView implements CharSequence {
+		@Override
+		public int length() {
+			return textLength;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return text[index];
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return new String(text, start, end - start);
+		}
+
+		@Override
+		public String toString() {
+			return stringValue();
+		}
+	}
 }
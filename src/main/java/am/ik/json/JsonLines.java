@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public final class JsonLines {
+	static final int MIN_SPLIT_SIZE = 8 * 1024;
+
+	private JsonLines() {
+	}
+
+	public static Stream<Line> stream(String input) {
+		return stream(input, JsonParserOptions.defaults());
+	}
+
+	public static Stream<Line> stream(String input, JsonParserOptions options) {
+		return StreamSupport.stream(new LineSpliterator(null, input, 0, input.length(), options), false);
+	}
+
+	public static Stream<Line> stream(byte[] utf8) {
+		return stream(utf8, JsonParserOptions.defaults());
+	}
+
+	public static Stream<Line> stream(byte[] utf8, JsonParserOptions options) {
+		return StreamSupport.stream(new LineSpliterator(utf8, null, 0, utf8.length, options), false);
+	}
+
+	public static Stream<Line> stream(Path path) {
+		return stream(path, JsonParserOptions.defaults());
+	}
+
+	public static Stream<Line> stream(Path path, JsonParserOptions options) {
+		return stream(path, MappedFile.DEFAULT_WINDOW_SIZE, false, options);
+	}
+
+	public static Stream<Line> parallelStream(String input, boolean ordered) {
+		return parallelStream(input, ordered, JsonParserOptions.defaults());
+	}
+
+	public static Stream<Line> parallelStream(String input, boolean ordered, JsonParserOptions options) {
+		final Stream<Line> stream = StreamSupport.stream(new LineSpliterator(null, input, 0, input.length(), options),
+				true);
+		return ordered ? stream : stream.unordered();
+	}
+
+	public static Stream<Line> parallelStream(byte[] utf8, boolean ordered) {
+		return parallelStream(utf8, ordered, JsonParserOptions.defaults());
+	}
+
+	public static Stream<Line> parallelStream(byte[] utf8, boolean ordered, JsonParserOptions options) {
+		final Stream<Line> stream = StreamSupport.stream(new LineSpliterator(utf8, null, 0, utf8.length, options),
+				true);
+		return ordered ? stream : stream.unordered();
+	}
+
+	public static Stream<Line> parallelStream(Path path, boolean ordered) {
+		return parallelStream(path, ordered, JsonParserOptions.defaults());
+	}
+
+	public static Stream<Line> parallelStream(Path path, boolean ordered, JsonParserOptions options) {
+		final Stream<Line> stream = stream(path, MappedFile.DEFAULT_WINDOW_SIZE, true, options);
+		return ordered ? stream : stream.unordered();
+	}
+
+	static Stream<Line> stream(Path path, int windowSize, boolean parallel, JsonParserOptions options) {
+		final MappedFile file = MappedFile.open(path, windowSize);
+		return StreamSupport.stream(new FileLineSpliterator(file, 0, file.size(), options), parallel).onClose(() -> {
+			try {
+				file.close();
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	public static Stream<JsonNode> parallelParse(String input) {
+		return parallelStream(input, true).map(Line::node);
+	}
+
+	public static Stream<JsonNode> parallelParse(String input, JsonParserOptions options) {
+		return parallelStream(input, true, options).map(Line::node);
+	}
+
+	public static Stream<JsonNode> parallelParse(byte[] utf8) {
+		return parallelStream(utf8, true).map(Line::node);
+	}
+
+	public static Stream<JsonNode> parallelParse(byte[] utf8, JsonParserOptions options) {
+		return parallelStream(utf8, true, options).map(Line::node);
+	}
+
+	public static Stream<JsonNode> parallelParse(Path path) {
+		return parallelStream(path, true).map(Line::node);
+	}
+
+	public static Stream<JsonNode> parallelParse(Path path, JsonParserOptions options) {
+		return parallelStream(path, true, options).map(Line::node);
+	}
+
+	public static final class Line {
+		private final long offset;
+
+		private final JsonNode node;
+
+		private final RuntimeException error;
+
+		Line(long offset, JsonNode node, RuntimeException error) {
+			this.offset = offset;
+			this.node = node;
+			this.error = error;
+		}
+
+		public long offset() {
+			return this.offset;
+		}
+
+		public boolean isValid() {
+			return this.error == null;
+		}
+
+		public JsonNode node() {
+			if (this.error != null) {
+				throw this.error;
+			}
+			return this.node;
+		}
+
+		public RuntimeException error() {
+			return this.error;
+		}
+
+		@Override
+		public String toString() {
+			return this.offset + ": " + (this.error == null ? this.node : this.error.getMessage());
+		}
+	}
+
+	static final class LineSpliterator implements Spliterator<Line> {
+		private final byte[] utf8;
+
+		private final String text;
+
+		private int position;
+
+		private final int end;
+
+		private final JsonParserOptions options;
+
+		LineSpliterator(byte[] utf8, String text, int start, int end, JsonParserOptions options) {
+			this.utf8 = utf8;
+			this.text = text;
+			this.position = start;
+			this.end = end;
+			this.options = options;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Line> action) {
+			while (this.position < this.end) {
+				final int start = this.position;
+				int lineEnd = this.nextNewline(start);
+				this.position = lineEnd < this.end ? lineEnd + 1 : this.end;
+				while (lineEnd > start && this.isWhitespace(lineEnd - 1)) {
+					lineEnd--;
+				}
+				int lineStart = start;
+				while (lineStart < lineEnd && this.isWhitespace(lineStart)) {
+					lineStart++;
+				}
+				if (lineStart < lineEnd) {
+					action.accept(this.parse(start, lineStart, lineEnd));
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public Spliterator<Line> trySplit() {
+			final int remaining = this.end - this.position;
+			if (remaining < MIN_SPLIT_SIZE) {
+				return null;
+			}
+			final int middle = this.nextNewline(this.position + remaining / 2);
+			if (middle >= this.end - 1) {
+				return null;
+			}
+			final LineSpliterator prefix = new LineSpliterator(this.utf8, this.text, this.position, middle + 1,
+					this.options);
+			this.position = middle + 1;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return this.end - this.position;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | NONNULL | IMMUTABLE;
+		}
+
+		private Line parse(int offset, int start, int end) {
+			final JsonLexer lexer = this.utf8 != null ? new JsonLexer(this.utf8, start, end - start)
+					: StringSliceReader.lexer(this.text, start, end);
+			return parseLine(offset, lexer, this.options);
+		}
+
+		private int nextNewline(int from) {
+			if (this.utf8 != null) {
+				for (int i = from; i < this.end; i++) {
+					if (this.utf8[i] == '\n') {
+						return i;
+					}
+				}
+				return this.end;
+			}
+			final int index = this.text.indexOf('\n', from);
+			return index < 0 || index >= this.end ? this.end : index;
+		}
+
+		private boolean isWhitespace(int index) {
+			final int c = this.utf8 != null ? this.utf8[index] : this.text.charAt(index);
+			return c == ' ' || c == '\t' || c == '\r';
+		}
+	}
+
+	static Line parseLine(long offset, JsonLexer lexer, JsonParserOptions options) {
+		try {
+			final JsonReader reader = new JsonReader(lexer, options);
+			final JsonNode node = new JsonParser(reader, Json.metricsListener()).parse();
+			reader.peek();
+			return new Line(offset, node, null);
+		}
+		catch (JsonParseException | JsonLexerException | NumberFormatException e) {
+			return new Line(offset, null, e);
+		}
+	}
+
+	static final class FileLineSpliterator implements Spliterator<Line> {
+		private final MappedFile file;
+
+		private long position;
+
+		private final long end;
+
+		private final JsonParserOptions options;
+
+		private ByteBuffer window;
+
+		private long windowStart;
+
+		private long windowEnd;
+
+		FileLineSpliterator(MappedFile file, long start, long end, JsonParserOptions options) {
+			this.file = file;
+			this.position = start;
+			this.end = end;
+			this.options = options;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Line> action) {
+			while (this.position < this.end) {
+				final long start = this.position;
+				long lineEnd = this.nextNewline(start);
+				this.position = lineEnd < this.end ? lineEnd + 1 : this.end;
+				while (lineEnd > start && isWhitespace(this.byteAt(lineEnd - 1))) {
+					lineEnd--;
+				}
+				long lineStart = start;
+				while (lineStart < lineEnd && isWhitespace(this.byteAt(lineStart))) {
+					lineStart++;
+				}
+				if (lineStart < lineEnd) {
+					action.accept(this.parse(start, lineStart, lineEnd));
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public Spliterator<Line> trySplit() {
+			final long remaining = this.end - this.position;
+			if (remaining < MIN_SPLIT_SIZE) {
+				return null;
+			}
+			final long middle = this.nextNewline(this.position + remaining / 2);
+			if (middle >= this.end - 1) {
+				return null;
+			}
+			final FileLineSpliterator prefix = new FileLineSpliterator(this.file, this.position, middle + 1,
+					this.options);
+			this.position = middle + 1;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return this.end - this.position;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | NONNULL | IMMUTABLE;
+		}
+
+		private Line parse(long offset, long start, long end) {
+			final ByteBuffer line;
+			if (start >= this.windowStart && end <= this.windowEnd) {
+				line = this.window.duplicate();
+				((Buffer) line).limit((int) (end - this.windowStart));
+				((Buffer) line).position((int) (start - this.windowStart));
+			}
+			else if (end - start <= Integer.MAX_VALUE) {
+				line = this.file.map(start, end - start);
+			}
+			else {
+				return new Line(offset, null,
+						new JsonParseException("Line length exceeds the maximum of " + Integer.MAX_VALUE));
+			}
+			return parseLine(offset, new JsonLexer(line), this.options);
+		}
+
+		private long nextNewline(long from) {
+			long index = from;
+			while (index < this.end) {
+				this.ensure(index, from);
+				final ByteBuffer window = this.window;
+				final int limit = window.limit();
+				for (int i = (int) (index - this.windowStart); i < limit; i++) {
+					if (window.get(i) == '\n') {
+						return this.windowStart + i;
+					}
+				}
+				index = this.windowEnd;
+			}
+			return this.end;
+		}
+
+		private byte byteAt(long index) {
+			this.ensure(index, index);
+			return this.window.get((int) (index - this.windowStart));
+		}
+
+		private void ensure(long index, long origin) {
+			if (index >= this.windowStart && index < this.windowEnd) {
+				return;
+			}
+			final long start = index - origin < this.file.windowSize() / 2 ? origin : index;
+			final long length = Math.min(this.file.windowSize(), this.end - start);
+			this.window = this.file.map(start, length);
+			this.windowStart = start;
+			this.windowEnd = start + length;
+		}
+
+		private static boolean isWhitespace(int c) {
+			return c == ' ' || c == '\t' || c == '\r';
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public final class JsonMergePatch {
+	private JsonMergePatch() {
+	}
+
+	public static JsonNode apply(JsonNode target, JsonNode patch) {
+		if (!patch.isObject()) {
+			return JsonPatch.copy(patch);
+		}
+		final JsonObject changes = patch.asObject();
+		final int size = changes.materializedSize();
+		if (target != null && target.value() instanceof PersistentJsonObject) {
+			PersistentJsonObject object = (PersistentJsonObject) target.value();
+			for (int i = 0; i < size; i++) {
+				final String key = changes.keyAt(i);
+				final JsonNode value = changes.valueAt(i);
+				if (value.isNull()) {
+					object = object.without(key);
+				}
+				else {
+					final JsonNode current = object.find(key);
+					final JsonNode merged = apply(current == null ? JsonNode.NULL : current, value);
+					object = object.with(key, PersistentJsonObject.persistent(merged));
+				}
+			}
+			return object == target.value() ? target : new JsonNode(object);
+		}
+		final JsonNode result = target != null && target.isObject() ? target : new JsonNode(new JsonObject());
+		final JsonObject object = result.asObject();
+		for (int i = 0; i < size; i++) {
+			final String key = changes.keyAt(i);
+			final JsonNode value = changes.valueAt(i);
+			if (value.isNull()) {
+				object.remove(key);
+			}
+			else {
+				final JsonNode current = object.find(key);
+				final JsonNode merged = apply(current == null ? JsonNode.NULL : current, value);
+				if (merged != current) {
+					object.put(key, merged);
+				}
+			}
+		}
+		return result;
+	}
+
+	public static JsonNode apply(JsonNode target, List<JsonNode> patches) {
+		JsonNode result = target;
+		for (JsonNode patch : patches) {
+			result = apply(result, patch);
+		}
+		return result;
+	}
+
+	public static void apply(JsonReader source, JsonNode patch, JsonGenerator out) {
+		if (!patch.isObject() || source.peek() != TokenType.LEFT_BRACE) {
+			source.skipValue();
+			out.writeNode(apply(JsonNode.NULL, patch));
+			return;
+		}
+		final JsonObject changes = patch.asObject();
+		final Set<String> seen = new HashSet<>();
+		source.beginObject();
+		out.writeStartObject();
+		while (source.hasNext()) {
+			final String name = source.nextName();
+			final JsonNode value = changes.find(name);
+			if (value == null) {
+				out.writeName(name);
+				copy(source, out);
+				continue;
+			}
+			seen.add(name);
+			if (value.isNull()) {
+				source.skipValue();
+			}
+			else {
+				out.writeName(name);
+				apply(source, value, out);
+			}
+		}
+		source.endObject();
+		final int size = changes.materializedSize();
+		for (int i = 0; i < size; i++) {
+			final String key = changes.keyAt(i);
+			final JsonNode value = changes.valueAt(i);
+			if (!value.isNull() && !seen.contains(key)) {
+				out.writeName(key);
+				out.writeNode(apply(JsonNode.NULL, value));
+			}
+		}
+		out.writeEndObject();
+	}
+
+	private static void copy(JsonReader source, JsonGenerator out) {
+		switch (source.peek()) {
+			case LEFT_BRACE:
+				source.beginObject();
+				out.writeStartObject();
+				while (source.hasNext()) {
+					out.writeName(source.nextName());
+					copy(source, out);
+				}
+				source.endObject();
+				out.writeEndObject();
+				break;
+			case LEFT_BRACKET:
+				source.beginArray();
+				out.writeStartArray();
+				while (source.hasNext()) {
+					copy(source, out);
+				}
+				source.endArray();
+				out.writeEndArray();
+				break;
+			case STRING:
+				out.writeString(source.nextString());
+				break;
+			case INT:
+			case FLOAT:
+				out.writeNumber(source.nextNumber());
+				break;
+			case BOOLEAN:
+				out.writeBoolean(source.nextBoolean());
+				break;
+			case NULL:
+				source.nextNull();
+				out.writeNull();
+				break;
+			default:
+				throw new JsonParseException("Unexpected token: " + source.peek());
+		}
+	}
+}
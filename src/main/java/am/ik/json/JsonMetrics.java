@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+public final class JsonMetrics {
+	private final long length;
+
+	private final long[] tokens;
+
+	private final int maxDepth;
+
+	private final long objects;
+
+	private final long arrays;
+
+	private final long elapsedNanos;
+
+	JsonMetrics(long length, long[] tokens, int maxDepth, long objects, long arrays, long elapsedNanos) {
+		this.length = length;
+		this.tokens = tokens;
+		this.maxDepth = maxDepth;
+		this.objects = objects;
+		this.arrays = arrays;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public long length() {
+		return this.length;
+	}
+
+	public long tokens(TokenType type) {
+		return this.tokens[type.ordinal()];
+	}
+
+	public long tokens() {
+		long total = 0;
+		for (long count : this.tokens) {
+			total += count;
+		}
+		return total;
+	}
+
+	public int maxDepth() {
+		return this.maxDepth;
+	}
+
+	public long objects() {
+		return this.objects;
+	}
+
+	public long arrays() {
+		return this.arrays;
+	}
+
+	public long elapsedNanos() {
+		return this.elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "JsonMetrics{length=" + this.length + ", tokens=" + this.tokens() + ", maxDepth=" + this.maxDepth
+				+ ", objects=" + this.objects + ", arrays=" + this.arrays + ", elapsedNanos=" + this.elapsedNanos + '}';
+	}
+}
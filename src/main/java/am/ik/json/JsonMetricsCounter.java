@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class JsonMetricsCounter implements JsonMetricsListener {
+	private final Counters parse = new Counters();
+
+	private final Counters serialize = new Counters();
+
+	private final LongAdder errors = new LongAdder();
+
+	@Override
+	public void parsed(JsonMetrics metrics) {
+		this.parse.add(metrics);
+	}
+
+	@Override
+	public void serialized(JsonMetrics metrics) {
+		this.serialize.add(metrics);
+	}
+
+	@Override
+	public void failed(JsonMetrics metrics, RuntimeException error) {
+		this.errors.increment();
+	}
+
+	public long parseCount() {
+		return this.parse.count.sum();
+	}
+
+	public long parsedLength() {
+		return this.parse.length.sum();
+	}
+
+	public long parsedTokens(TokenType type) {
+		return this.parse.tokens[type.ordinal()].sum();
+	}
+
+	public long parsedObjects() {
+		return this.parse.objects.sum();
+	}
+
+	public long parsedArrays() {
+		return this.parse.arrays.sum();
+	}
+
+	public int parseMaxDepth() {
+		return (int) this.parse.maxDepth.get();
+	}
+
+	public long parseNanos() {
+		return this.parse.nanos.sum();
+	}
+
+	public long serializeCount() {
+		return this.serialize.count.sum();
+	}
+
+	public long serializedLength() {
+		return this.serialize.length.sum();
+	}
+
+	public long serializedTokens(TokenType type) {
+		return this.serialize.tokens[type.ordinal()].sum();
+	}
+
+	public long serializedObjects() {
+		return this.serialize.objects.sum();
+	}
+
+	public long serializedArrays() {
+		return this.serialize.arrays.sum();
+	}
+
+	public int serializeMaxDepth() {
+		return (int) this.serialize.maxDepth.get();
+	}
+
+	public long serializeNanos() {
+		return this.serialize.nanos.sum();
+	}
+
+	public long errors() {
+		return this.errors.sum();
+	}
+
+	public void reset() {
+		this.parse.reset();
+		this.serialize.reset();
+		this.errors.reset();
+	}
+
+	private static final class Counters {
+		private final LongAdder count = new LongAdder();
+
+		private final LongAdder length = new LongAdder();
+
+		private final LongAdder[] tokens = new LongAdder[TokenType.values().length];
+
+		private final LongAdder objects = new LongAdder();
+
+		private final LongAdder arrays = new LongAdder();
+
+		private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+
+		private final LongAdder nanos = new LongAdder();
+
+		Counters() {
+			for (int i = 0; i < this.tokens.length; i++) {
+				this.tokens[i] = new LongAdder();
+			}
+		}
+
+		void add(JsonMetrics metrics) {
+			this.count.increment();
+			this.length.add(metrics.length());
+			for (TokenType type : TokenType.values()) {
+				final long count = metrics.tokens(type);
+				if (count > 0) {
+					this.tokens[type.ordinal()].add(count);
+				}
+			}
+			this.objects.add(metrics.objects());
+			this.arrays.add(metrics.arrays());
+			this.maxDepth.accumulate(metrics.maxDepth());
+			this.nanos.add(metrics.elapsedNanos());
+		}
+
+		void reset() {
+			this.count.reset();
+			this.length.reset();
+			for (LongAdder token : this.tokens) {
+				token.reset();
+			}
+			this.objects.reset();
+			this.arrays.reset();
+			this.maxDepth.reset();
+			this.nanos.reset();
+		}
+	}
+}
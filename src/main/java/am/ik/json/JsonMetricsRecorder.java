@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+final class JsonMetricsRecorder {
+	private static final int TOKEN_TYPES = TokenType.values().length;
+
+	private final long[] tokens = new long[TOKEN_TYPES];
+
+	private int[] members = new int[32];
+
+	private boolean[] inObject = new boolean[32];
+
+	private int depth;
+
+	private int maxDepth;
+
+	private long objects;
+
+	private long arrays;
+
+	private long start = System.nanoTime();
+
+	void restart() {
+		this.start = System.nanoTime();
+	}
+
+	void startObject() {
+		this.element();
+		this.tokens[TokenType.LEFT_BRACE.ordinal()]++;
+		this.objects++;
+		this.push(true);
+	}
+
+	void startArray() {
+		this.element();
+		this.tokens[TokenType.LEFT_BRACKET.ordinal()]++;
+		this.arrays++;
+		this.push(false);
+	}
+
+	void endObject() {
+		this.tokens[TokenType.RIGHT_BRACE.ordinal()]++;
+		this.depth--;
+	}
+
+	void endArray() {
+		this.tokens[TokenType.RIGHT_BRACKET.ordinal()]++;
+		this.depth--;
+	}
+
+	void key() {
+		this.member();
+		this.tokens[TokenType.STRING.ordinal()]++;
+		this.tokens[TokenType.COLON.ordinal()]++;
+	}
+
+	void value(TokenType type) {
+		this.element();
+		this.tokens[type.ordinal()]++;
+	}
+
+	JsonMetrics metrics(long length) {
+		return new JsonMetrics(length, this.tokens.clone(), this.maxDepth, this.objects, this.arrays,
+				System.nanoTime() - this.start);
+	}
+
+	JsonHandler handler(JsonHandler delegate) {
+		return new JsonHandler() {
+			@Override
+			public void startObject() {
+				JsonMetricsRecorder.this.startObject();
+				delegate.startObject();
+			}
+
+			@Override
+			public void key(String name) {
+				JsonMetricsRecorder.this.key();
+				delegate.key(name);
+			}
+
+			@Override
+			public void endObject() {
+				JsonMetricsRecorder.this.endObject();
+				delegate.endObject();
+			}
+
+			@Override
+			public void startArray() {
+				JsonMetricsRecorder.this.startArray();
+				delegate.startArray();
+			}
+
+			@Override
+			public void endArray() {
+				JsonMetricsRecorder.this.endArray();
+				delegate.endArray();
+			}
+
+			@Override
+			public void stringValue(String value) {
+				JsonMetricsRecorder.this.value(TokenType.STRING);
+				delegate.stringValue(value);
+			}
+
+			@Override
+			public void intValue(int value) {
+				JsonMetricsRecorder.this.value(TokenType.INT);
+				delegate.intValue(value);
+			}
+
+			@Override
+			public void numberValue(Number value) {
+				JsonMetricsRecorder.this.value(typeOf(value));
+				delegate.numberValue(value);
+			}
+
+			@Override
+			public void booleanValue(boolean value) {
+				JsonMetricsRecorder.this.value(TokenType.BOOLEAN);
+				delegate.booleanValue(value);
+			}
+
+			@Override
+			public void nullValue() {
+				JsonMetricsRecorder.this.value(TokenType.NULL);
+				delegate.nullValue();
+			}
+		};
+	}
+
+	static TokenType typeOf(Number value) {
+		if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+				|| value instanceof BigInteger) {
+			return TokenType.INT;
+		}
+		if (value instanceof JsonNumber && ((JsonNumber) value).isIntegral()) {
+			return TokenType.INT;
+		}
+		return TokenType.FLOAT;
+	}
+
+	private void element() {
+		if (this.depth > 0 && !this.inObject[this.depth - 1]) {
+			this.member();
+		}
+	}
+
+	private void member() {
+		if (this.depth > 0 && this.members[this.depth - 1]++ > 0) {
+			this.tokens[TokenType.COMMA.ordinal()]++;
+		}
+	}
+
+	private void push(boolean object) {
+		if (this.depth == this.members.length) {
+			this.members = Arrays.copyOf(this.members, this.depth * 2);
+			this.inObject = Arrays.copyOf(this.inObject, this.depth * 2);
+		}
+		this.members[this.depth] = 0;
+		this.inObject[this.depth] = object;
+		this.depth++;
+		if (this.depth > this.maxDepth) {
+			this.maxDepth = this.depth;
+		}
+	}
+}
@@ -15,163 +15,282 @@
  */
 package am.ik.json;
 
-import java.util.Objects;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Optional;
 
 public class JsonNode {
-	private final Object value;
+	static final JsonNode NULL = new JsonNode(null);
+
+	static final JsonNode TRUE = new JsonNode(Boolean.TRUE);
+
+	static final JsonNode FALSE = new JsonNode(Boolean.FALSE);
+
+	private static final int SMALL_INT_MIN = -128;
+
+	private static final int SMALL_INT_MAX = 1023;
+
+	private static final JsonNode[] SMALL_INTS = new JsonNode[SMALL_INT_MAX - SMALL_INT_MIN + 1];
+
+	static {
+		for (int i = 0; i < SMALL_INTS.length; i++) {
+			SMALL_INTS[i] = new JsonNode(SMALL_INT_MIN + i);
+		}
+	}
+
+	private Object value;
+
+	private JsonTape tape;
+
+	private int index;
 
 	public JsonNode(Object value) {
 		this.value = value;
 	}
 
+	JsonNode(JsonTape tape, int index) {
+		this.tape = tape;
+		this.index = index;
+	}
+
+	public static JsonNode valueOf(Object value) {
+		if (value == null) {
+			return NULL;
+		}
+		if (value instanceof Boolean) {
+			return valueOf(((Boolean) value).booleanValue());
+		}
+		if (value instanceof Integer) {
+			return valueOf(((Integer) value).intValue());
+		}
+		return new JsonNode(value);
+	}
+
+	public static JsonNode valueOf(boolean value) {
+		return value ? TRUE : FALSE;
+	}
+
+	public static JsonNode valueOf(int value) {
+		final JsonNode shared = smallInt(value);
+		return shared == null ? new JsonNode(value) : shared;
+	}
+
+	static JsonNode smallInt(int value) {
+		if (value >= SMALL_INT_MIN && value <= SMALL_INT_MAX) {
+			return SMALL_INTS[value - SMALL_INT_MIN];
+		}
+		return null;
+	}
+
+	boolean isShared() {
+		if (this == NULL || this == TRUE || this == FALSE) {
+			return true;
+		}
+		return this.tape == null && this.value instanceof Integer && smallInt((Integer) this.value) == this;
+	}
+
+	void reuse(Object value) {
+		this.value = value;
+		this.tape = null;
+		this.index = 0;
+	}
+
 	public Object value() {
+		if (this.tape != null) {
+			this.value = this.tape.value(this.index);
+			this.tape = null;
+		}
 		return this.value;
 	}
 
 	public boolean isNull() {
-		return this.value == null;
+		return this.value() == null;
 	}
 
 	public Optional<Object> optional() {
-		return Optional.ofNullable(this.value);
+		return Optional.ofNullable(this.value());
 	}
 
 	public boolean isBoolean() {
-		return this.value instanceof Boolean;
+		return this.value() instanceof Boolean;
 	}
 
 	public boolean isString() {
-		return this.value instanceof String;
+		return this.value() instanceof String;
 	}
 
 	public boolean isNumber() {
-		return this.value instanceof Integer || this.value instanceof Float;
+		return this.value() instanceof Number;
 	}
 
 	public boolean isInteger() {
-		return this.value instanceof Integer;
+		final Object value = this.value();
+		return value instanceof Integer || value instanceof JsonNumber && ((JsonNumber) value).fitsInt();
+	}
+
+	public boolean isLong() {
+		final Object value = this.value();
+		return value instanceof Integer || value instanceof Long
+			   || value instanceof JsonNumber && ((JsonNumber) value).fitsLong();
 	}
 
 	public boolean isFloat() {
-		return this.value instanceof Float;
+		final Object value = this.value();
+		return value instanceof Float || value instanceof Double
+			   || value instanceof JsonNumber && !((JsonNumber) value).isIntegral();
 	}
 
 	public boolean isArray() {
-		return this.value instanceof JsonArray;
+		return this.value() instanceof JsonArray;
 	}
 
 	public boolean isObject() {
-		return this.value instanceof JsonObject;
+		return this.value() instanceof JsonObject;
 	}
 
 	public Boolean asBoolean() {
-		if (this.value == null) {
+		if (this.value() == null) {
 			return null;
 		}
 		if (isBoolean()) {
-			return (Boolean) this.value;
+			return (Boolean) this.value();
 		}
 		throw new IllegalStateException("Value is not a boolean");
 	}
 
 	public String asString() {
-		if (this.value == null) {
+		if (this.value() == null) {
 			return null;
 		}
 		if (isString()) {
-			return (String) this.value;
+			return (String) this.value();
 		}
 		throw new IllegalStateException("Value is not a string");
 	}
 
 	public Number asNumber() {
-		if (this.value == null) {
+		if (this.value() == null) {
 			return null;
 		}
 		if (isNumber()) {
-			return (Number) this.value;
+			return (Number) this.value();
 		}
 		throw new IllegalStateException("Value is not a number");
 	}
 
 	public Integer asInteger() {
-		if (this.value == null) {
+		if (this.value() == null) {
 			return null;
 		}
 		if (isInteger()) {
-			return (Integer) this.value;
+			return ((Number) this.value()).intValue();
 		}
 		throw new IllegalStateException("Value is not an integer");
 	}
 
 	public Float asFloat() {
-		if (this.value == null) {
+		if (this.value() == null) {
 			return null;
 		}
 		if (isFloat()) {
-			return (Float) this.value;
+			return ((Number) this.value()).floatValue();
 		}
 		throw new IllegalStateException("Value is not a float");
 	}
 
+	public int asInt() {
+		if (isInteger()) {
+			return ((Number) this.value()).intValue();
+		}
+		throw new IllegalStateException("Value is not an int");
+	}
+
+	public long asLong() {
+		if (isLong()) {
+			return ((Number) this.value()).longValue();
+		}
+		throw new IllegalStateException("Value is not a long");
+	}
+
+	public double asDouble() {
+		if (isNumber()) {
+			return ((Number) this.value()).doubleValue();
+		}
+		throw new IllegalStateException("Value is not a number");
+	}
+
+	public BigDecimal asBigDecimal() {
+		final Object value = this.value();
+		if (value == null) {
+			return null;
+		}
+		if (value instanceof BigDecimal) {
+			return (BigDecimal) value;
+		}
+		if (value instanceof JsonNumber) {
+			return ((JsonNumber) value).bigDecimalValue();
+		}
+		if (value instanceof BigInteger) {
+			return new BigDecimal((BigInteger) value);
+		}
+		if (value instanceof Integer || value instanceof Long) {
+			return BigDecimal.valueOf(((Number) value).longValue());
+		}
+		if (isNumber()) {
+			return new BigDecimal(value.toString());
+		}
+		throw new IllegalStateException("Value is not a number");
+	}
+
+	public BigInteger asBigInteger() {
+		final Object value = this.value();
+		if (value == null) {
+			return null;
+		}
+		if (value instanceof BigInteger) {
+			return (BigInteger) value;
+		}
+		if (value instanceof JsonNumber && ((JsonNumber) value).isIntegral()) {
+			return ((JsonNumber) value).bigIntegerValue();
+		}
+		if (value instanceof Integer || value instanceof Long) {
+			return BigInteger.valueOf(((Number) value).longValue());
+		}
+		throw new IllegalStateException("Value is not an integer");
+	}
+
 	public JsonArray asArray() {
-		if (this.value == null) {
+		if (this.value() == null) {
 			return null;
 		}
 		if (isArray()) {
-			return (JsonArray) this.value;
+			return (JsonArray) this.value();
 		}
 		throw new IllegalStateException("Value is not an array");
 	}
 
 	public JsonObject asObject() {
-		if (this.value == null) {
+		if (this.value() == null) {
 			return null;
 		}
 		if (isObject()) {
-			return (JsonObject) this.value;
+			return (JsonObject) this.value();
 		}
 		throw new IllegalStateException("Value is not an object");
 	}
 
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof JsonNode && JsonHash.equal(this.value(), ((JsonNode) o).value());
+	}
+
+	@Override
+	public int hashCode() {
+		return JsonHash.hash(this.value());
+	}
+
 	@Override
 	public String toString() {
-		if (this.value == null) {
-			return "null";
-		}
-		if (isString()) {
-			return "\"" + stringify((String) this.value) + "\"";
-		}
-		return Objects.toString(this.value);
-	}
-
-	private static String stringify(String value) {
-		final StringBuilder sb = new StringBuilder();
-		for (int i = 0; i < value.length(); i++) {
-			final char c = value.charAt(i);
-			switch (c) {
-				case '\f':
-					sb.append("\\f");
-					break;
-				case '\n':
-					sb.append("\\n");
-					break;
-				case '\r':
-					sb.append("\\r");
-					break;
-				case '\t':
-					sb.append("\\t");
-					break;
-				case '\\':
-				case '"':
-				case '/':
-					sb.append('\\').append(c);
-					break;
-				default:
-					sb.append(c);
-			}
-		}
-		return sb.toString();
+		return Json.stringify(this);
 	}
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.util.Arrays;
+
+class JsonNodeBuilder implements JsonHandler {
+	private final JsonNodePool pool;
+
+	private String[] keys = new String[32];
+
+	private JsonNode[] values = new JsonNode[32];
+
+	private int top;
+
+	private int[] marks = new int[16];
+
+	private String[] names = new String[16];
+
+	private int depth;
+
+	private String key;
+
+	private JsonNode result;
+
+	JsonNodeBuilder() {
+		this(null);
+	}
+
+	JsonNodeBuilder(JsonNodePool pool) {
+		this.pool = pool;
+	}
+
+	JsonNode result() {
+		final JsonNode result = this.result;
+		this.result = null;
+		return result;
+	}
+
+	void reset() {
+		this.pop(0);
+		Arrays.fill(this.names, 0, this.depth, null);
+		this.depth = 0;
+		this.key = null;
+		this.result = null;
+	}
+
+	@Override
+	public void startObject() {
+		this.mark();
+	}
+
+	@Override
+	public void key(String name) {
+		this.key = name;
+	}
+
+	@Override
+	public void endObject() {
+		final int mark = this.marks[--this.depth];
+		this.key = this.names[this.depth];
+		final JsonObject jsonObject = this.pool == null ? new JsonObject(this.top - mark) : this.pool.object(this.top - mark);
+		for (int i = mark; i < this.top; i++) {
+			jsonObject.put(this.keys[i], this.values[i]);
+		}
+		this.pop(mark);
+		this.names[this.depth] = null;
+		this.value(this.node(jsonObject));
+	}
+
+	@Override
+	public void startArray() {
+		this.mark();
+	}
+
+	@Override
+	public void endArray() {
+		final int mark = this.marks[--this.depth];
+		this.key = this.names[this.depth];
+		final JsonArray jsonArray = this.pool == null ? new JsonArray(Arrays.copyOfRange(this.values, mark, this.top))
+				: this.pool.array(this.values, mark, this.top);
+		this.pop(mark);
+		this.names[this.depth] = null;
+		this.value(this.node(jsonArray));
+	}
+
+	@Override
+	public void stringValue(String value) {
+		this.value(this.node(value));
+	}
+
+	@Override
+	public void intValue(int value) {
+		this.value(this.pool == null ? JsonNode.valueOf(value) : this.pool.node(value));
+	}
+
+	@Override
+	public void numberValue(Number value) {
+		this.value(this.pool == null ? JsonNode.valueOf(value) : this.pool.node(value));
+	}
+
+	@Override
+	public void booleanValue(boolean value) {
+		this.value(JsonNode.valueOf(value));
+	}
+
+	@Override
+	public void nullValue() {
+		this.value(JsonNode.NULL);
+	}
+
+	private JsonNode node(Object value) {
+		return this.pool == null ? new JsonNode(value) : this.pool.node(value);
+	}
+
+	private void value(JsonNode node) {
+		if (this.depth == 0) {
+			this.result = node;
+			return;
+		}
+		if (this.top == this.values.length) {
+			this.keys = Arrays.copyOf(this.keys, this.top * 2);
+			this.values = Arrays.copyOf(this.values, this.top * 2);
+		}
+		this.keys[this.top] = this.key;
+		this.values[this.top] = node;
+		this.key = null;
+		this.top++;
+	}
+
+	private void mark() {
+		if (this.depth == this.marks.length) {
+			this.marks = Arrays.copyOf(this.marks, this.depth * 2);
+			this.names = Arrays.copyOf(this.names, this.depth * 2);
+		}
+		this.names[this.depth] = this.key;
+		this.marks[this.depth++] = this.top;
+		this.key = null;
+	}
+
+	private void pop(int mark) {
+		Arrays.fill(this.keys, mark, this.top, null);
+		Arrays.fill(this.values, mark, this.top, null);
+		this.top = mark;
+	}
+}
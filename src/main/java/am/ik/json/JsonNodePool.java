@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.util.Arrays;
+
+final class JsonNodePool {
+	private static final Object RELEASED = new Object();
+
+	private final int maxPooled;
+
+	private JsonNode[] nodes = new JsonNode[64];
+
+	private int nodeCount;
+
+	private JsonObject[] objects = new JsonObject[16];
+
+	private int objectCount;
+
+	private JsonArray[] arrays = new JsonArray[16];
+
+	private int arrayCount;
+
+	JsonNodePool(int maxPooled) {
+		this.maxPooled = maxPooled;
+	}
+
+	JsonNode node(Object value) {
+		if (value instanceof Integer) {
+			final JsonNode shared = JsonNode.smallInt((Integer) value);
+			if (shared != null) {
+				return shared;
+			}
+		}
+		if (this.nodeCount == 0) {
+			return new JsonNode(value);
+		}
+		final JsonNode node = this.nodes[--this.nodeCount];
+		this.nodes[this.nodeCount] = null;
+		node.reuse(value);
+		return node;
+	}
+
+	JsonObject object(int capacity) {
+		if (this.objectCount == 0) {
+			return new JsonObject(capacity);
+		}
+		final JsonObject object = this.objects[--this.objectCount];
+		this.objects[this.objectCount] = null;
+		object.reserve(capacity);
+		return object;
+	}
+
+	JsonArray array(JsonNode[] values, int from, int to) {
+		if (this.arrayCount == 0) {
+			return new JsonArray(Arrays.copyOfRange(values, from, to));
+		}
+		final JsonArray array = this.arrays[--this.arrayCount];
+		this.arrays[this.arrayCount] = null;
+		array.assign(values, from, to);
+		return array;
+	}
+
+	void release(JsonNode node) {
+		if (node == null || node.isShared()) {
+			return;
+		}
+		final Object value = node.value();
+		if (value == RELEASED || value instanceof PersistentJsonObject || value instanceof PersistentJsonArray) {
+			return;
+		}
+		if (value instanceof JsonObject) {
+			final JsonObject object = (JsonObject) value;
+			final int size = object.materializedSize();
+			for (int i = 0; i < size; i++) {
+				this.release(object.valueAt(i));
+			}
+			object.recycle();
+			if (this.objectCount < this.maxPooled) {
+				if (this.objectCount == this.objects.length) {
+					this.objects = Arrays.copyOf(this.objects, this.objectCount * 2);
+				}
+				this.objects[this.objectCount++] = object;
+			}
+		}
+		else if (value instanceof JsonArray) {
+			final JsonArray array = (JsonArray) value;
+			final int size = array.size();
+			for (int i = 0; i < size; i++) {
+				this.release(array.get(i));
+			}
+			array.recycle();
+			if (this.arrayCount < this.maxPooled) {
+				if (this.arrayCount == this.arrays.length) {
+					this.arrays = Arrays.copyOf(this.arrays, this.arrayCount * 2);
+				}
+				this.arrays[this.arrayCount++] = array;
+			}
+		}
+		node.reuse(RELEASED);
+		if (this.nodeCount < this.maxPooled) {
+			if (this.nodeCount == this.nodes.length) {
+				this.nodes = Arrays.copyOf(this.nodes, this.nodeCount * 2);
+			}
+			this.nodes[this.nodeCount++] = node;
+		}
+	}
+
+	int pooled() {
+		return this.nodeCount + this.objectCount + this.arrayCount;
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+public final class JsonNumber extends Number {
+	private static final long serialVersionUID = 1L;
+
+	private static final BigInteger INT_MIN = BigInteger.valueOf(Integer.MIN_VALUE);
+
+	private static final BigInteger INT_MAX = BigInteger.valueOf(Integer.MAX_VALUE);
+
+	private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+
+	private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+	private final String text;
+
+	public JsonNumber(String text) {
+		this.text = text;
+	}
+
+	static Number valueOf(String text) {
+		final int digits = text.charAt(0) == '-' ? text.length() - 1 : text.length();
+		if (digits <= 9 && !"-0".equals(text) && isIntegral(text)) {
+			return Integer.valueOf(text);
+		}
+		return new JsonNumber(text);
+	}
+
+	public boolean isIntegral() {
+		return isIntegral(this.text);
+	}
+
+	public boolean fitsInt() {
+		return this.isIntegral() && this.fits(INT_MIN, INT_MAX, 10);
+	}
+
+	public boolean fitsLong() {
+		return this.isIntegral() && this.fits(LONG_MIN, LONG_MAX, 19);
+	}
+
+	@Override
+	public int intValue() {
+		if (this.fitsInt()) {
+			return Integer.parseInt(this.text);
+		}
+		return this.bigDecimalValue().intValue();
+	}
+
+	@Override
+	public long longValue() {
+		if (this.fitsLong()) {
+			return Long.parseLong(this.text);
+		}
+		return this.bigDecimalValue().longValue();
+	}
+
+	@Override
+	public float floatValue() {
+		return NumberCodec.parseFloat(this.text);
+	}
+
+	@Override
+	public double doubleValue() {
+		return NumberCodec.parseDouble(this.text);
+	}
+
+	public BigDecimal bigDecimalValue() {
+		return new BigDecimal(this.text);
+	}
+
+	public BigInteger bigIntegerValue() {
+		if (this.isIntegral()) {
+			return new BigInteger(this.text);
+		}
+		return this.bigDecimalValue().toBigInteger();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof JsonNumber)) {
+			return false;
+		}
+		final JsonNumber that = (JsonNumber) o;
+		return this.text.equals(that.text) || JsonHash.equal(this, that);
+	}
+
+	@Override
+	public int hashCode() {
+		return JsonHash.hash((Number) this);
+	}
+
+	@Override
+	public String toString() {
+		return this.text;
+	}
+
+	private boolean fits(BigInteger min, BigInteger max, int maxDigits) {
+		final int digits = this.text.charAt(0) == '-' ? this.text.length() - 1 : this.text.length();
+		if (digits < maxDigits) {
+			return true;
+		}
+		final BigInteger value = new BigInteger(this.text);
+		return value.compareTo(min) >= 0 && value.compareTo(max) <= 0;
+	}
+
+	private static boolean isIntegral(String text) {
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+			if (c == '.' || c == 'e' || c == 'E') {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -15,102 +15,417 @@
  */
 package am.ik.json;
 
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 public class JsonObject {
-	private final Map<String, JsonNode> properties;
+	private static final int HASH_THRESHOLD = 8;
+
+	private static final int MAX_PROBES = 32;
+
+	private static final String[] EMPTY_KEYS = {};
+
+	private static final JsonNode[] EMPTY_VALUES = {};
+
+	private String[] keys;
+
+	private JsonNode[] values;
+
+	private int[] table;
+
+	private boolean seeded;
+
+	private int size;
+
+	private JsonTape tape;
+
+	private int index;
+
+	private JsonHash digest;
 
 	public JsonObject() {
-		this.properties = new LinkedHashMap<>();
+		this.keys = EMPTY_KEYS;
+		this.values = EMPTY_VALUES;
+	}
+
+	JsonObject(int capacity) {
+		this.keys = capacity == 0 ? EMPTY_KEYS : new String[capacity];
+		this.values = capacity == 0 ? EMPTY_VALUES : new JsonNode[capacity];
+	}
+
+	JsonObject(JsonTape tape, int index) {
+		this();
+		this.tape = tape;
+		this.index = index;
 	}
 
 	public JsonObject put(String key, JsonNode value) {
-		this.properties.put(key, value);
+		this.materialize();
+		final int found = this.indexOf(key);
+		if (found >= 0) {
+			this.values[found] = value;
+			return this;
+		}
+		if (this.size == this.keys.length) {
+			final int capacity = Math.max(4, this.size + (this.size >> 1));
+			this.keys = Arrays.copyOf(this.keys, capacity);
+			this.values = Arrays.copyOf(this.values, capacity);
+		}
+		this.keys[this.size] = key;
+		this.values[this.size] = value;
+		this.size++;
+		if (this.table != null) {
+			if (this.size * 2 > this.table.length) {
+				this.rehash();
+			}
+			else if (!this.index(this.size - 1)) {
+				this.seed();
+			}
+		}
+		else if (this.size > HASH_THRESHOLD) {
+			this.rehash();
+		}
 		return this;
 	}
 
 	public JsonObject put(String key, JsonArray value) {
-		this.properties.put(key, new JsonNode(value));
-		return this;
+		return this.put(key, new JsonNode(value));
 	}
 
 	public JsonObject put(String key, JsonObject value) {
-		this.properties.put(key, new JsonNode(value));
-		return this;
+		return this.put(key, new JsonNode(value));
 	}
 
 	public JsonObject put(String key, String value) {
-		this.properties.put(key, new JsonNode(value));
-		return this;
+		return this.put(key, new JsonNode(value));
 	}
 
 	public JsonObject put(String key, int value) {
-		this.properties.put(key, new JsonNode(value));
-		return this;
+		return this.put(key, JsonNode.valueOf(value));
+	}
+
+	public JsonObject put(String key, long value) {
+		return this.put(key, new JsonNode(value));
 	}
 
 	public JsonObject put(String key, float value) {
-		this.properties.put(key, new JsonNode(value));
-		return this;
+		return this.put(key, new JsonNode(value));
+	}
+
+	public JsonObject put(String key, double value) {
+		return this.put(key, new JsonNode(value));
+	}
+
+	public JsonObject put(String key, Number value) {
+		return this.put(key, JsonNode.valueOf(value));
 	}
 
 	public JsonObject put(String key, boolean value) {
-		this.properties.put(key, new JsonNode(value));
-		return this;
+		return this.put(key, JsonNode.valueOf(value));
+	}
+
+	public JsonNode remove(String key) {
+		this.materialize();
+		final int found = this.indexOf(key);
+		if (found < 0) {
+			return null;
+		}
+		final JsonNode removed = this.values[found];
+		final int moved = this.size - found - 1;
+		System.arraycopy(this.keys, found + 1, this.keys, found, moved);
+		System.arraycopy(this.values, found + 1, this.values, found, moved);
+		this.size--;
+		this.keys[this.size] = null;
+		this.values[this.size] = null;
+		if (this.table != null) {
+			if (this.size > HASH_THRESHOLD) {
+				this.rehash();
+			}
+			else {
+				this.table = null;
+				this.seeded = false;
+			}
+		}
+		return removed;
 	}
 
 	public JsonNode get(String key) {
-		final JsonNode value = this.properties.get(key);
+		final JsonNode value = this.find(key);
 		if (value == null) {
-			return new JsonNode(null);
+			return JsonNode.NULL;
 		}
 		return value;
 	}
 
 	public boolean containsKey(String key) {
-		return this.properties.containsKey(key);
+		this.materialize();
+		return this.indexOf(key) >= 0;
 	}
 
-
 	public Set<String> keySet() {
-		return this.properties.keySet();
+		return new KeySet();
 	}
 
 	public int size() {
-		return this.properties.size();
+		if (this.tape != null && this.tape.count(this.index) <= 1) {
+			return this.tape.count(this.index);
+		}
+		this.materialize();
+		return this.size;
 	}
 
 	public boolean isEmpty() {
-		return this.properties.isEmpty();
+		return this.size() == 0;
 	}
 
 	public Map<String, JsonNode> asMap() {
-		return Collections.unmodifiableMap(this.properties);
+		return new Properties();
 	}
 
 	public JsonNode toNode() {
 		return new JsonNode(this);
 	}
 
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof JsonObject && JsonHash.equal(this, (JsonObject) o);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.structuralHash().value;
+	}
+
 	@Override
 	public String toString() {
-		final StringBuilder sb = new StringBuilder();
-		sb.append("{");
-		final int size = this.properties.size();
-		int i = 0;
-		for (Entry<String, JsonNode> entry : this.properties.entrySet()) {
-			String k = entry.getKey();
-			JsonNode v = entry.getValue();
-			sb.append("\"").append(k).append("\"").append(":").append(v);
-			if (++i != size) {
-				sb.append(",");
+		return Json.stringify(this);
+	}
+
+	JsonHash structuralHash() {
+		JsonHash digest = this.digest;
+		if (digest == null) {
+			final int size = this.materializedSize();
+			boolean stable = this instanceof PersistentJsonObject;
+			int h = 0;
+			for (int i = 0; i < size; i++) {
+				final Object value = JsonHash.value(this.valueAt(i));
+				final JsonHash child = JsonHash.container(value);
+				h += this.keyAt(i).hashCode() ^ (child == null ? JsonHash.hash(value) : child.value);
+				stable &= child == null || child.isStable();
 			}
+			digest = new JsonHash(h, stable);
+			if (stable) {
+				this.digest = digest;
+			}
+		}
+		return digest;
+	}
+
+	JsonHash digest() {
+		final JsonHash digest = this.digest;
+		if (digest != null || !(this instanceof PersistentJsonObject)) {
+			return digest;
+		}
+		final JsonHash computed = this.structuralHash();
+		return computed.isStable() ? computed : null;
+	}
+
+	int materializedSize() {
+		this.materialize();
+		return this.size;
+	}
+
+	void reserve(int capacity) {
+		if (this.keys.length < capacity) {
+			this.keys = new String[capacity];
+			this.values = new JsonNode[capacity];
+		}
+	}
+
+	void recycle() {
+		this.materialize();
+		Arrays.fill(this.keys, 0, this.size, null);
+		Arrays.fill(this.values, 0, this.size, null);
+		this.table = null;
+		this.seeded = false;
+		this.size = 0;
+	}
+
+	String keyAt(int i) {
+		this.materialize();
+		return this.keys[i];
+	}
+
+	JsonNode valueAt(int i) {
+		this.materialize();
+		return this.values[i];
+	}
+
+	JsonNode find(String key) {
+		this.materialize();
+		final int found = this.indexOf(key);
+		return found < 0 ? null : this.values[found];
+	}
+
+	private void materialize() {
+		if (this.tape != null) {
+			final JsonTape tape = this.tape;
+			this.tape = null;
+			final int count = tape.count(this.index);
+			this.keys = count == 0 ? EMPTY_KEYS : new String[count];
+			this.values = count == 0 ? EMPTY_VALUES : new JsonNode[count];
+			int child = tape.firstChild(this.index);
+			for (int i = 0; i < count; i++) {
+				final int value = tape.nextSibling(child);
+				this.put(tape.string(child), tape.node(value));
+				child = tape.nextSibling(value);
+			}
+		}
+	}
+
+	private int indexOf(String key) {
+		if (this.table == null) {
+			for (int i = 0; i < this.size; i++) {
+				if (this.keys[i].equals(key)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		final int mask = this.table.length - 1;
+		for (int slot = this.hash(key) & mask;; slot = (slot + 1) & mask) {
+			final int entry = this.table[slot];
+			if (entry == 0) {
+				return -1;
+			}
+			if (this.keys[entry - 1].equals(key)) {
+				return entry - 1;
+			}
+		}
+	}
+
+	private void rehash() {
+		this.table = new int[Integer.highestOneBit(this.size * 4 - 1)];
+		for (int i = 0; i < this.size; i++) {
+			if (!this.index(i)) {
+				this.seed();
+				return;
+			}
+		}
+	}
+
+	private void seed() {
+		this.seeded = true;
+		this.rehash();
+	}
+
+	private boolean index(int i) {
+		final int mask = this.table.length - 1;
+		int slot = this.hash(this.keys[i]) & mask;
+		int probes = 0;
+		while (this.table[slot] != 0) {
+			slot = (slot + 1) & mask;
+			if (++probes > MAX_PROBES && !this.seeded) {
+				return false;
+			}
+		}
+		this.table[slot] = i + 1;
+		return true;
+	}
+
+	private int hash(String key) {
+		if (this.seeded) {
+			return SeededHash.hash(key);
+		}
+		final int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	private abstract class Cursor<T> implements Iterator<T> {
+		private int next;
+
+		@Override
+		public boolean hasNext() {
+			return this.next < JsonObject.this.size();
+		}
+
+		@Override
+		public T next() {
+			if (!this.hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return this.element(this.next++);
+		}
+
+		abstract T element(int i);
+	}
+
+	private final class KeySet extends AbstractSet<String> {
+		@Override
+		public Iterator<String> iterator() {
+			return new Cursor<String>() {
+				@Override
+				String element(int i) {
+					return JsonObject.this.keyAt(i);
+				}
+			};
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return o instanceof String && JsonObject.this.containsKey((String) o);
+		}
+
+		@Override
+		public int size() {
+			return JsonObject.this.size();
+		}
+	}
+
+	private final class Properties extends AbstractMap<String, JsonNode> {
+		@Override
+		public Set<Entry<String, JsonNode>> entrySet() {
+			return new AbstractSet<Entry<String, JsonNode>>() {
+				@Override
+				public Iterator<Entry<String, JsonNode>> iterator() {
+					return new Cursor<Entry<String, JsonNode>>() {
+						@Override
+						Entry<String, JsonNode> element(int i) {
+							return new SimpleImmutableEntry<>(JsonObject.this.keyAt(i), JsonObject.this.valueAt(i));
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return JsonObject.this.size();
+				}
+			};
+		}
+
+		@Override
+		public JsonNode get(Object key) {
+			return key instanceof String ? JsonObject.this.find((String) key) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof String && JsonObject.this.containsKey((String) key);
+		}
+
+		@Override
+		public Set<String> keySet() {
+			return JsonObject.this.keySet();
+		}
+
+		@Override
+		public int size() {
+			return JsonObject.this.size();
 		}
-		sb.replace(sb.length(), sb.length(), "}");
-		return sb.toString();
 	}
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+public final class JsonParseContext {
+	static final int DEFAULT_MAX_POOLED = 4096;
+
+	private static final ThreadLocal<JsonParseContext> CURRENT = ThreadLocal.withInitial(JsonParseContext::new);
+
+	private final JsonNodePool pool;
+
+	private final JsonParser parser;
+
+	public JsonParseContext() {
+		this(DEFAULT_MAX_POOLED);
+	}
+
+	public JsonParseContext(int maxPooled) {
+		if (maxPooled < 0) {
+			throw new IllegalArgumentException("maxPooled must not be negative: " + maxPooled);
+		}
+		this.pool = new JsonNodePool(maxPooled);
+		this.parser = new JsonParser(new JsonReader(new JsonLexer("")), JsonMetricsListener.NOOP,
+				new JsonNodeBuilder(this.pool));
+	}
+
+	public static JsonParseContext current() {
+		return CURRENT.get();
+	}
+
+	public JsonNode parse(CharSequence json) {
+		return this.parser.reset(json).parse(Json.metricsListener());
+	}
+
+	public void release(JsonNode node) {
+		this.pool.release(node);
+	}
+
+	int pooled() {
+		return this.pool.pooled();
+	}
+}
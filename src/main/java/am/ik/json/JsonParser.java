@@ -16,90 +16,133 @@
 package am.ik.json;
 
 public class JsonParser {
-	private final JsonLexer lexer;
+	private final JsonReader reader;
 
-	private Token currentToken;
+	private final JsonMetricsListener listener;
+
+	private final JsonNodeBuilder builder;
+
+	private final int maxEntries;
 
 	public JsonParser(JsonLexer lexer) {
-		this.lexer = lexer;
-		this.currentToken = lexer.nextToken();
+		this(new JsonReader(lexer));
+	}
+
+	public JsonParser(JsonLexer lexer, JsonKeyCache keyCache) {
+		this(new JsonReader(lexer, keyCache));
+	}
+
+	public JsonParser(JsonReader reader) {
+		this(reader, JsonMetricsListener.NOOP);
+	}
+
+	public JsonParser(JsonLexer lexer, JsonParserOptions options) {
+		this(new JsonReader(lexer, options));
+	}
+
+	public JsonParser(JsonReader reader, JsonMetricsListener listener) {
+		this(reader, listener, new JsonNodeBuilder());
+	}
+
+	JsonParser(JsonReader reader, JsonMetricsListener listener, JsonNodeBuilder builder) {
+		this.reader = reader;
+		this.listener = listener;
+		this.builder = builder;
+		this.maxEntries = reader.options().maxEntries();
+	}
+
+	public JsonParser reset(CharSequence input) {
+		this.reader.reset(input);
+		return this;
 	}
 
 	public JsonNode parse() {
-		return parseValue();
+		return this.parse(this.listener);
 	}
 
-	private JsonObject parseObject() {
-		final JsonObject jsonObject = new JsonObject();
-		consumeToken(TokenType.LEFT_BRACE);
-		while (this.currentToken.type() != TokenType.RIGHT_BRACE) {
-			final Token token = consumeToken(TokenType.STRING);
-			final String key = token.value();
-			consumeToken(TokenType.COLON);
-			final JsonNode value = parseValue();
-			jsonObject.put(key, value);
-			if (this.currentToken.type() == TokenType.COMMA) {
-				consumeToken(TokenType.COMMA);
-			}
+	JsonNode parse(JsonMetricsListener listener) {
+		this.builder.reset();
+		this.parse(this.builder, listener);
+		return this.builder.result();
+	}
+
+	public void parse(JsonHandler handler) {
+		this.parse(handler, this.listener);
+	}
+
+	private void parse(JsonHandler handler, JsonMetricsListener listener) {
+		if (listener == JsonMetricsListener.NOOP) {
+			parseValue(handler);
+			return;
 		}
-		consumeToken(TokenType.RIGHT_BRACE);
-		return jsonObject;
+		final JsonMetricsRecorder recorder = new JsonMetricsRecorder();
+		try {
+			parseValue(recorder.handler(handler));
+		}
+		catch (RuntimeException e) {
+			listener.failed(recorder.metrics(this.reader.position()), e);
+			throw e;
+		}
+		listener.parsed(recorder.metrics(this.reader.position()));
 	}
 
-	private JsonArray parseArray() {
-		final JsonArray jsonArray = new JsonArray();
-		consumeToken(TokenType.LEFT_BRACKET);
-		while (this.currentToken.type() != TokenType.RIGHT_BRACKET) {
-			final JsonNode value = parseValue();
-			jsonArray.add(value);
-			if (this.currentToken.type() == TokenType.COMMA) {
-				consumeToken(TokenType.COMMA);
+	private void parseObject(JsonHandler handler) {
+		this.reader.beginObject();
+		handler.startObject();
+		int entries = 0;
+		while (this.reader.hasNext()) {
+			if (++entries > this.maxEntries) {
+				throw new JsonParseException("Object entries exceed the maximum of " + this.maxEntries);
 			}
+			handler.key(this.reader.nextName());
+			parseValue(handler);
+		}
+		this.reader.endObject();
+		handler.endObject();
+	}
+
+	private void parseArray(JsonHandler handler) {
+		this.reader.beginArray();
+		handler.startArray();
+		while (this.reader.hasNext()) {
+			parseValue(handler);
 		}
-		consumeToken(TokenType.RIGHT_BRACKET);
-		return jsonArray;
+		this.reader.endArray();
+		handler.endArray();
 	}
 
-	private JsonNode parseValue() {
-		final TokenType type = this.currentToken.type();
+	private void parseValue(JsonHandler handler) {
+		final TokenType type = this.reader.peek();
 		switch (type) {
 			case LEFT_BRACE:
-				return new JsonNode(parseObject());
+				parseObject(handler);
+				break;
 			case LEFT_BRACKET:
-				return new JsonNode(parseArray());
+				parseArray(handler);
+				break;
 			case STRING:
-				final String stringValue = this.currentToken.value();
-				consumeToken(TokenType.STRING);
-				return new JsonNode(stringValue);
+				handler.stringValue(this.reader.nextString());
+				break;
 			case INT:
-				final int intValue = Integer.parseInt(this.currentToken.value());
-				consumeToken(TokenType.INT);
-				return new JsonNode(intValue);
-			case FLOAT:
-				final float floatValue = Float.parseFloat(this.currentToken.value());
-				consumeToken(TokenType.FLOAT);
-				return new JsonNode(floatValue);
+			case FLOAT: {
+				final Number number = this.reader.nextNumber();
+				if (number instanceof Integer) {
+					handler.intValue((Integer) number);
+				}
+				else {
+					handler.numberValue(number);
+				}
+				break;
+			}
 			case BOOLEAN:
-				// TODO: `Boolean.parseBoolean` doesn't work with teavm-wasi 0.2.7
-				final boolean booleanValue = "true".equals(this.currentToken.value());
-				consumeToken(TokenType.BOOLEAN);
-				return new JsonNode(booleanValue);
+				handler.booleanValue(this.reader.nextBoolean());
+				break;
 			case NULL:
-				consumeToken(TokenType.NULL);
-				return new JsonNode(null);
+				this.reader.nextNull();
+				handler.nullValue();
+				break;
 			default:
-				throw new JsonParseException("Unexpected token: " + this.currentToken.type());
-		}
-	}
-
-	private Token consumeToken(TokenType expectedType) {
-		final Token token = this.currentToken;
-		if (this.currentToken.type() == expectedType) {
-			this.currentToken = this.lexer.nextToken();
-		}
-		else {
-			throw new JsonParseException("Token mismatch. Expected: " + expectedType + ", found: " + this.currentToken.type());
+				throw new JsonParseException("Unexpected token: " + type);
 		}
-		return token;
 	}
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+public final class JsonParserOptions {
+	public static final int DEFAULT_MAX_DEPTH = 1000;
+
+	public static final int DEFAULT_MAX_NUMBER_LENGTH = 1000;
+
+	private static final JsonParserOptions DEFAULTS = new JsonParserOptions(DEFAULT_MAX_DEPTH, Long.MAX_VALUE,
+			Integer.MAX_VALUE, DEFAULT_MAX_NUMBER_LENGTH, Integer.MAX_VALUE);
+
+	private final int maxDepth;
+
+	private final long maxInputLength;
+
+	private final int maxStringLength;
+
+	private final int maxNumberLength;
+
+	private final int maxEntries;
+
+	private JsonParserOptions(int maxDepth, long maxInputLength, int maxStringLength, int maxNumberLength,
+			int maxEntries) {
+		this.maxDepth = maxDepth;
+		this.maxInputLength = maxInputLength;
+		this.maxStringLength = maxStringLength;
+		this.maxNumberLength = maxNumberLength;
+		this.maxEntries = maxEntries;
+	}
+
+	public static JsonParserOptions defaults() {
+		return DEFAULTS;
+	}
+
+	public JsonParserOptions withMaxDepth(int maxDepth) {
+		return new JsonParserOptions(positive("maxDepth", maxDepth), this.maxInputLength, this.maxStringLength,
+				this.maxNumberLength, this.maxEntries);
+	}
+
+	public JsonParserOptions withMaxInputLength(long maxInputLength) {
+		if (maxInputLength <= 0) {
+			throw new IllegalArgumentException("maxInputLength must be positive: " + maxInputLength);
+		}
+		return new JsonParserOptions(this.maxDepth, maxInputLength, this.maxStringLength, this.maxNumberLength,
+				this.maxEntries);
+	}
+
+	public JsonParserOptions withMaxStringLength(int maxStringLength) {
+		return new JsonParserOptions(this.maxDepth, this.maxInputLength, positive("maxStringLength", maxStringLength),
+				this.maxNumberLength, this.maxEntries);
+	}
+
+	public JsonParserOptions withMaxNumberLength(int maxNumberLength) {
+		return new JsonParserOptions(this.maxDepth, this.maxInputLength, this.maxStringLength,
+				positive("maxNumberLength", maxNumberLength), this.maxEntries);
+	}
+
+	public JsonParserOptions withMaxEntries(int maxEntries) {
+		return new JsonParserOptions(this.maxDepth, this.maxInputLength, this.maxStringLength, this.maxNumberLength,
+				positive("maxEntries", maxEntries));
+	}
+
+	public int maxDepth() {
+		return this.maxDepth;
+	}
+
+	public long maxInputLength() {
+		return this.maxInputLength;
+	}
+
+	public int maxStringLength() {
+		return this.maxStringLength;
+	}
+
+	public int maxNumberLength() {
+		return this.maxNumberLength;
+	}
+
+	public int maxEntries() {
+		return this.maxEntries;
+	}
+
+	private static int positive(String name, int value) {
+		if (value <= 0) {
+			throw new IllegalArgumentException(name + " must be positive: " + value);
+		}
+		return value;
+	}
+}
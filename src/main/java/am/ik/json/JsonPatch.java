@@ -0,0 +1,441 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class JsonPatch {
+	private static final String[] ROOT = {};
+
+	private final Operation[] operations;
+
+	private JsonPatch(Operation[] operations) {
+		this.operations = operations;
+	}
+
+	public static JsonPatch parse(String patch) {
+		return of(Json.parse(patch));
+	}
+
+	public static JsonPatch of(JsonNode patch) {
+		if (!patch.isArray()) {
+			throw new JsonPatchException("JSON Patch must be an array: " + patch);
+		}
+		final JsonArray array = patch.asArray();
+		final Operation[] operations = new Operation[array.size()];
+		for (int i = 0; i < operations.length; i++) {
+			operations[i] = Operation.of(array.get(i));
+		}
+		return new JsonPatch(operations);
+	}
+
+	public static JsonPatch concat(List<JsonPatch> patches) {
+		final List<Operation> operations = new ArrayList<>();
+		for (JsonPatch patch : patches) {
+			operations.addAll(Arrays.asList(patch.operations));
+		}
+		return new JsonPatch(operations.toArray(new Operation[0]));
+	}
+
+	public static JsonPatch diff(JsonNode source, JsonNode target) {
+		final JsonArray operations = new JsonArray();
+		diff(source, target, "", operations);
+		return of(new JsonNode(operations));
+	}
+
+	public int size() {
+		return this.operations.length;
+	}
+
+	public JsonNode apply(JsonNode target) {
+		JsonNode result = target;
+		for (Operation operation : this.operations) {
+			result = operation.apply(result);
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		final JsonArray array = new JsonArray();
+		for (Operation operation : this.operations) {
+			array.add(operation.source);
+		}
+		return Json.stringify(array);
+	}
+
+	static JsonNode copy(JsonNode node) {
+		final Object value = node == null ? null : node.value();
+		if (value instanceof PersistentJsonObject || value instanceof PersistentJsonArray) {
+			return node;
+		}
+		if (value instanceof JsonObject) {
+			final JsonObject source = (JsonObject) value;
+			final int size = source.materializedSize();
+			final JsonObject copy = new JsonObject(size);
+			for (int i = 0; i < size; i++) {
+				copy.put(source.keyAt(i), copy(source.valueAt(i)));
+			}
+			return new JsonNode(copy);
+		}
+		if (value instanceof JsonArray) {
+			final JsonArray source = (JsonArray) value;
+			final JsonNode[] copy = new JsonNode[source.size()];
+			for (int i = 0; i < copy.length; i++) {
+				copy[i] = copy(source.get(i));
+			}
+			return new JsonNode(new JsonArray(copy));
+		}
+		return node == null ? JsonNode.NULL : node;
+	}
+
+	private static void diff(JsonNode source, JsonNode target, String path, JsonArray operations) {
+		final Object x = JsonHash.value(source);
+		final Object y = JsonHash.value(target);
+		if (JsonHash.unchanged(x, y)) {
+			return;
+		}
+		if (x instanceof JsonObject && y instanceof JsonObject) {
+			final JsonObject from = (JsonObject) x;
+			final JsonObject to = (JsonObject) y;
+			final int fromSize = from.materializedSize();
+			for (int i = 0; i < fromSize; i++) {
+				final String key = from.keyAt(i);
+				final JsonNode value = to.find(key);
+				if (value == null) {
+					operations.add(operation("remove", child(path, key), null));
+				}
+				else {
+					diff(from.valueAt(i), value, child(path, key), operations);
+				}
+			}
+			final int toSize = to.materializedSize();
+			for (int i = 0; i < toSize; i++) {
+				final String key = to.keyAt(i);
+				if (!from.containsKey(key)) {
+					operations.add(operation("add", child(path, key), to.valueAt(i)));
+				}
+			}
+		}
+		else if (x instanceof JsonArray && y instanceof JsonArray) {
+			final JsonArray from = (JsonArray) x;
+			final JsonArray to = (JsonArray) y;
+			int start = 0;
+			int fromEnd = from.size();
+			int toEnd = to.size();
+			while (start < fromEnd && start < toEnd && from.get(start).equals(to.get(start))) {
+				start++;
+			}
+			while (fromEnd > start && toEnd > start && from.get(fromEnd - 1).equals(to.get(toEnd - 1))) {
+				fromEnd--;
+				toEnd--;
+			}
+			final int common = Math.min(fromEnd, toEnd) - start;
+			for (int i = start; i < start + common; i++) {
+				diff(from.get(i), to.get(i), child(path, Integer.toString(i)), operations);
+			}
+			for (int i = fromEnd - 1; i >= start + common; i--) {
+				operations.add(operation("remove", child(path, Integer.toString(i)), null));
+			}
+			for (int i = start + common; i < toEnd; i++) {
+				operations.add(operation("add", child(path, Integer.toString(i)), to.get(i)));
+			}
+		}
+		else if (!JsonHash.equal(x, y)) {
+			operations.add(operation("replace", path, target));
+		}
+	}
+
+	private static JsonNode operation(String op, String path, JsonNode value) {
+		final JsonObject operation = new JsonObject().put("op", op).put("path", path);
+		if (value != null) {
+			operation.put("value", value);
+		}
+		return new JsonNode(operation);
+	}
+
+	private static String child(String path, String token) {
+		return path + '/' + token.replace("~", "~0").replace("/", "~1");
+	}
+
+	private static String[] pointer(JsonNode operation, String member) {
+		final JsonNode node = operation.asObject().find(member);
+		if (node == null || !node.isString()) {
+			throw new JsonPatchException("Missing '" + member + "' in operation: " + operation);
+		}
+		final String pointer = node.asString();
+		if (pointer.isEmpty()) {
+			return ROOT;
+		}
+		if (pointer.charAt(0) != '/') {
+			throw new JsonPatchException("Invalid JSON Pointer: " + pointer);
+		}
+		final List<String> tokens = new ArrayList<>();
+		int start = 1;
+		while (start <= pointer.length()) {
+			int end = pointer.indexOf('/', start);
+			if (end < 0) {
+				end = pointer.length();
+			}
+			tokens.add(pointer.substring(start, end).replace("~1", "/").replace("~0", "~"));
+			start = end + 1;
+		}
+		return tokens.toArray(new String[0]);
+	}
+
+	private static JsonNode get(JsonNode root, String[] path) {
+		JsonNode node = root;
+		for (String token : path) {
+			node = child(node, token, path);
+		}
+		return node;
+	}
+
+	private static JsonNode child(JsonNode node, String token, String[] path) {
+		final Object value = node.value();
+		if (value instanceof JsonObject) {
+			final JsonNode child = ((JsonObject) value).find(token);
+			if (child == null) {
+				throw new JsonPatchException("No value at path: " + format(path));
+			}
+			return child;
+		}
+		if (value instanceof JsonArray) {
+			return ((JsonArray) value).get(index((JsonArray) value, token, false, path));
+		}
+		throw new JsonPatchException("No value at path: " + format(path));
+	}
+
+	private static int index(JsonArray array, String token, boolean end, String[] path) {
+		final int size = array.size();
+		if (end && token.equals("-")) {
+			return size;
+		}
+		if (!JsonPath.isIndex(token)) {
+			throw new JsonPatchException("Invalid array index '" + token + "' at path: " + format(path));
+		}
+		final int index = Integer.parseInt(token);
+		if (index > size || index == size && !end) {
+			throw new JsonPatchException("Array index out of bounds at path: " + format(path));
+		}
+		return index;
+	}
+
+	private static JsonNode update(JsonNode node, String[] path, int depth, Edit edit) {
+		final String token = path[depth];
+		if (depth == path.length - 1) {
+			return edit.apply(node, token, path);
+		}
+		final JsonNode child = child(node, token, path);
+		final JsonNode updated = update(child, path, depth + 1, edit);
+		return updated == child ? node : replace(node, token, updated, path);
+	}
+
+	private static JsonNode add(JsonNode node, String token, JsonNode value, String[] path) {
+		final Object container = node.value();
+		if (container instanceof PersistentJsonObject) {
+			return new JsonNode(((PersistentJsonObject) container).with(token, PersistentJsonObject.persistent(value)));
+		}
+		if (container instanceof JsonObject) {
+			((JsonObject) container).put(token, value);
+			return node;
+		}
+		if (container instanceof PersistentJsonArray) {
+			final PersistentJsonArray array = (PersistentJsonArray) container;
+			return new JsonNode(array.withInserted(index(array, token, true, path), PersistentJsonObject.persistent(value)));
+		}
+		if (container instanceof JsonArray) {
+			final JsonArray array = (JsonArray) container;
+			array.add(index(array, token, true, path), value);
+			return node;
+		}
+		throw new JsonPatchException("Parent of path is not a container: " + format(path));
+	}
+
+	private static JsonNode remove(JsonNode node, String token, String[] path) {
+		final Object container = node.value();
+		if (container instanceof JsonObject) {
+			final JsonObject object = (JsonObject) container;
+			if (!object.containsKey(token)) {
+				throw new JsonPatchException("No value at path: " + format(path));
+			}
+			if (object instanceof PersistentJsonObject) {
+				return new JsonNode(((PersistentJsonObject) object).without(token));
+			}
+			object.remove(token);
+			return node;
+		}
+		if (container instanceof JsonArray) {
+			final JsonArray array = (JsonArray) container;
+			final int index = index(array, token, false, path);
+			if (array instanceof PersistentJsonArray) {
+				return new JsonNode(((PersistentJsonArray) array).without(index));
+			}
+			array.remove(index);
+			return node;
+		}
+		throw new JsonPatchException("No value at path: " + format(path));
+	}
+
+	private static JsonNode replace(JsonNode node, String token, JsonNode value, String[] path) {
+		final Object container = node.value();
+		if (container instanceof JsonObject) {
+			final JsonObject object = (JsonObject) container;
+			if (!object.containsKey(token)) {
+				throw new JsonPatchException("No value at path: " + format(path));
+			}
+			if (object instanceof PersistentJsonObject) {
+				return new JsonNode(((PersistentJsonObject) object).with(token, PersistentJsonObject.persistent(value)));
+			}
+			object.put(token, value);
+			return node;
+		}
+		if (container instanceof JsonArray) {
+			final JsonArray array = (JsonArray) container;
+			final int index = index(array, token, false, path);
+			if (array instanceof PersistentJsonArray) {
+				return new JsonNode(((PersistentJsonArray) array).with(index, PersistentJsonObject.persistent(value)));
+			}
+			array.set(index, value);
+			return node;
+		}
+		throw new JsonPatchException("No value at path: " + format(path));
+	}
+
+	private static String format(String[] path) {
+		final StringBuilder sb = new StringBuilder();
+		for (String token : path) {
+			sb.append('/').append(token.replace("~", "~0").replace("/", "~1"));
+		}
+		return sb.toString();
+	}
+
+	private interface Edit {
+		JsonNode apply(JsonNode container, String token, String[] path);
+	}
+
+	private static final class Operation {
+		private static final int ADD = 0;
+
+		private static final int REMOVE = 1;
+
+		private static final int REPLACE = 2;
+
+		private static final int MOVE = 3;
+
+		private static final int COPY = 4;
+
+		private static final int TEST = 5;
+
+		private final JsonNode source;
+
+		private final int kind;
+
+		private final String[] path;
+
+		private final String[] from;
+
+		private final JsonNode value;
+
+		private Operation(JsonNode source, int kind, String[] path, String[] from, JsonNode value) {
+			this.source = source;
+			this.kind = kind;
+			this.path = path;
+			this.from = from;
+			this.value = value;
+		}
+
+		static Operation of(JsonNode operation) {
+			if (!operation.isObject()) {
+				throw new JsonPatchException("Operation must be an object: " + operation);
+			}
+			final JsonNode op = operation.asObject().find("op");
+			final String name = op == null || !op.isString() ? "" : op.asString();
+			final String[] path = pointer(operation, "path");
+			switch (name) {
+				case "add":
+					return new Operation(operation, ADD, path, null, value(operation));
+				case "remove":
+					return new Operation(operation, REMOVE, path, null, null);
+				case "replace":
+					return new Operation(operation, REPLACE, path, null, value(operation));
+				case "move": {
+					final String[] from = pointer(operation, "from");
+					if (from.length < path.length && Arrays.equals(from, Arrays.copyOf(path, from.length))) {
+						throw new JsonPatchException("Cannot move a value into one of its children: " + operation);
+					}
+					return new Operation(operation, MOVE, path, from, null);
+				}
+				case "copy":
+					return new Operation(operation, COPY, path, pointer(operation, "from"), null);
+				case "test":
+					return new Operation(operation, TEST, path, null, value(operation));
+				default:
+					throw new JsonPatchException("Unknown operation: " + operation);
+			}
+		}
+
+		private static JsonNode value(JsonNode operation) {
+			final JsonNode value = operation.asObject().find("value");
+			if (value == null) {
+				throw new JsonPatchException("Missing 'value' in operation: " + operation);
+			}
+			return value;
+		}
+
+		JsonNode apply(JsonNode target) {
+			switch (this.kind) {
+				case ADD:
+					return this.add(target, this.path, copy(this.value));
+				case REMOVE:
+					if (this.path.length == 0) {
+						throw new JsonPatchException("Cannot remove the root: " + this.source);
+					}
+					return update(target, this.path, 0, JsonPatch::remove);
+				case REPLACE:
+					if (this.path.length == 0) {
+						return copy(this.value);
+					}
+					final JsonNode value = copy(this.value);
+					return update(target, this.path, 0, (node, token, path) -> replace(node, token, value, path));
+				case MOVE: {
+					if (Arrays.equals(this.from, this.path)) {
+						get(target, this.from);
+						return target;
+					}
+					final JsonNode moved = get(target, this.from);
+					return this.add(update(target, this.from, 0, JsonPatch::remove), this.path, moved);
+				}
+				case COPY:
+					return this.add(target, this.path, copy(get(target, this.from)));
+				default:
+					if (!get(target, this.path).equals(this.value)) {
+						throw new JsonPatchException("Test failed: " + this.source);
+					}
+					return target;
+			}
+		}
+
+		private JsonNode add(JsonNode target, String[] path, JsonNode value) {
+			if (path.length == 0) {
+				return value;
+			}
+			return update(target, path, 0, (node, token, p) -> JsonPatch.add(node, token, value, p));
+		}
+	}
+}
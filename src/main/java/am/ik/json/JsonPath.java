@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public final class JsonPath {
+	private final String expression;
+
+	private final Segment[] segments;
+
+	private JsonPath(String expression, Segment[] segments) {
+		this.expression = expression;
+		this.segments = segments;
+	}
+
+	public static JsonPath compile(String expression) {
+		if (expression.startsWith("$")) {
+			return new JsonPath(expression, parsePath(expression));
+		}
+		if (expression.isEmpty() || expression.startsWith("/")) {
+			return new JsonPath(expression, parsePointer(expression));
+		}
+		throw new IllegalArgumentException("Invalid path: " + expression);
+	}
+
+	public List<JsonNode> evaluate(String json) {
+		return this.evaluate(new JsonReader(new JsonLexer(json)));
+	}
+
+	public List<JsonNode> evaluate(byte[] utf8) {
+		return this.evaluate(new JsonReader(new JsonLexer(utf8, 0, utf8.length)));
+	}
+
+	public List<JsonNode> evaluate(Reader json) {
+		return this.evaluate(new JsonReader(json));
+	}
+
+	public List<JsonNode> evaluate(Path json) {
+		try (JsonReader reader = Json.reader(json)) {
+			return this.evaluate(reader);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public List<JsonNode> evaluate(JsonReader reader) {
+		final List<JsonNode> results = new ArrayList<>();
+		final Matches matches = new Matches(reader);
+		for (JsonNode node = matches.next(); node != null; node = matches.next()) {
+			results.add(node);
+		}
+		return results;
+	}
+
+	public Stream<JsonNode> stream(String json) {
+		return this.stream(new JsonReader(new JsonLexer(json)));
+	}
+
+	public Stream<JsonNode> stream(JsonReader reader) {
+		return StreamSupport.stream(new Matches(reader), false);
+	}
+
+	@Override
+	public String toString() {
+		return this.expression;
+	}
+
+	private static Segment[] parsePath(String expression) {
+		final List<Segment> segments = new ArrayList<>();
+		final int length = expression.length();
+		int i = 1;
+		while (i < length) {
+			final char c = expression.charAt(i);
+			if (c == '.') {
+				int end = i + 1;
+				while (end < length && expression.charAt(end) != '.' && expression.charAt(end) != '[') {
+					end++;
+				}
+				final String name = expression.substring(i + 1, end);
+				if (name.isEmpty()) {
+					throw new IllegalArgumentException("Invalid path: " + expression);
+				}
+				segments.add(name.equals("*") ? Segment.WILDCARD : new Segment(name, -1));
+				i = end;
+			}
+			else if (c == '[') {
+				final int end = expression.indexOf(']', i);
+				if (end < 0) {
+					throw new IllegalArgumentException("Invalid path: " + expression);
+				}
+				final String selector = expression.substring(i + 1, end).trim();
+				if (selector.equals("*")) {
+					segments.add(Segment.WILDCARD);
+				}
+				else if (selector.length() >= 2 && (selector.charAt(0) == '\'' || selector.charAt(0) == '"')
+						&& selector.charAt(selector.length() - 1) == selector.charAt(0)) {
+					segments.add(new Segment(selector.substring(1, selector.length() - 1), -1));
+				}
+				else {
+					segments.add(new Segment(null, parseIndex(selector, expression)));
+				}
+				i = end + 1;
+			}
+			else {
+				throw new IllegalArgumentException("Invalid path: " + expression);
+			}
+		}
+		return segments.toArray(new Segment[0]);
+	}
+
+	private static Segment[] parsePointer(String expression) {
+		final List<Segment> segments = new ArrayList<>();
+		int start = 1;
+		while (start <= expression.length()) {
+			int end = expression.indexOf('/', start);
+			if (end < 0) {
+				end = expression.length();
+			}
+			final String token = expression.substring(start, end).replace("~1", "/").replace("~0", "~");
+			if (token.equals("*")) {
+				segments.add(Segment.WILDCARD);
+			}
+			else {
+				segments.add(new Segment(token, isIndex(token) ? Integer.parseInt(token) : -1));
+			}
+			start = end + 1;
+		}
+		return segments.toArray(new Segment[0]);
+	}
+
+	private static int parseIndex(String selector, String expression) {
+		if (!isIndex(selector)) {
+			throw new IllegalArgumentException("Invalid path: " + expression);
+		}
+		return Integer.parseInt(selector);
+	}
+
+	static boolean isIndex(String token) {
+		if (token.isEmpty() || token.length() > 9 || token.length() > 1 && token.charAt(0) == '0') {
+			return false;
+		}
+		for (int i = 0; i < token.length(); i++) {
+			final char c = token.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static final class Segment {
+		static final Segment WILDCARD = new Segment(null, -1, true);
+
+		final String name;
+
+		final int index;
+
+		final boolean wildcard;
+
+		Segment(String name, int index) {
+			this(name, index, false);
+		}
+
+		private Segment(String name, int index, boolean wildcard) {
+			this.name = name;
+			this.index = index;
+			this.wildcard = wildcard;
+		}
+	}
+
+	private final class Matches extends Spliterators.AbstractSpliterator<JsonNode> {
+		private final JsonReader reader;
+
+		private final JsonParser parser;
+
+		private boolean[] objects = new boolean[8];
+
+		private int[] indexes = new int[8];
+
+		private int depth = -1;
+
+		Matches(JsonReader reader) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.reader = reader;
+			this.parser = new JsonParser(reader);
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super JsonNode> action) {
+			final JsonNode node = this.next();
+			if (node == null) {
+				return false;
+			}
+			action.accept(node);
+			return true;
+		}
+
+		JsonNode next() {
+			final JsonReader reader = this.reader;
+			if (this.depth < 0) {
+				this.depth = 0;
+				final JsonNode node = this.enter();
+				if (node != null) {
+					return node;
+				}
+			}
+			while (this.depth > 0) {
+				final int level = this.depth - 1;
+				final Segment segment = JsonPath.this.segments[level];
+				if (!reader.hasNext()) {
+					if (this.objects[level]) {
+						reader.endObject();
+					}
+					else {
+						reader.endArray();
+					}
+					this.depth--;
+					continue;
+				}
+				final boolean matched;
+				if (this.objects[level]) {
+					if (segment.wildcard) {
+						reader.nextName();
+						matched = true;
+					}
+					else {
+						matched = reader.nextNameIs(segment.name);
+					}
+				}
+				else {
+					final int index = this.indexes[level]++;
+					matched = segment.wildcard || segment.index == index;
+				}
+				if (!matched) {
+					reader.skipValue();
+					continue;
+				}
+				final JsonNode node = this.enter();
+				if (node != null) {
+					return node;
+				}
+			}
+			return null;
+		}
+
+		private JsonNode enter() {
+			final JsonReader reader = this.reader;
+			if (this.depth == JsonPath.this.segments.length) {
+				return this.parser.parse();
+			}
+			final Segment segment = JsonPath.this.segments[this.depth];
+			final TokenType type = reader.peek();
+			if (type == TokenType.LEFT_BRACE && (segment.wildcard || segment.name != null)) {
+				reader.beginObject();
+				this.push(true);
+			}
+			else if (type == TokenType.LEFT_BRACKET && (segment.wildcard || segment.index >= 0)) {
+				reader.beginArray();
+				this.push(false);
+			}
+			else {
+				reader.skipValue();
+			}
+			return null;
+		}
+
+		private void push(boolean object) {
+			if (this.depth == this.objects.length) {
+				this.objects = Arrays.copyOf(this.objects, this.depth * 2);
+				this.indexes = Arrays.copyOf(this.indexes, this.depth * 2);
+			}
+			this.objects[this.depth] = object;
+			this.indexes[this.depth] = 0;
+			this.depth++;
+		}
+	}
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class JsonReader implements Closeable {
+	private static final int EMPTY_DOCUMENT = 0;
+
+	private static final int NONEMPTY_DOCUMENT = 1;
+
+	private static final int EMPTY_ARRAY = 2;
+
+	private static final int NONEMPTY_ARRAY = 3;
+
+	private static final int EMPTY_OBJECT = 4;
+
+	private static final int DANGLING_NAME = 5;
+
+	private static final int NONEMPTY_OBJECT = 6;
+
+	private final JsonLexer lexer;
+
+	private final JsonKeyCache keyCache;
+
+	private final JsonParserOptions options;
+
+	private final int maxDepth;
+
+	private int[] stack = new int[32];
+
+	private int stackSize = 0;
+
+	private TokenType peeked;
+
+	private boolean peekedName;
+
+	public JsonReader(JsonLexer lexer) {
+		this(lexer, null, JsonParserOptions.defaults());
+	}
+
+	public JsonReader(JsonLexer lexer, JsonKeyCache keyCache) {
+		this(lexer, keyCache, JsonParserOptions.defaults());
+	}
+
+	public JsonReader(JsonLexer lexer, JsonParserOptions options) {
+		this(lexer, null, options);
+	}
+
+	public JsonReader(JsonLexer lexer, JsonKeyCache keyCache, JsonParserOptions options) {
+		this.lexer = lexer;
+		this.keyCache = keyCache;
+		this.options = options;
+		this.maxDepth = options.maxDepth();
+		lexer.limit(options);
+		this.push(EMPTY_DOCUMENT);
+	}
+
+	public JsonReader(Reader reader) {
+		this(new JsonLexer(reader));
+	}
+
+	public JsonReader(InputStream in) {
+		this(new InputStreamReader(in, StandardCharsets.UTF_8));
+	}
+
+	public JsonReader reset(CharSequence input) {
+		this.lexer.reset(input);
+		this.stackSize = 0;
+		this.push(EMPTY_DOCUMENT);
+		this.peeked = null;
+		this.peekedName = false;
+		return this;
+	}
+
+	public TokenType peek() {
+		if (this.peeked == null) {
+			this.peekedName = false;
+			this.peeked = this.doPeek();
+		}
+		return this.peeked;
+	}
+
+	public boolean hasNext() {
+		final TokenType type = this.peek();
+		return type != TokenType.RIGHT_BRACE && type != TokenType.RIGHT_BRACKET && type != TokenType.EOF;
+	}
+
+	public void beginObject() {
+		this.consume(TokenType.LEFT_BRACE);
+		this.push(EMPTY_OBJECT);
+	}
+
+	public void endObject() {
+		this.consume(TokenType.RIGHT_BRACE);
+		this.stackSize--;
+	}
+
+	public void beginArray() {
+		this.consume(TokenType.LEFT_BRACKET);
+		this.push(EMPTY_ARRAY);
+	}
+
+	public void endArray() {
+		this.consume(TokenType.RIGHT_BRACKET);
+		this.stackSize--;
+	}
+
+	public String nextName() {
+		this.peek();
+		if (!this.peekedName) {
+			throw new JsonParseException("Token mismatch. Expected: name, found: " + this.peeked);
+		}
+		this.consume(TokenType.STRING);
+		final String name = this.keyCache == null ? this.lexer.stringValue() : this.lexer.stringValue(this.keyCache);
+		this.stack[this.stackSize - 1] = DANGLING_NAME;
+		return name;
+	}
+
+	JsonParserOptions options() {
+		return this.options;
+	}
+
+	long position() {
+		return this.lexer.tokenEnd();
+	}
+
+	boolean nextNameIs(String expected) {
+		this.peek();
+		if (!this.peekedName) {
+			throw new JsonParseException("Token mismatch. Expected: name, found: " + this.peeked);
+		}
+		this.consume(TokenType.STRING);
+		this.stack[this.stackSize - 1] = DANGLING_NAME;
+		return this.lexer.isText(expected);
+	}
+
+	public String nextString() {
+		if (this.peek() == TokenType.STRING && this.peekedName) {
+			throw new JsonParseException("Token mismatch. Expected: value, found: name");
+		}
+		this.consume(TokenType.STRING);
+		return this.lexer.stringValue();
+	}
+
+	public int nextInt() {
+		this.consume(TokenType.INT);
+		return this.lexer.intValue();
+	}
+
+	public long nextLong() {
+		this.consume(TokenType.INT);
+		return this.lexer.longValue();
+	}
+
+	public Number nextNumber() {
+		this.consumeNumber();
+		return this.lexer.numberValue();
+	}
+
+	public float nextFloat() {
+		this.consumeNumber();
+		return this.lexer.floatValue();
+	}
+
+	public double nextDouble() {
+		this.consumeNumber();
+		return this.lexer.doubleValue();
+	}
+
+	public boolean nextBoolean() {
+		this.consume(TokenType.BOOLEAN);
+		return this.lexer.booleanValue();
+	}
+
+	public void nextNull() {
+		this.consume(TokenType.NULL);
+	}
+
+	public void skipValue() {
+		if (this.peek() == TokenType.STRING && this.peekedName) {
+			this.nextName();
+		}
+		int depth = 0;
+		do {
+			switch (this.peek()) {
+				case LEFT_BRACE:
+					this.beginObject();
+					depth++;
+					break;
+				case LEFT_BRACKET:
+					this.beginArray();
+					depth++;
+					break;
+				case RIGHT_BRACE:
+					this.endObject();
+					depth--;
+					break;
+				case RIGHT_BRACKET:
+					this.endArray();
+					depth--;
+					break;
+				case STRING:
+					if (this.peekedName) {
+						this.nextName();
+					}
+					else {
+						this.peeked = null;
+					}
+					break;
+				case EOF:
+					throw new JsonParseException("Unexpected token: " + TokenType.EOF);
+				default:
+					this.peeked = null;
+			}
+		} while (depth > 0);
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.peeked = null;
+		this.stackSize = 0;
+		this.lexer.close();
+	}
+
+	private void consume(TokenType expectedType) {
+		final TokenType type = this.peek();
+		if (type != expectedType) {
+			throw new JsonParseException("Token mismatch. Expected: " + expectedType + ", found: " + type);
+		}
+		this.peeked = null;
+	}
+
+	private void consumeNumber() {
+		final TokenType type = this.peek();
+		if (type != TokenType.INT && type != TokenType.FLOAT) {
+			throw new JsonParseException("Token mismatch. Expected: " + TokenType.FLOAT + ", found: " + type);
+		}
+		this.peeked = null;
+	}
+
+	private TokenType doPeek() {
+		if (this.stackSize == 0) {
+			throw new JsonParseException("JsonReader is closed");
+		}
+		final int scope = this.stack[this.stackSize - 1];
+		switch (scope) {
+			case EMPTY_ARRAY: {
+				this.stack[this.stackSize - 1] = NONEMPTY_ARRAY;
+				final TokenType type = this.lexer.advance();
+				return type == TokenType.RIGHT_BRACKET ? type : value(type);
+			}
+			case NONEMPTY_ARRAY: {
+				final TokenType type = this.lexer.advance();
+				if (type == TokenType.RIGHT_BRACKET) {
+					return type;
+				}
+				expect(type, TokenType.COMMA);
+				return value(this.lexer.advance());
+			}
+			case EMPTY_OBJECT: {
+				final TokenType type = this.lexer.advance();
+				if (type == TokenType.RIGHT_BRACE) {
+					return type;
+				}
+				this.peekedName = true;
+				return expect(type, TokenType.STRING);
+			}
+			case NONEMPTY_OBJECT: {
+				final TokenType type = this.lexer.advance();
+				if (type == TokenType.RIGHT_BRACE) {
+					return type;
+				}
+				expect(type, TokenType.COMMA);
+				this.peekedName = true;
+				return expect(this.lexer.advance(), TokenType.STRING);
+			}
+			case DANGLING_NAME: {
+				this.stack[this.stackSize - 1] = NONEMPTY_OBJECT;
+				expect(this.lexer.advance(), TokenType.COLON);
+				return value(this.lexer.advance());
+			}
+			case EMPTY_DOCUMENT: {
+				this.stack[this.stackSize - 1] = NONEMPTY_DOCUMENT;
+				return value(this.lexer.advance());
+			}
+			default: {
+				return expect(this.lexer.advance(), TokenType.EOF);
+			}
+		}
+	}
+
+	private static TokenType value(TokenType type) {
+		switch (type) {
+			case LEFT_BRACE:
+			case LEFT_BRACKET:
+			case STRING:
+			case INT:
+			case FLOAT:
+			case BOOLEAN:
+			case NULL:
+				return type;
+			default:
+				throw new JsonParseException("Unexpected token: " + type);
+		}
+	}
+
+	private static TokenType expect(TokenType type, TokenType expectedType) {
+		if (type != expectedType) {
+			throw new JsonParseException("Token mismatch. Expected: " + expectedType + ", found: " + type);
+		}
+		return type;
+	}
+
+	private void push(int scope) {
+		if (this.stackSize == this.stack.length) {
+			this.stack = Arrays.copyOf(this.stack, this.stackSize * 2);
+		}
+		this.stack[this.stackSize++] = scope;
+		if (this.stackSize > this.maxDepth + 1) {
+			throw new JsonParseException("Nesting depth exceeds the maximum of " + this.maxDepth);
+		}
+	}
+}
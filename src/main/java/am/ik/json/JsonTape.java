@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.util.Arrays;
+
+final class JsonTape {
+	private final String input;
+
+	private TokenType[] types = new TokenType[16];
+
+	private int[] starts = new int[16];
+
+	private int[] ends = new int[16];
+
+	private int[] skips = new int[16];
+
+	private int[] counts = new int[16];
+
+	private int size;
+
+	private final JsonMetricsRecorder recorder;
+
+	private JsonTape(String input, JsonMetricsRecorder recorder) {
+		this.input = input;
+		this.recorder = recorder;
+	}
+
+	static JsonNode parse(String input) {
+		final JsonMetricsListener listener = Json.metricsListener();
+		final JsonMetricsRecorder recorder = listener == JsonMetricsListener.NOOP ? null : new JsonMetricsRecorder();
+		final JsonTape tape = new JsonTape(input, recorder);
+		final JsonLexer lexer = new JsonLexer(input);
+		final JsonReader reader = new JsonReader(lexer);
+		if (recorder == null) {
+			tape.record(reader, lexer);
+			return tape.node(0);
+		}
+		try {
+			tape.record(reader, lexer);
+		}
+		catch (RuntimeException e) {
+			listener.failed(recorder.metrics(reader.position()), e);
+			throw e;
+		}
+		listener.parsed(recorder.metrics(reader.position()));
+		return tape.node(0);
+	}
+
+	JsonNode node(int index) {
+		switch (this.types[index]) {
+			case LEFT_BRACE:
+			case LEFT_BRACKET:
+			case STRING:
+			case INT:
+			case FLOAT:
+				return new JsonNode(this, index);
+			default:
+				return JsonNode.valueOf(this.value(index));
+		}
+	}
+
+	Object value(int index) {
+		switch (this.types[index]) {
+			case LEFT_BRACE:
+				return new JsonObject(this, index);
+			case LEFT_BRACKET:
+				return new JsonArray(this, index);
+			case STRING:
+				return this.string(index);
+			case INT:
+			case FLOAT:
+				return JsonNumber.valueOf(this.input.substring(this.starts[index], this.ends[index]));
+			case BOOLEAN:
+				return this.input.charAt(this.starts[index]) == 't';
+			default:
+				return null;
+		}
+	}
+
+	int count(int index) {
+		return this.counts[index];
+	}
+
+	int firstChild(int index) {
+		return index + 1;
+	}
+
+	int nextSibling(int index) {
+		return this.skips[index];
+	}
+
+	String string(int index) {
+		final int start = this.starts[index] + 1;
+		final int end = this.ends[index] - 1;
+		for (int i = start; i < end; i++) {
+			if (this.input.charAt(i) == '\\') {
+				return this.decode(start - 1, end + 1);
+			}
+		}
+		return this.input.substring(start, end);
+	}
+
+	private String decode(int start, int end) {
+		final JsonLexer lexer = new JsonLexer(this.input.substring(start, end));
+		lexer.advance();
+		return lexer.stringValue();
+	}
+
+	private void record(JsonReader reader, JsonLexer lexer) {
+		final TokenType type = reader.peek();
+		final int index = this.add(type, lexer);
+		switch (type) {
+			case LEFT_BRACE: {
+				int count = 0;
+				reader.beginObject();
+				if (this.recorder != null) {
+					this.recorder.startObject();
+				}
+				while (reader.hasNext()) {
+					this.add(TokenType.STRING, lexer);
+					reader.nextName();
+					if (this.recorder != null) {
+						this.recorder.key();
+					}
+					this.record(reader, lexer);
+					count++;
+				}
+				reader.endObject();
+				if (this.recorder != null) {
+					this.recorder.endObject();
+				}
+				this.close(index, count, lexer);
+				break;
+			}
+			case LEFT_BRACKET: {
+				int count = 0;
+				reader.beginArray();
+				if (this.recorder != null) {
+					this.recorder.startArray();
+				}
+				while (reader.hasNext()) {
+					this.record(reader, lexer);
+					count++;
+				}
+				reader.endArray();
+				if (this.recorder != null) {
+					this.recorder.endArray();
+				}
+				this.close(index, count, lexer);
+				break;
+			}
+			default:
+				reader.skipValue();
+				if (this.recorder != null) {
+					this.recorder.value(type);
+				}
+		}
+	}
+
+	private int add(TokenType type, JsonLexer lexer) {
+		if (this.size == this.types.length) {
+			final int capacity = this.size * 2;
+			this.types = Arrays.copyOf(this.types, capacity);
+			this.starts = Arrays.copyOf(this.starts, capacity);
+			this.ends = Arrays.copyOf(this.ends, capacity);
+			this.skips = Arrays.copyOf(this.skips, capacity);
+			this.counts = Arrays.copyOf(this.counts, capacity);
+		}
+		final int index = this.size++;
+		this.types[index] = type;
+		this.starts[index] = (int) lexer.tokenStart();
+		this.ends[index] = (int) lexer.tokenEnd();
+		this.skips[index] = this.size;
+		return index;
+	}
+
+	private void close(int index, int count, JsonLexer lexer) {
+		this.ends[index] = (int) lexer.tokenEnd();
+		this.skips[index] = this.size;
+		this.counts[index] = count;
+	}
+}
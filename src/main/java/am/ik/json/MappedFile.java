@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Supplier;
+
+final class MappedFile implements Supplier<ByteBuffer>, Closeable {
+	static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+	private final FileChannel channel;
+
+	private final long size;
+
+	private final int windowSize;
+
+	private long mapped;
+
+	private MappedFile(FileChannel channel, int windowSize) throws IOException {
+		this.channel = channel;
+		this.size = channel.size();
+		this.windowSize = windowSize;
+	}
+
+	static JsonLexer lexer(Path path) {
+		return lexer(path, DEFAULT_WINDOW_SIZE);
+	}
+
+	static JsonLexer lexer(Path path, int windowSize) {
+		final MappedFile file = open(path, windowSize);
+		try {
+			final ByteBuffer first = file.get();
+			final int bufferSize = (int) Math.max(1, Math.min(file.size, JsonLexer.DEFAULT_BUFFER_SIZE));
+			return new JsonLexer(new Utf8Reader(first == null ? ByteBuffer.allocate(0) : first, file, file), bufferSize);
+		}
+		catch (RuntimeException e) {
+			file.closeQuietly(e);
+			throw e;
+		}
+	}
+
+	static MappedFile open(Path path, int windowSize) {
+		try {
+			final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+			try {
+				return new MappedFile(channel, windowSize);
+			}
+			catch (IOException | RuntimeException e) {
+				channel.close();
+				throw e;
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	long size() {
+		return this.size;
+	}
+
+	int windowSize() {
+		return this.windowSize;
+	}
+
+	ByteBuffer map(long position, long length) {
+		try {
+			return this.channel.map(MapMode.READ_ONLY, position, length);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public ByteBuffer get() {
+		if (this.mapped >= this.size) {
+			return null;
+		}
+		final long length = Math.min(this.windowSize, this.size - this.mapped);
+		final ByteBuffer window = this.map(this.mapped, length);
+		this.mapped += length;
+		return window;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+	private void closeQuietly(Exception cause) {
+		try {
+			this.channel.close();
+		}
+		catch (IOException e) {
+			cause.addSuppressed(e);
+		}
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+final class NumberCodec {
+	private static final double[] DOUBLE_POW10 = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	private static final float[] FLOAT_POW10 = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f,
+			1e10f };
+
+	private static final long[] LONG_POW10 = { 1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L,
+			100000000L, 1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+			100000000000000L, 1000000000000000L, 10000000000000000L, 100000000000000000L };
+
+	private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+	private static final long MAX_EXACT_FLOAT = 1L << 24;
+
+	private static final int MAX_MANTISSA_DIGITS = 18;
+
+	private static final int MAX_FORMAT_DIGITS = 17;
+
+	private static final char[] DIGITS = "0123456789".toCharArray();
+
+	private NumberCodec() {
+	}
+
+	static double parseDouble(CharSequence text) {
+		return parse(text, false);
+	}
+
+	static float parseFloat(CharSequence text) {
+		return (float) parse(text, true);
+	}
+
+	static int format(double value, char[] buffer) {
+		final double abs = Math.abs(value);
+		if (abs >= 1e-3 && abs < 1e7) {
+			for (int scale = 1; scale <= MAX_FORMAT_DIGITS; scale++) {
+				final long mantissa = Math.round(abs * DOUBLE_POW10[scale]);
+				if (mantissa >= MAX_EXACT_DOUBLE) {
+					break;
+				}
+				if (mantissa / DOUBLE_POW10[scale] == abs) {
+					return write(value < 0, mantissa, scale, buffer);
+				}
+			}
+		}
+		return copy(Double.toString(value), buffer);
+	}
+
+	static int format(float value, char[] buffer) {
+		final float abs = Math.abs(value);
+		if (abs >= 1e-3f && abs < 1e7f) {
+			for (int scale = 1; scale < FLOAT_POW10.length; scale++) {
+				final long mantissa = (long) Math.rint((double) abs * DOUBLE_POW10[scale]);
+				if (mantissa >= MAX_EXACT_FLOAT) {
+					break;
+				}
+				if ((float) mantissa / FLOAT_POW10[scale] == abs) {
+					return write(value < 0, mantissa, scale, buffer);
+				}
+			}
+		}
+		return copy(Float.toString(value), buffer);
+	}
+
+	private static int write(boolean negative, long mantissa, int scale, char[] buffer) {
+		int position = 0;
+		if (negative) {
+			buffer[position++] = '-';
+		}
+		long integer = mantissa / LONG_POW10[scale];
+		long fraction = mantissa % LONG_POW10[scale];
+		int integerDigits = 1;
+		while (integerDigits < LONG_POW10.length && integer >= LONG_POW10[integerDigits]) {
+			integerDigits++;
+		}
+		for (int i = position + integerDigits - 1; i >= position; i--) {
+			buffer[i] = DIGITS[(int) (integer % 10)];
+			integer /= 10;
+		}
+		position += integerDigits;
+		buffer[position++] = '.';
+		int fractionDigits = scale;
+		while (fractionDigits > 1 && fraction % 10 == 0) {
+			fraction /= 10;
+			fractionDigits--;
+		}
+		for (int i = position + fractionDigits - 1; i >= position; i--) {
+			buffer[i] = DIGITS[(int) (fraction % 10)];
+			fraction /= 10;
+		}
+		return position + fractionDigits;
+	}
+
+	private static int copy(String text, char[] buffer) {
+		text.getChars(0, text.length(), buffer, 0);
+		return text.length();
+	}
+
+	private static double parse(CharSequence text, boolean single) {
+		final int length = text.length();
+		int i = 0;
+		final boolean negative = length > 0 && text.charAt(0) == '-';
+		if (negative) {
+			i++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean fraction = false;
+		final int start = i;
+		for (; i < length; i++) {
+			final char c = text.charAt(i);
+			if (c == '.' && !fraction) {
+				fraction = true;
+				continue;
+			}
+			if (c < '0' || c > '9') {
+				break;
+			}
+			if (mantissa != 0 || c != '0') {
+				digits++;
+			}
+			if (digits > MAX_MANTISSA_DIGITS) {
+				return fallback(text, single);
+			}
+			mantissa = mantissa * 10 + (c - '0');
+			if (fraction) {
+				exponent--;
+			}
+		}
+		if (i == start || i == start + 1 && fraction) {
+			return fallback(text, single);
+		}
+		if (i < length) {
+			final char c = text.charAt(i++);
+			if (c != 'e' && c != 'E' || i == length) {
+				return fallback(text, single);
+			}
+			final boolean negativeExponent = text.charAt(i) == '-';
+			if (negativeExponent || text.charAt(i) == '+') {
+				i++;
+			}
+			int explicit = 0;
+			for (; i < length; i++) {
+				final char d = text.charAt(i);
+				if (d < '0' || d > '9' || explicit > 100000) {
+					return fallback(text, single);
+				}
+				explicit = explicit * 10 + (d - '0');
+			}
+			exponent += negativeExponent ? -explicit : explicit;
+		}
+		if (single) {
+			if (mantissa <= MAX_EXACT_FLOAT && exponent >= -10 && exponent <= 10) {
+				final float value = exponent < 0 ? (float) mantissa / FLOAT_POW10[-exponent]
+						: (float) mantissa * FLOAT_POW10[exponent];
+				return negative ? -value : value;
+			}
+			return fallback(text, true);
+		}
+		if (mantissa <= MAX_EXACT_DOUBLE) {
+			double value = Double.NaN;
+			if (exponent >= 0 && exponent <= 22) {
+				value = mantissa * DOUBLE_POW10[exponent];
+			}
+			else if (exponent < 0 && exponent >= -22) {
+				value = mantissa / DOUBLE_POW10[-exponent];
+			}
+			else if (exponent > 22 && exponent <= 22 + 15) {
+				final double scaled = mantissa * DOUBLE_POW10[exponent - 22];
+				if (scaled < MAX_EXACT_DOUBLE) {
+					value = scaled * DOUBLE_POW10[22];
+				}
+			}
+			if (value == value) {
+				return negative ? -value : value;
+			}
+		}
+		return fallback(text, false);
+	}
+
+	private static double fallback(CharSequence text, boolean single) {
+		return single ? Float.parseFloat(text.toString()) : Double.parseDouble(text.toString());
+	}
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+final class ParallelArrayParser {
+	static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+	private static final int ELEMENTS_PER_TASK = 64;
+
+	private final String input;
+
+	private final int chunkSize;
+
+	private final JsonParserOptions options;
+
+	private final JsonMetricsListener listener;
+
+	private ParallelArrayParser(String input, int chunkSize, JsonParserOptions options, JsonMetricsListener listener) {
+		this.input = input;
+		this.chunkSize = chunkSize;
+		this.options = options;
+		this.listener = listener;
+	}
+
+	static JsonNode parse(String json) {
+		return parse(json, DEFAULT_CHUNK_SIZE);
+	}
+
+	static JsonNode parse(String json, JsonParserOptions options) {
+		return parse(json, DEFAULT_CHUNK_SIZE, options);
+	}
+
+	static JsonNode parse(String json, int chunkSize) {
+		return parse(json, chunkSize, JsonParserOptions.defaults());
+	}
+
+	static JsonNode parse(String json, int chunkSize, JsonParserOptions options) {
+		final ParallelArrayParser parser = new ParallelArrayParser(json, chunkSize, options,
+				Json.metricsListener());
+		final JsonNode node = parser.parseSpeculatively();
+		return node != null ? node : parser.parseSequentially();
+	}
+
+	private JsonNode parseSequentially() {
+		return new JsonParser(new JsonReader(StringSliceReader.lexer(this.input, 0, this.input.length()), this.options),
+				this.listener)
+			.parse();
+	}
+
+	private JsonNode parseSpeculatively() {
+		final long started = System.nanoTime();
+		final String input = this.input;
+		final int length = input.length();
+		int open = 0;
+		while (open < length && JsonLexer.isWhitespace(input.charAt(open))) {
+			open++;
+		}
+		if (open == length || input.charAt(open) != '[' || length <= this.chunkSize
+				|| length > this.options.maxInputLength() || this.options.maxDepth() < 2) {
+			return null;
+		}
+		final int[] boundaries = this.findBoundaries();
+		if (boundaries == null) {
+			return null;
+		}
+		final int count = boundaries.length - 1;
+		if (count == 1 && isBlank(input, boundaries[0] + 1, boundaries[1])) {
+			this.report(new JsonMetrics[0], started);
+			return new JsonNode(new JsonArray());
+		}
+		final JsonNode[] values = new JsonNode[count];
+		final JsonMetrics[] metrics = this.listener == JsonMetricsListener.NOOP ? null : new JsonMetrics[count];
+		final JsonParserOptions elementOptions = this.options.withMaxDepth(this.options.maxDepth() - 1);
+		final AtomicBoolean failed = new AtomicBoolean();
+		IntStream.range(0, (count + ELEMENTS_PER_TASK - 1) / ELEMENTS_PER_TASK).parallel().forEach(task -> {
+			final int to = Math.min(count, (task + 1) * ELEMENTS_PER_TASK);
+			for (int i = task * ELEMENTS_PER_TASK; i < to && !failed.get(); i++) {
+				final int start = boundaries[i] + 1;
+				try {
+					final JsonReader reader = new JsonReader(StringSliceReader.lexer(input, start, boundaries[i + 1]),
+							elementOptions);
+					values[i] = new JsonParser(reader, metrics == null ? JsonMetricsListener.NOOP : collect(metrics, i))
+						.parse();
+					reader.peek();
+				}
+				catch (JsonParseException | JsonLexerException | NumberFormatException e) {
+					failed.set(true);
+				}
+			}
+		});
+		if (failed.get()) {
+			return null;
+		}
+		this.report(metrics, started);
+		return new JsonNode(new JsonArray(values));
+	}
+
+	private void report(JsonMetrics[] elements, long started) {
+		if (elements == null || this.listener == JsonMetricsListener.NOOP) {
+			return;
+		}
+		final TokenType[] types = TokenType.values();
+		final long[] tokens = new long[types.length];
+		int maxDepth = 0;
+		long objects = 0;
+		long arrays = 1;
+		for (JsonMetrics element : elements) {
+			for (TokenType type : types) {
+				tokens[type.ordinal()] += element.tokens(type);
+			}
+			maxDepth = Math.max(maxDepth, element.maxDepth());
+			objects += element.objects();
+			arrays += element.arrays();
+		}
+		tokens[TokenType.LEFT_BRACKET.ordinal()]++;
+		tokens[TokenType.RIGHT_BRACKET.ordinal()]++;
+		tokens[TokenType.COMMA.ordinal()] += Math.max(0, elements.length - 1);
+		this.listener.parsed(new JsonMetrics(this.input.length(), tokens, maxDepth + 1, objects, arrays,
+				System.nanoTime() - started));
+	}
+
+	private static JsonMetricsListener collect(JsonMetrics[] metrics, int index) {
+		return new JsonMetricsListener() {
+			@Override
+			public void parsed(JsonMetrics element) {
+				metrics[index] = element;
+			}
+		};
+	}
+
+	private int[] findBoundaries() {
+		final int length = this.input.length();
+		final int chunks = (length + this.chunkSize - 1) / this.chunkSize;
+		final Scan[][] scans = IntStream.range(0, chunks).parallel().mapToObj(i -> {
+			final int from = i * this.chunkSize;
+			final int to = Math.min(length, from + this.chunkSize);
+			return new Scan[] { Scan.of(this.input, from, to, false), Scan.of(this.input, from, to, true) };
+		}).toArray(Scan[][]::new);
+		final IntList boundaries = new IntList();
+		boolean inString = false;
+		int depth = 0;
+		for (Scan[] candidates : scans) {
+			final Scan scan = candidates[inString ? 1 : 0];
+			int close = -1;
+			if (depth == 0) {
+				if (scan.firstOpen >= 0) {
+					boundaries.add(scan.firstOpen);
+					close = scan.firstClose;
+				}
+			}
+			else if (scan.lows.size >= depth) {
+				close = scan.lows.values[depth - 1];
+			}
+			for (int i = 0; i < scan.commas.size; i++) {
+				final int comma = scan.commas.values[i];
+				if (close >= 0 && comma > close) {
+					break;
+				}
+				if (depth + scan.commaDepths.values[i] == 1) {
+					boundaries.add(comma);
+				}
+			}
+			if (close >= 0) {
+				boundaries.add(close);
+				return boundaries.toArray();
+			}
+			if (depth == 0 && scan.firstOpen < 0 || scan.endEscaped) {
+				return null;
+			}
+			inString = scan.endInString;
+			depth += scan.depth;
+		}
+		return null;
+	}
+
+	private static boolean isBlank(String input, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (!JsonLexer.isWhitespace(input.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static final class Scan {
+		final IntList commas = new IntList();
+
+		final IntList commaDepths = new IntList();
+
+		final IntList lows = new IntList();
+
+		int firstOpen = -1;
+
+		int firstClose = -1;
+
+		int depth;
+
+		boolean endInString;
+
+		boolean endEscaped;
+
+		static Scan of(String input, int from, int to, boolean inString) {
+			final Scan scan = new Scan();
+			boolean escaped = false;
+			int depth = 0;
+			int min = 0;
+			for (int i = from; i < to; i++) {
+				final char c = input.charAt(i);
+				if (inString) {
+					if (escaped) {
+						escaped = false;
+					}
+					else if (c == '\\') {
+						escaped = true;
+					}
+					else if (c == '"') {
+						inString = false;
+					}
+					continue;
+				}
+				switch (c) {
+					case '"':
+						inString = true;
+						break;
+					case '[':
+					case '{':
+						if (scan.firstOpen < 0) {
+							scan.firstOpen = i;
+						}
+						depth++;
+						break;
+					case ']':
+					case '}':
+						depth--;
+						if (depth == 0 && scan.firstOpen >= 0 && scan.firstClose < 0) {
+							scan.firstClose = i;
+						}
+						if (depth < min) {
+							min = depth;
+							scan.lows.add(i);
+						}
+						break;
+					case ',':
+						scan.commas.add(i);
+						scan.commaDepths.add(depth);
+						break;
+					default:
+				}
+			}
+			scan.depth = depth;
+			scan.endInString = inString;
+			scan.endEscaped = escaped;
+			return scan;
+		}
+	}
+
+	private static final class IntList {
+		int[] values = new int[16];
+
+		int size;
+
+		void add(int value) {
+			if (this.size == this.values.length) {
+				this.values = Arrays.copyOf(this.values, this.size * 2);
+			}
+			this.values[this.size++] = value;
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(this.values, this.size);
+		}
+	}
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class PersistentJsonArray extends JsonArray {
+	private static final int BITS = 5;
+
+	private static final int WIDTH = 1 << BITS;
+
+	private static final int MASK = WIDTH - 1;
+
+	private static final Object[] EMPTY_NODE = new Object[WIDTH];
+
+	private static final PersistentJsonArray EMPTY = new PersistentJsonArray(0, BITS, EMPTY_NODE, new Object[0]);
+
+	private final int count;
+
+	private final int shift;
+
+	private final Object[] root;
+
+	private final Object[] tail;
+
+	private PersistentJsonArray(int count, int shift, Object[] root, Object[] tail) {
+		this.count = count;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+	}
+
+	public static PersistentJsonArray empty() {
+		return EMPTY;
+	}
+
+	public static PersistentJsonArray of(JsonArray source) {
+		if (source instanceof PersistentJsonArray) {
+			return (PersistentJsonArray) source;
+		}
+		PersistentJsonArray result = EMPTY;
+		final int size = source.size();
+		for (int i = 0; i < size; i++) {
+			result = result.withAdded(PersistentJsonObject.persistent(source.get(i)));
+		}
+		return result;
+	}
+
+	public PersistentJsonArray withAdded(JsonNode value) {
+		final JsonNode node = value == null ? JsonNode.NULL : value;
+		if (this.count - this.tailOffset() < WIDTH) {
+			final Object[] tail = Arrays.copyOf(this.tail, this.tail.length + 1);
+			tail[this.tail.length] = node;
+			return new PersistentJsonArray(this.count + 1, this.shift, this.root, tail);
+		}
+		final Object[] root;
+		int shift = this.shift;
+		if ((this.count >>> BITS) > (1 << this.shift)) {
+			root = new Object[WIDTH];
+			root[0] = this.root;
+			root[1] = newPath(this.shift, this.tail);
+			shift += BITS;
+		}
+		else {
+			root = this.pushTail(this.shift, this.root, this.tail);
+		}
+		return new PersistentJsonArray(this.count + 1, shift, root, new Object[] { node });
+	}
+
+	public PersistentJsonArray withAdded(JsonObject value) {
+		return this.withAdded(new JsonNode(value));
+	}
+
+	public PersistentJsonArray withAdded(JsonArray value) {
+		return this.withAdded(new JsonNode(value));
+	}
+
+	public PersistentJsonArray withAdded(String value) {
+		return this.withAdded(new JsonNode(value));
+	}
+
+	public PersistentJsonArray withAdded(Number value) {
+		return this.withAdded(JsonNode.valueOf(value));
+	}
+
+	public PersistentJsonArray withAdded(boolean value) {
+		return this.withAdded(JsonNode.valueOf(value));
+	}
+
+	public PersistentJsonArray with(int index, JsonNode value) {
+		if (index == this.count) {
+			return this.withAdded(value);
+		}
+		this.checkIndex(index);
+		final JsonNode node = value == null ? JsonNode.NULL : value;
+		if (index >= this.tailOffset()) {
+			final Object[] tail = this.tail.clone();
+			tail[index & MASK] = node;
+			return new PersistentJsonArray(this.count, this.shift, this.root, tail);
+		}
+		return new PersistentJsonArray(this.count, this.shift, assoc(this.shift, this.root, index, node), this.tail);
+	}
+
+	public PersistentJsonArray withInserted(int index, JsonNode value) {
+		if (index == this.count) {
+			return this.withAdded(value);
+		}
+		this.checkIndex(index);
+		PersistentJsonArray result = EMPTY;
+		for (int i = 0; i < this.count; i++) {
+			if (i == index) {
+				result = result.withAdded(value);
+			}
+			result = result.withAdded(this.get(i));
+		}
+		return result;
+	}
+
+	public PersistentJsonArray without(int index) {
+		this.checkIndex(index);
+		if (index == this.count - 1) {
+			return this.withoutLast();
+		}
+		PersistentJsonArray result = EMPTY;
+		for (int i = 0; i < this.count; i++) {
+			if (i != index) {
+				result = result.withAdded(this.get(i));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public JsonArray add(JsonNode value) {
+		throw new UnsupportedOperationException("PersistentJsonArray is immutable. Use withAdded(value) instead");
+	}
+
+	@Override
+	public JsonArray add(int index, JsonNode value) {
+		throw new UnsupportedOperationException("PersistentJsonArray is immutable. Use withInserted(index, value) instead");
+	}
+
+	@Override
+	public JsonArray set(int index, JsonNode value) {
+		throw new UnsupportedOperationException("PersistentJsonArray is immutable. Use with(index, value) instead");
+	}
+
+	@Override
+	public JsonNode remove(int index) {
+		throw new UnsupportedOperationException("PersistentJsonArray is immutable. Use without(index) instead");
+	}
+
+	@Override
+	public JsonNode get(int index) {
+		this.checkIndex(index);
+		return (JsonNode) this.leafFor(index)[index & MASK];
+	}
+
+	@Override
+	public int size() {
+		return this.count;
+	}
+
+	@Override
+	public List<JsonNode> values() {
+		return new AbstractList<JsonNode>() {
+			@Override
+			public JsonNode get(int index) {
+				return PersistentJsonArray.this.get(index);
+			}
+
+			@Override
+			public int size() {
+				return PersistentJsonArray.this.count;
+			}
+		};
+	}
+
+	@Override
+	void assign(JsonNode[] source, int from, int to) {
+		throw new UnsupportedOperationException("PersistentJsonArray is immutable");
+	}
+
+	@Override
+	void recycle() {
+		throw new UnsupportedOperationException("PersistentJsonArray is immutable");
+	}
+
+	private PersistentJsonArray withoutLast() {
+		if (this.count == 1) {
+			return EMPTY;
+		}
+		if (this.count - this.tailOffset() > 1) {
+			return new PersistentJsonArray(this.count - 1, this.shift, this.root,
+					Arrays.copyOf(this.tail, this.tail.length - 1));
+		}
+		final Object[] tail = this.leafFor(this.count - 2);
+		Object[] root = this.popTail(this.shift, this.root);
+		int shift = this.shift;
+		if (root == null) {
+			root = EMPTY_NODE;
+		}
+		if (this.shift > BITS && root[1] == null) {
+			root = (Object[]) root[0];
+			shift -= BITS;
+		}
+		return new PersistentJsonArray(this.count - 1, shift, root, tail);
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= this.count) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.count);
+		}
+	}
+
+	private int tailOffset() {
+		return this.count < WIDTH ? 0 : ((this.count - 1) >>> BITS) << BITS;
+	}
+
+	private Object[] leafFor(int index) {
+		if (index >= this.tailOffset()) {
+			return this.tail;
+		}
+		Object[] node = this.root;
+		for (int level = this.shift; level > 0; level -= BITS) {
+			node = (Object[]) node[(index >>> level) & MASK];
+		}
+		return node;
+	}
+
+	private Object[] pushTail(int level, Object[] parent, Object[] tail) {
+		final int index = ((this.count - 1) >>> level) & MASK;
+		final Object[] node = parent.clone();
+		if (level == BITS) {
+			node[index] = tail;
+		}
+		else {
+			final Object[] child = (Object[]) parent[index];
+			node[index] = child == null ? newPath(level - BITS, tail) : this.pushTail(level - BITS, child, tail);
+		}
+		return node;
+	}
+
+	private Object[] popTail(int level, Object[] node) {
+		final int index = ((this.count - 2) >>> level) & MASK;
+		if (level > BITS) {
+			final Object[] child = this.popTail(level - BITS, (Object[]) node[index]);
+			if (child == null && index == 0) {
+				return null;
+			}
+			final Object[] copy = node.clone();
+			copy[index] = child;
+			return copy;
+		}
+		if (index == 0) {
+			return null;
+		}
+		final Object[] copy = node.clone();
+		copy[index] = null;
+		return copy;
+	}
+
+	private static Object[] newPath(int level, Object[] node) {
+		if (level == 0) {
+			return node;
+		}
+		final Object[] path = new Object[WIDTH];
+		path[0] = newPath(level - BITS, node);
+		return path;
+	}
+
+	private static Object[] assoc(int level, Object[] node, int index, JsonNode value) {
+		final Object[] copy = node.clone();
+		if (level == 0) {
+			copy[index & MASK] = value;
+		}
+		else {
+			final int child = (index >>> level) & MASK;
+			copy[child] = assoc(level - BITS, (Object[]) node[child], index, value);
+		}
+		return copy;
+	}
+}
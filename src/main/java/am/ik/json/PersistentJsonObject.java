@@ -0,0 +1,411 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+public final class PersistentJsonObject extends JsonObject {
+	private static final int BITS = 5;
+
+	private static final int MASK = (1 << BITS) - 1;
+
+	private static final int MAX_COLLISIONS = 8;
+
+	private static final Trie EMPTY_TRIE = new Trie(0, new Object[0]);
+
+	private static final PersistentJsonObject EMPTY = new PersistentJsonObject(EMPTY_TRIE, 0, 0, false);
+
+	private static final Comparator<Entry> INSERTION_ORDER = (a, b) -> Long.compare(a.sequence, b.sequence);
+
+	private final Trie root;
+
+	private final int count;
+
+	private final long sequence;
+
+	private final boolean seeded;
+
+	private volatile Entry[] ordered;
+
+	private PersistentJsonObject(Trie root, int count, long sequence, boolean seeded) {
+		this.root = root;
+		this.count = count;
+		this.sequence = sequence;
+		this.seeded = seeded;
+	}
+
+	public static PersistentJsonObject empty() {
+		return EMPTY;
+	}
+
+	public static PersistentJsonObject of(JsonObject source) {
+		if (source instanceof PersistentJsonObject) {
+			return (PersistentJsonObject) source;
+		}
+		PersistentJsonObject result = EMPTY;
+		final int size = source.materializedSize();
+		for (int i = 0; i < size; i++) {
+			result = result.with(source.keyAt(i), persistent(source.valueAt(i)));
+		}
+		return result;
+	}
+
+	public static JsonNode persistent(JsonNode node) {
+		final Object value = node == null ? null : node.value();
+		if (value instanceof PersistentJsonObject || value instanceof PersistentJsonArray) {
+			return node;
+		}
+		if (value instanceof JsonObject) {
+			return new JsonNode(of((JsonObject) value));
+		}
+		if (value instanceof JsonArray) {
+			return new JsonNode(PersistentJsonArray.of((JsonArray) value));
+		}
+		return node == null ? JsonNode.NULL : node;
+	}
+
+	public PersistentJsonObject with(String key, JsonNode value) {
+		if (key == null) {
+			throw new IllegalArgumentException("key must not be null");
+		}
+		final JsonNode node = value == null ? JsonNode.NULL : value;
+		final int hash = this.hash(key);
+		final Entry existing = this.entry(key, hash);
+		if (existing != null) {
+			if (existing.value == node) {
+				return this;
+			}
+			final Entry entry = new Entry(key, hash, node, existing.sequence);
+			return new PersistentJsonObject(put(this.root, entry, 0), this.count, this.sequence, this.seeded);
+		}
+		final Entry entry = new Entry(key, hash, node, this.sequence);
+		final Trie root = put(this.root, entry, 0);
+		if (!this.seeded && collisions(root, hash) > MAX_COLLISIONS) {
+			return new PersistentJsonObject(root, this.count + 1, this.sequence + 1, false).reseed();
+		}
+		return new PersistentJsonObject(root, this.count + 1, this.sequence + 1, this.seeded);
+	}
+
+	public PersistentJsonObject with(String key, JsonObject value) {
+		return this.with(key, new JsonNode(value));
+	}
+
+	public PersistentJsonObject with(String key, JsonArray value) {
+		return this.with(key, new JsonNode(value));
+	}
+
+	public PersistentJsonObject with(String key, String value) {
+		return this.with(key, new JsonNode(value));
+	}
+
+	public PersistentJsonObject with(String key, Number value) {
+		return this.with(key, JsonNode.valueOf(value));
+	}
+
+	public PersistentJsonObject with(String key, boolean value) {
+		return this.with(key, JsonNode.valueOf(value));
+	}
+
+	public PersistentJsonObject without(String key) {
+		final int hash = this.hash(key);
+		if (this.entry(key, hash) == null) {
+			return this;
+		}
+		if (this.count == 1) {
+			return EMPTY;
+		}
+		return new PersistentJsonObject((Trie) remove(this.root, key, hash, 0), this.count - 1, this.sequence,
+				this.seeded);
+	}
+
+	@Override
+	public JsonObject put(String key, JsonNode value) {
+		throw new UnsupportedOperationException("PersistentJsonObject is immutable. Use with(key, value) instead");
+	}
+
+	@Override
+	public JsonNode remove(String key) {
+		throw new UnsupportedOperationException("PersistentJsonObject is immutable. Use without(key) instead");
+	}
+
+	@Override
+	public boolean containsKey(String key) {
+		return key != null && this.entry(key, this.hash(key)) != null;
+	}
+
+	@Override
+	public int size() {
+		return this.count;
+	}
+
+	@Override
+	JsonNode find(String key) {
+		final Entry entry = key == null ? null : this.entry(key, this.hash(key));
+		return entry == null ? null : entry.value;
+	}
+
+	@Override
+	int materializedSize() {
+		return this.count;
+	}
+
+	@Override
+	String keyAt(int i) {
+		return this.ordered()[i].key;
+	}
+
+	@Override
+	JsonNode valueAt(int i) {
+		return this.ordered()[i].value;
+	}
+
+	@Override
+	void reserve(int capacity) {
+		throw new UnsupportedOperationException("PersistentJsonObject is immutable");
+	}
+
+	@Override
+	void recycle() {
+		throw new UnsupportedOperationException("PersistentJsonObject is immutable");
+	}
+
+	private Entry[] ordered() {
+		Entry[] ordered = this.ordered;
+		if (ordered == null) {
+			ordered = new Entry[this.count];
+			collect(this.root, ordered, 0);
+			Arrays.sort(ordered, INSERTION_ORDER);
+			this.ordered = ordered;
+		}
+		return ordered;
+	}
+
+	private Entry entry(String key, int hash) {
+		Object node = this.root;
+		int shift = 0;
+		while (true) {
+			if (node instanceof Trie) {
+				final Trie trie = (Trie) node;
+				final int bit = 1 << ((hash >>> shift) & MASK);
+				if ((trie.bitmap & bit) == 0) {
+					return null;
+				}
+				node = trie.slots[Integer.bitCount(trie.bitmap & (bit - 1))];
+				shift += BITS;
+			}
+			else if (node instanceof Entry) {
+				final Entry entry = (Entry) node;
+				return entry.hash == hash && entry.key.equals(key) ? entry : null;
+			}
+			else {
+				for (Entry entry : ((Collision) node).entries) {
+					if (entry.hash == hash && entry.key.equals(key)) {
+						return entry;
+					}
+				}
+				return null;
+			}
+		}
+	}
+
+	private static Trie put(Trie trie, Entry entry, int shift) {
+		final int bit = 1 << ((entry.hash >>> shift) & MASK);
+		final int index = Integer.bitCount(trie.bitmap & (bit - 1));
+		if ((trie.bitmap & bit) == 0) {
+			final Object[] slots = new Object[trie.slots.length + 1];
+			System.arraycopy(trie.slots, 0, slots, 0, index);
+			slots[index] = entry;
+			System.arraycopy(trie.slots, index, slots, index + 1, trie.slots.length - index);
+			return new Trie(trie.bitmap | bit, slots);
+		}
+		final Object slot = trie.slots[index];
+		final Object replacement;
+		if (slot instanceof Trie) {
+			replacement = put((Trie) slot, entry, shift + BITS);
+		}
+		else if (slot instanceof Entry) {
+			final Entry existing = (Entry) slot;
+			replacement = existing.key.equals(entry.key) ? entry : merge(existing, existing.hash, entry, shift + BITS);
+		}
+		else {
+			final Collision collision = (Collision) slot;
+			replacement = collision.hash() == entry.hash ? collision.put(entry)
+					: merge(collision, collision.hash(), entry, shift + BITS);
+		}
+		final Object[] slots = trie.slots.clone();
+		slots[index] = replacement;
+		return new Trie(trie.bitmap, slots);
+	}
+
+	private static Object merge(Object existing, int existingHash, Entry entry, int shift) {
+		if (existingHash == entry.hash) {
+			return new Collision(new Entry[] { (Entry) existing, entry });
+		}
+		final int existingIndex = (existingHash >>> shift) & MASK;
+		final int index = (entry.hash >>> shift) & MASK;
+		if (existingIndex == index) {
+			return new Trie(1 << index, new Object[] { merge(existing, existingHash, entry, shift + BITS) });
+		}
+		return new Trie((1 << existingIndex) | (1 << index),
+				existingIndex < index ? new Object[] { existing, entry } : new Object[] { entry, existing });
+	}
+
+	private static Object remove(Trie trie, String key, int hash, int shift) {
+		final int bit = 1 << ((hash >>> shift) & MASK);
+		final int index = Integer.bitCount(trie.bitmap & (bit - 1));
+		final Object slot = trie.slots[index];
+		final Object replacement;
+		if (slot instanceof Trie) {
+			replacement = remove((Trie) slot, key, hash, shift + BITS);
+		}
+		else if (slot instanceof Collision) {
+			replacement = ((Collision) slot).remove(key);
+		}
+		else {
+			replacement = null;
+		}
+		if (replacement == null) {
+			if (shift > 0 && trie.slots.length == 2 && !(trie.slots[1 - index] instanceof Trie)) {
+				return trie.slots[1 - index];
+			}
+			final Object[] slots = new Object[trie.slots.length - 1];
+			System.arraycopy(trie.slots, 0, slots, 0, index);
+			System.arraycopy(trie.slots, index + 1, slots, index, slots.length - index);
+			return new Trie(trie.bitmap & ~bit, slots);
+		}
+		if (shift > 0 && trie.slots.length == 1 && !(replacement instanceof Trie)) {
+			return replacement;
+		}
+		final Object[] slots = trie.slots.clone();
+		slots[index] = replacement;
+		return new Trie(trie.bitmap, slots);
+	}
+
+	private static int collect(Object node, Entry[] entries, int position) {
+		if (node instanceof Entry) {
+			entries[position] = (Entry) node;
+			return position + 1;
+		}
+		if (node instanceof Collision) {
+			final Entry[] collided = ((Collision) node).entries;
+			System.arraycopy(collided, 0, entries, position, collided.length);
+			return position + collided.length;
+		}
+		for (Object slot : ((Trie) node).slots) {
+			position = collect(slot, entries, position);
+		}
+		return position;
+	}
+
+	private PersistentJsonObject reseed() {
+		Trie root = EMPTY_TRIE;
+		for (Entry entry : this.ordered()) {
+			root = put(root, new Entry(entry.key, SeededHash.hash(entry.key), entry.value, entry.sequence), 0);
+		}
+		return new PersistentJsonObject(root, this.count, this.sequence, true);
+	}
+
+	private static int collisions(Trie root, int hash) {
+		Object node = root;
+		int shift = 0;
+		while (node instanceof Trie) {
+			final Trie trie = (Trie) node;
+			final int bit = 1 << ((hash >>> shift) & MASK);
+			if ((trie.bitmap & bit) == 0) {
+				return 0;
+			}
+			node = trie.slots[Integer.bitCount(trie.bitmap & (bit - 1))];
+			shift += BITS;
+		}
+		return node instanceof Collision ? ((Collision) node).entries.length : 1;
+	}
+
+	private int hash(String key) {
+		if (this.seeded) {
+			return SeededHash.hash(key);
+		}
+		final int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	private static final class Entry {
+		private final String key;
+
+		private final int hash;
+
+		private final JsonNode value;
+
+		private final long sequence;
+
+		Entry(String key, int hash, JsonNode value, long sequence) {
+			this.key = key;
+			this.hash = hash;
+			this.value = value;
+			this.sequence = sequence;
+		}
+	}
+
+	private static final class Trie {
+		private final int bitmap;
+
+		private final Object[] slots;
+
+		Trie(int bitmap, Object[] slots) {
+			this.bitmap = bitmap;
+			this.slots = slots;
+		}
+	}
+
+	private static final class Collision {
+		private final Entry[] entries;
+
+		Collision(Entry[] entries) {
+			this.entries = entries;
+		}
+
+		int hash() {
+			return this.entries[0].hash;
+		}
+
+		Collision put(Entry entry) {
+			for (int i = 0; i < this.entries.length; i++) {
+				if (this.entries[i].key.equals(entry.key)) {
+					final Entry[] entries = this.entries.clone();
+					entries[i] = entry;
+					return new Collision(entries);
+				}
+			}
+			final Entry[] entries = Arrays.copyOf(this.entries, this.entries.length + 1);
+			entries[this.entries.length] = entry;
+			return new Collision(entries);
+		}
+
+		Object remove(String key) {
+			int found = 0;
+			while (!this.entries[found].key.equals(key)) {
+				found++;
+			}
+			if (this.entries.length == 2) {
+				return this.entries[1 - found];
+			}
+			final Entry[] entries = new Entry[this.entries.length - 1];
+			System.arraycopy(this.entries, 0, entries, 0, found);
+			System.arraycopy(this.entries, found + 1, entries, found, entries.length - found);
+			return new Collision(entries);
+		}
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.io.Reader;
+
+final class StringSliceReader extends Reader {
+	private final String input;
+
+	private int position;
+
+	private final int end;
+
+	StringSliceReader(String input, int start, int end) {
+		this.input = input;
+		this.position = start;
+		this.end = end;
+	}
+
+	static JsonLexer lexer(String input, int start, int end) {
+		return new JsonLexer(new StringSliceReader(input, start, end),
+				Math.max(1, Math.min(end - start, JsonLexer.DEFAULT_BUFFER_SIZE)));
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) {
+		if (len == 0) {
+			return 0;
+		}
+		if (this.position >= this.end) {
+			return -1;
+		}
+		final int n = Math.min(len, this.end - this.position);
+		this.input.getChars(this.position, this.position + n, cbuf, off);
+		this.position += n;
+		return n;
+	}
+
+	@Override
+	public void close() {
+		this.position = this.end;
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
+class Utf8Reader extends Reader {
+	private static final int CHUNK_SIZE = 1024;
+
+	private ByteBuffer source;
+
+	private final Supplier<ByteBuffer> windows;
+
+	private final Closeable resource;
+
+	private final byte[] bytes;
+
+	private int position;
+
+	private int limit;
+
+	private long consumed;
+
+	private char pendingLowSurrogate;
+
+	Utf8Reader(ByteBuffer source) {
+		this(source, null, null);
+	}
+
+	Utf8Reader(ByteBuffer source, Supplier<ByteBuffer> windows, Closeable resource) {
+		this.windows = windows;
+		this.resource = resource;
+		if (source.hasArray() && windows == null) {
+			this.source = null;
+			this.bytes = source.array();
+			this.position = source.arrayOffset() + source.position();
+			this.limit = source.arrayOffset() + source.limit();
+		}
+		else {
+			this.source = source.duplicate();
+			this.bytes = new byte[CHUNK_SIZE];
+			this.position = 0;
+			this.limit = 0;
+		}
+		this.consumed = -this.position;
+		this.skipByteOrderMark();
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) {
+		if (len == 0) {
+			return 0;
+		}
+		int n = off;
+		final int end = off + len;
+		if (this.pendingLowSurrogate != 0) {
+			cbuf[n++] = this.pendingLowSurrogate;
+			this.pendingLowSurrogate = 0;
+		}
+		final byte[] bytes = this.bytes;
+		while (n < end) {
+			if (this.position >= this.limit && !this.fill()) {
+				break;
+			}
+			final int b = bytes[this.position];
+			if (b >= 0) {
+				cbuf[n++] = (char) b;
+				this.position++;
+				continue;
+			}
+			if (this.limit - this.position < 4 && !this.ensure(sequenceLength(b))) {
+				throw this.invalid();
+			}
+			final int lead = b & 0xFF;
+			if (lead < 0xC2) {
+				throw this.invalid();
+			}
+			else if (lead < 0xE0) {
+				final int b1 = this.continuation(1, 0x80, 0xBF);
+				cbuf[n++] = (char) (((lead & 0x1F) << 6) | b1);
+				this.position += 2;
+			}
+			else if (lead < 0xF0) {
+				final int b1 = this.continuation(1, lead == 0xE0 ? 0xA0 : 0x80, lead == 0xED ? 0x9F : 0xBF);
+				final int b2 = this.continuation(2, 0x80, 0xBF);
+				cbuf[n++] = (char) (((lead & 0x0F) << 12) | (b1 << 6) | b2);
+				this.position += 3;
+			}
+			else if (lead < 0xF5) {
+				final int b1 = this.continuation(1, lead == 0xF0 ? 0x90 : 0x80, lead == 0xF4 ? 0x8F : 0xBF);
+				final int b2 = this.continuation(2, 0x80, 0xBF);
+				final int b3 = this.continuation(3, 0x80, 0xBF);
+				final int codePoint = ((lead & 0x07) << 18) | (b1 << 12) | (b2 << 6) | b3;
+				cbuf[n++] = Character.highSurrogate(codePoint);
+				if (n < end) {
+					cbuf[n++] = Character.lowSurrogate(codePoint);
+				}
+				else {
+					this.pendingLowSurrogate = Character.lowSurrogate(codePoint);
+				}
+				this.position += 4;
+			}
+			else {
+				throw this.invalid();
+			}
+		}
+		return n == off ? -1 : n - off;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.position = this.limit;
+		if (this.resource != null) {
+			this.resource.close();
+		}
+	}
+
+	private int continuation(int index, int min, int max) {
+		final int b = this.bytes[this.position + index] & 0xFF;
+		if (b < min || b > max) {
+			throw this.invalid();
+		}
+		return b & 0x3F;
+	}
+
+	private static int sequenceLength(int lead) {
+		final int b = lead & 0xFF;
+		if (b >= 0xF0) {
+			return 4;
+		}
+		return b >= 0xE0 ? 3 : 2;
+	}
+
+	private boolean ensure(int length) {
+		if (this.limit - this.position >= length) {
+			return true;
+		}
+		while (this.limit - this.position < length) {
+			if (!this.fill()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean fill() {
+		if (this.source == null) {
+			return false;
+		}
+		while (!this.source.hasRemaining()) {
+			final ByteBuffer next = this.windows == null ? null : this.windows.get();
+			if (next == null) {
+				return false;
+			}
+			this.source = next;
+		}
+		final int remaining = this.limit - this.position;
+		System.arraycopy(this.bytes, this.position, this.bytes, 0, remaining);
+		this.consumed += this.position;
+		final int length = Math.min(this.bytes.length - remaining, this.source.remaining());
+		this.source.get(this.bytes, remaining, length);
+		this.position = 0;
+		this.limit = remaining + length;
+		return true;
+	}
+
+	private void skipByteOrderMark() {
+		if (this.ensure(3) && (this.bytes[this.position] & 0xFF) == 0xEF
+				&& (this.bytes[this.position + 1] & 0xFF) == 0xBB
+				&& (this.bytes[this.position + 2] & 0xFF) == 0xBF) {
+			this.position += 3;
+		}
+	}
+
+	private JsonLexerException invalid() {
+		return new JsonLexerException("Invalid UTF-8 byte sequence at offset " + (this.consumed + this.position));
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+
+class Utf8Writer extends Writer {
+	private static final int CHUNK_SIZE = 1024;
+
+	private final OutputStream out;
+
+	private final ByteBuffer target;
+
+	private final byte[] buffer = new byte[CHUNK_SIZE];
+
+	private int position;
+
+	private char highSurrogate;
+
+	Utf8Writer(OutputStream out) {
+		this.out = out;
+		this.target = null;
+	}
+
+	Utf8Writer(ByteBuffer target) {
+		this.out = null;
+		this.target = target;
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+		this.encode((char) c);
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		for (int i = off; i < off + len; i++) {
+			this.encode(cbuf[i]);
+		}
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException {
+		for (int i = off; i < off + len; i++) {
+			this.encode(str.charAt(i));
+		}
+	}
+
+	@Override
+	public Writer append(CharSequence csq, int start, int end) throws IOException {
+		final CharSequence chars = csq == null ? "null" : csq;
+		for (int i = start; i < end; i++) {
+			this.encode(chars.charAt(i));
+		}
+		return this;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		this.drain();
+		if (this.out != null) {
+			this.out.flush();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.highSurrogate != 0) {
+			this.highSurrogate = 0;
+			this.put('?');
+		}
+		this.flush();
+		if (this.out != null) {
+			this.out.close();
+		}
+	}
+
+	private void encode(char c) throws IOException {
+		if (this.buffer.length - this.position < 4) {
+			this.drain();
+		}
+		if (this.highSurrogate != 0) {
+			final char high = this.highSurrogate;
+			this.highSurrogate = 0;
+			if (Character.isLowSurrogate(c)) {
+				final int codePoint = Character.toCodePoint(high, c);
+				this.put(0xF0 | (codePoint >> 18));
+				this.put(0x80 | ((codePoint >> 12) & 0x3F));
+				this.put(0x80 | ((codePoint >> 6) & 0x3F));
+				this.put(0x80 | (codePoint & 0x3F));
+				return;
+			}
+			this.put('?');
+			this.encode(c);
+			return;
+		}
+		if (c < 0x80) {
+			this.put(c);
+		}
+		else if (c < 0x800) {
+			this.put(0xC0 | (c >> 6));
+			this.put(0x80 | (c & 0x3F));
+		}
+		else if (Character.isHighSurrogate(c)) {
+			this.highSurrogate = c;
+		}
+		else if (Character.isLowSurrogate(c)) {
+			this.put('?');
+		}
+		else {
+			this.put(0xE0 | (c >> 12));
+			this.put(0x80 | ((c >> 6) & 0x3F));
+			this.put(0x80 | (c & 0x3F));
+		}
+	}
+
+	private void put(int b) {
+		this.buffer[this.position++] = (byte) b;
+	}
+
+	private void drain() throws IOException {
+		if (this.out != null) {
+			this.out.write(this.buffer, 0, this.position);
+		}
+		else {
+			this.target.put(this.buffer, 0, this.position);
+		}
+		this.position = 0;
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+final class JsonEvents implements JsonMetricsListener {
+	static final JsonMetricsListener LISTENER = new JsonEvents();
+
+	private JsonEvents() {
+	}
+
+	@Override
+	public void parsed(JsonMetrics metrics) {
+		final ParseEvent event = new ParseEvent();
+		if (event.shouldCommit()) {
+			event.fill(metrics);
+			event.commit();
+		}
+	}
+
+	@Override
+	public void serialized(JsonMetrics metrics) {
+		final SerializeEvent event = new SerializeEvent();
+		if (event.shouldCommit()) {
+			event.fill(metrics);
+			event.commit();
+		}
+	}
+
+	@Override
+	public void failed(JsonMetrics metrics, RuntimeException error) {
+		final ErrorEvent event = new ErrorEvent();
+		if (event.shouldCommit()) {
+			event.fill(metrics);
+			event.message = error.getMessage();
+			event.commit();
+		}
+	}
+
+	@Category("JSON")
+	@StackTrace(false)
+	abstract static class MetricsEvent extends Event {
+		@Label("Length")
+		long length;
+
+		@Label("Tokens")
+		long tokens;
+
+		@Label("Max Depth")
+		int maxDepth;
+
+		@Label("Objects")
+		long objects;
+
+		@Label("Arrays")
+		long arrays;
+
+		@Label("Elapsed")
+		@Timespan(Timespan.NANOSECONDS)
+		long elapsed;
+
+		void fill(JsonMetrics metrics) {
+			this.length = metrics.length();
+			this.tokens = metrics.tokens();
+			this.maxDepth = metrics.maxDepth();
+			this.objects = metrics.objects();
+			this.arrays = metrics.arrays();
+			this.elapsed = metrics.elapsedNanos();
+		}
+	}
+
+	@Name("am.ik.json.Parse")
+	@Label("JSON Parse")
+	static final class ParseEvent extends MetricsEvent {
+	}
+
+	@Name("am.ik.json.Serialize")
+	@Label("JSON Serialize")
+	static final class SerializeEvent extends MetricsEvent {
+	}
+
+	@Name("am.ik.json.Error")
+	@Label("JSON Error")
+	@StackTrace(true)
+	static final class ErrorEvent extends MetricsEvent {
+		@Label("Message")
+		String message;
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonBinaryTest {
+
+	@Test
+	void roundTrip() {
+		final String json = "{\"id\": 100, \"name\": \"tést 😀\", \"active\": true, \"none\": null, \"ratio\": 10.5, \"tags\": [\"a\", \"b\"], \"nested\": {\"big\": 12345678901234567890, \"long\": -9876543210, \"precise\": 1.50}}";
+		final JsonNode node = Json.parse(json);
+		final byte[] cbor = JsonBinary.encode(node);
+		assertThat(Json.stringify(JsonBinary.decode(cbor))).isEqualTo(Json.stringify(node));
+	}
+
+	@Test
+	void encodeScalars() {
+		assertThat(JsonBinary.encode(JsonNode.valueOf(10))).containsExactly(0x0a);
+		assertThat(JsonBinary.encode(JsonNode.valueOf(-500))).containsExactly(0x39, 0x01, 0xf3);
+		assertThat(JsonBinary.encode(JsonNode.valueOf(true))).containsExactly(0xf5);
+		assertThat(JsonBinary.encode(new JsonNode(null))).containsExactly(0xf6);
+		assertThat(JsonBinary.encode(new JsonNode("IETF"))).containsExactly(0x64, 0x49, 0x45, 0x54, 0x46);
+		assertThat(JsonBinary.encode(new JsonNode(1.5))).containsExactly(0xfb, 0x3f, 0xf8, 0, 0, 0, 0, 0, 0);
+	}
+
+	@Test
+	void encodeContainers() {
+		assertThat(JsonBinary.encode(Json.parse("{\"a\": [1, 2]}"))).containsExactly(0xa1, 0x61, 0x61, 0x82, 0x01,
+				0x02);
+	}
+
+	@Test
+	void decodeBignumAndDecimalFraction() {
+		final byte[] bignum = { (byte) 0xc2, 0x49, 0x01, 0, 0, 0, 0, 0, 0, 0, 0 };
+		assertThat(JsonBinary.decode(bignum).asNumber().toString()).isEqualTo("18446744073709551616");
+		final byte[] decimal = { (byte) 0xc4, (byte) 0x82, 0x21, 0x19, 0x6a, (byte) 0xb3 };
+		assertThat(JsonBinary.decode(decimal).asNumber().toString()).isEqualTo("273.15");
+	}
+
+	@Test
+	void decodeHalfFloat() {
+		final byte[] half = { (byte) 0xf9, 0x3e, 0x00 };
+		assertThat(JsonBinary.decode(half).asNumber().doubleValue()).isEqualTo(1.5);
+	}
+
+	@Test
+	void decodeByteBuffer() {
+		final JsonNode node = Json.parse("[\"x\", {\"y\": false}]");
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+		JsonBinary.encode(node, buffer);
+		JsonBinary.encode(JsonNode.valueOf(1), buffer);
+		buffer.flip();
+		assertThat(Json.stringify(JsonBinary.decode(buffer))).isEqualTo("[\"x\", {\"y\":false}]");
+		assertThat(JsonBinary.decode(buffer).asNumber().intValue()).isEqualTo(1);
+		assertThat(buffer.hasRemaining()).isFalse();
+	}
+
+	@Test
+	void decodeInvalid() {
+		assertThatThrownBy(() -> JsonBinary.decode(new byte[] { (byte) 0x82, 0x01 }))
+			.isInstanceOf(JsonParseException.class);
+		assertThatThrownBy(() -> JsonBinary.decode(new byte[] { 0x01, 0x02 })).isInstanceOf(JsonParseException.class);
+		assertThatThrownBy(() -> JsonBinary.decode(new byte[] { (byte) 0xa1, 0x01, 0x01 }))
+			.isInstanceOf(JsonParseException.class);
+	}
+
+	@Test
+	void rejectHostileInput() {
+		assertThatThrownBy(() -> JsonBinary.decode(new byte[] { (byte) 0x9a, 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff }))
+			.isInstanceOf(JsonParseException.class)
+			.hasMessage("Length 2147483647 exceeds the remaining input at offset 1");
+		assertThatThrownBy(() -> JsonBinary.decode(new byte[] { (byte) 0xba, 0x00, 0x00, 0x00, 0x03, 0x61, 0x61 }))
+			.isInstanceOf(JsonParseException.class);
+		assertThatThrownBy(() -> JsonBinary.decode(new byte[] { (byte) 0xc2, 0x5a, 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff }))
+			.isInstanceOf(JsonParseException.class);
+		assertThatThrownBy(() -> JsonBinary.decode(new byte[] { (byte) 0xc4, (byte) 0x82, 0x1b, (byte) 0xff, (byte) 0xff,
+				(byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x01 }))
+			.isInstanceOf(JsonParseException.class)
+			.hasMessage("Decimal exponent out of range: 18446744073709551615");
+		final byte[] nested = new byte[200_001];
+		Arrays.fill(nested, (byte) 0x81);
+		assertThatThrownBy(() -> JsonBinary.decode(nested)).isInstanceOf(JsonParseException.class)
+			.hasMessage("Nesting depth exceeds the maximum of 1000");
+		final byte[] shallow = JsonBinary.encode(Json.parse("[[[1]], {\"ab\": \"cdef\"}]"));
+		assertThat(JsonBinary.decode(shallow, JsonParserOptions.defaults().withMaxDepth(3))).isNotNull();
+		assertThatThrownBy(() -> JsonBinary.decode(shallow, JsonParserOptions.defaults().withMaxDepth(2)))
+			.isInstanceOf(JsonParseException.class);
+		assertThatThrownBy(() -> JsonBinary.decode(shallow, JsonParserOptions.defaults().withMaxStringLength(3)))
+			.isInstanceOf(JsonParseException.class)
+			.hasMessage("String length exceeds the maximum of 3");
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonDocumentCacheTest {
+
+	@Test
+	void returnsFrozenDocumentForRepeatedPayload() {
+		final JsonDocumentCache cache = new JsonDocumentCache(1 << 20);
+		final String json = "{\"flags\": {\"dark\": true, \"beta\": [\"a\", \"b\"]}}";
+		final JsonNode first = cache.parse(json);
+		final JsonNode second = cache.parse(new String(json.toCharArray()));
+		assertThat(second).isSameAs(first);
+		assertThat(cache.hits()).isEqualTo(1);
+		assertThat(cache.misses()).isEqualTo(1);
+		assertThat(first.asObject()).isInstanceOf(PersistentJsonObject.class);
+		assertThat(first.asObject().get("flags").asObject().get("beta").asArray())
+			.isInstanceOf(PersistentJsonArray.class);
+		assertThatThrownBy(() -> first.asObject().put("x", 1)).isInstanceOf(UnsupportedOperationException.class);
+		assertThat(first).isEqualTo(Json.parse(json));
+
+		final byte[] utf8 = ("[0, " + json + "]").getBytes(StandardCharsets.UTF_8);
+		final JsonNode bytes = cache.parse(utf8, 4, utf8.length - 5);
+		assertThat(bytes).isNotSameAs(first).isEqualTo(first);
+		assertThat(cache.parse(json.getBytes(StandardCharsets.UTF_8))).isSameAs(bytes);
+		assertThat(cache.hits()).isEqualTo(2);
+		assertThat(cache.misses()).isEqualTo(2);
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.retainedBytes()).isPositive();
+		cache.clear();
+		assertThat(cache.size()).isZero();
+		assertThat(cache.retainedBytes()).isZero();
+	}
+
+	@Test
+	void evictsLeastRecentlyUsed() {
+		final String a = "{\"name\": \"a\"}";
+		final String b = "{\"name\": \"b\"}";
+		final String c = "{\"name\": \"c\"}";
+		final long entry = 40 + 2 * a.length()
+				+ JsonDocumentCache.retainedSize(PersistentJsonObject.persistent(Json.parse(a)));
+		final JsonDocumentCache cache = new JsonDocumentCache(entry * 2, 1);
+		final JsonNode first = cache.parse(a);
+		cache.parse(b);
+		assertThat(cache.parse(a)).isSameAs(first);
+		cache.parse(c);
+		assertThat(cache.evictions()).isEqualTo(1);
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.retainedBytes()).isEqualTo(entry * 2);
+		assertThat(cache.parse(a)).isSameAs(first);
+		final long misses = cache.misses();
+		cache.parse(b);
+		assertThat(cache.misses()).isEqualTo(misses + 1);
+	}
+
+	@Test
+	void skipsDocumentsLargerThanBudget() {
+		final JsonDocumentCache cache = new JsonDocumentCache(64, 1);
+		final String json = "[\"a long string that does not fit into the cache\"]";
+		assertThat(cache.parse(json)).isNotSameAs(cache.parse(json));
+		assertThat(cache.size()).isZero();
+		assertThatThrownBy(() -> new JsonDocumentCache(1024, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void concurrentLookups() throws Exception {
+		final JsonDocumentCache cache = new JsonDocumentCache(1 << 20);
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<JsonNode>> futures = new ArrayList<>();
+			for (int i = 0; i < 800; i++) {
+				final String json = "{\"id\": " + (i % 10) + "}";
+				futures.add(executor.submit(() -> cache.parse(json)));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				assertThat(futures.get(i).get().asObject().get("id").asInt()).isEqualTo(i % 10);
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertThat(cache.hits() + cache.misses()).isEqualTo(800);
+		assertThat(cache.size()).isEqualTo(10);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonFeedParserTest {
+	private static final String JSON = "\uFEFF{\"name\": \"café \\u3042\\n😀\", \"values\": [1, -2.5e3, 12345678901234567890, true, false, null, {}], \"empty\": []} ";
+
+	private static final List<String> EVENTS = Arrays.asList("START_OBJECT", "NAME:name", "STRING:café あ\n😀", "NAME:values", "START_ARRAY", "INT:1", "FLOAT:-2.5e3", "INT:12345678901234567890", "BOOLEAN:true", "BOOLEAN:false", "NULL:null", "START_OBJECT", "END_OBJECT", "END_ARRAY", "NAME:empty", "START_ARRAY", "END_ARRAY", "END_OBJECT", "END_OF_INPUT");
+
+	@Test
+	void wholeInput() {
+		final JsonFeedParser parser = new JsonFeedParser();
+		parser.feed(ByteBuffer.wrap(JSON.getBytes(StandardCharsets.UTF_8))).endOfInput();
+		assertThat(events(parser, null)).isEqualTo(EVENTS);
+	}
+
+	@Test
+	void byteByByte() {
+		final byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+		for (int chunkSize = 1; chunkSize <= 7; chunkSize++) {
+			final JsonFeedParser parser = new JsonFeedParser();
+			assertThat(events(parser, new Feeder(bytes, chunkSize))).as("chunkSize=%d", chunkSize).isEqualTo(EVENTS);
+		}
+	}
+
+	@Test
+	void needMoreInput() {
+		final JsonFeedParser parser = new JsonFeedParser();
+		assertThat(parser.nextEvent()).isEqualTo(JsonEvent.NEED_MORE_INPUT);
+		parser.feed("[12".getBytes(StandardCharsets.UTF_8), 0, 3);
+		assertThat(parser.nextEvent()).isEqualTo(JsonEvent.START_ARRAY);
+		assertThat(parser.nextEvent()).isEqualTo(JsonEvent.NEED_MORE_INPUT);
+		assertThat(parser.needsInput()).isTrue();
+		parser.feed("3]".getBytes(StandardCharsets.UTF_8), 0, 2);
+		assertThat(parser.nextEvent()).isEqualTo(JsonEvent.INT);
+		assertThat(parser.intValue()).isEqualTo(123);
+		assertThat(parser.nextEvent()).isEqualTo(JsonEvent.END_ARRAY);
+		assertThat(parser.depth()).isZero();
+		assertThat(parser.nextEvent()).isEqualTo(JsonEvent.NEED_MORE_INPUT);
+		assertThat(parser.endOfInput().nextEvent()).isEqualTo(JsonEvent.END_OF_INPUT);
+	}
+
+	@Test
+	void multipleDocuments() {
+		final JsonFeedParser parser = new JsonFeedParser();
+		parser.feed(ByteBuffer.wrap("{\"a\": 1}\n{\"a\": 2}\n3".getBytes(StandardCharsets.UTF_8))).endOfInput();
+		assertThat(events(parser, null)).containsExactly("START_OBJECT", "NAME:a", "INT:1", "END_OBJECT", "START_OBJECT", "NAME:a", "INT:2", "END_OBJECT", "INT:3", "END_OF_INPUT");
+	}
+
+	@Test
+	void invalidInput() {
+		assertThatThrownBy(() -> parseAll("[1 2]")).isInstanceOf(JsonParseException.class);
+		assertThatThrownBy(() -> parseAll("{\"a\" 1}")).isInstanceOf(JsonParseException.class);
+		assertThatThrownBy(() -> parseAll("[1,]")).isInstanceOf(JsonParseException.class);
+		assertThatThrownBy(() -> parseAll("[1}")).isInstanceOf(JsonParseException.class);
+		assertThatThrownBy(() -> parseAll("[1")).isInstanceOf(JsonParseException.class);
+		assertThatThrownBy(() -> parseAll("\"abc")).isInstanceOf(JsonLexerException.class);
+		assertThatThrownBy(() -> parseAll("01")).isInstanceOf(JsonLexerException.class);
+		assertThatThrownBy(() -> parseAll("1.")).isInstanceOf(JsonLexerException.class);
+		assertThatThrownBy(() -> parseAll("nul")).isInstanceOf(JsonLexerException.class);
+		final JsonFeedParser parser = new JsonFeedParser();
+		parser.feed(new byte[] { '"', (byte) 0xC0, (byte) 0x80, '"' }, 0, 4);
+		assertThatThrownBy(parser::nextEvent).isInstanceOf(JsonLexerException.class).hasMessageContaining("offset 1");
+	}
+
+	@Test
+	void feedBeforeConsumed() {
+		final JsonFeedParser parser = new JsonFeedParser();
+		parser.feed("[1, 2]".getBytes(StandardCharsets.UTF_8), 0, 6);
+		parser.nextEvent();
+		assertThatThrownBy(() -> parser.feed(ByteBuffer.allocate(1))).isInstanceOf(IllegalStateException.class);
+	}
+
+	private static void parseAll(String json) {
+		final JsonFeedParser parser = new JsonFeedParser();
+		parser.feed(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8))).endOfInput();
+		events(parser, null);
+	}
+
+	private static List<String> events(JsonFeedParser parser, Feeder feeder) {
+		final List<String> events = new ArrayList<>();
+		while (true) {
+			final JsonEvent event = parser.nextEvent();
+			switch (event) {
+				case NEED_MORE_INPUT:
+					feeder.feed(parser);
+					break;
+				case END_OF_INPUT:
+					events.add(event.name());
+					return events;
+				case NAME:
+				case STRING:
+				case INT:
+				case FLOAT:
+				case NULL:
+					events.add(event + ":" + parser.stringValue());
+					break;
+				case BOOLEAN:
+					events.add(event + ":" + parser.booleanValue());
+					break;
+				default:
+					events.add(event.name());
+			}
+		}
+	}
+
+	private static final class Feeder {
+		private final byte[] bytes;
+
+		private final int chunkSize;
+
+		private int position;
+
+		Feeder(byte[] bytes, int chunkSize) {
+			this.bytes = bytes;
+			this.chunkSize = chunkSize;
+		}
+
+		void feed(JsonFeedParser parser) {
+			if (this.position == this.bytes.length) {
+				parser.endOfInput();
+				return;
+			}
+			final int length = Math.min(this.chunkSize, this.bytes.length - this.position);
+			parser.feed(ByteBuffer.wrap(this.bytes, this.position, length).slice());
+			this.position += length;
+		}
+	}
+}
\ No newline at end of file
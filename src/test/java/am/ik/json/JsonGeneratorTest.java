@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonGeneratorTest {
+
+	@Test
+	void writeStreaming() {
+		final StringBuilder sb = new StringBuilder();
+		new JsonGenerator(sb)
+				.writeStartObject()
+				.writeName("id").writeNumber(Long.MIN_VALUE)
+				.writeName("name").writeString("foo")
+				.writeName("tags").writeStartArray().writeString("a").writeNumber(1.5).writeBoolean(true).writeNull().writeEndArray()
+				.writeName("nested").writeStartObject().writeEndObject()
+				.writeEndObject();
+		assertThat(sb.toString()).isEqualTo("{\"id\":-9223372036854775808,\"name\":\"foo\",\"tags\":[\"a\", 1.5, true, null],\"nested\":{}}");
+	}
+
+	@Test
+	void writeEscaped() {
+		final StringBuilder sb = new StringBuilder();
+		new JsonGenerator(sb).writeStartObject().writeName("a\"b").writeString("</\t\u0001>").writeEndObject();
+		assertThat(sb.toString()).isEqualTo("{\"a\\\"b\":\"<\\/\\t\\u0001>\"}");
+		assertThat(Json.parse(sb.toString()).asObject().get("a\"b").asString()).isEqualTo("</\t\u0001>");
+	}
+
+	@Test
+	void writeOutputStream() {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final JsonGenerator generator = new JsonGenerator(out);
+		generator.writeObject(new JsonObject().put("data", "こんにちは😀").put("status", 200));
+		generator.flush();
+		assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("{\"data\":\"こんにちは😀\",\"status\":200}");
+	}
+
+	@Test
+	void writeByteBuffer() {
+		final ByteBuffer buffer = ByteBuffer.allocate(64);
+		final JsonGenerator generator = new JsonGenerator(buffer);
+		generator.writeArray(new JsonArray().add(new JsonNode("é")).add(new JsonNode(1)));
+		generator.flush();
+		buffer.flip();
+		assertThat(StandardCharsets.UTF_8.decode(buffer).toString()).isEqualTo("[\"é\", 1]");
+	}
+
+	@Test
+	void invalidState() {
+		assertThatThrownBy(() -> new JsonGenerator(new StringBuilder()).writeStartObject().writeString("foo"))
+				.isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> new JsonGenerator(new StringBuilder()).writeStartArray().writeEndObject())
+				.isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> new JsonGenerator(new StringBuilder()).writeNumber(1).writeNumber(2))
+				.isInstanceOf(IllegalStateException.class);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonHashTest {
+
+	@Test
+	void equalsIgnoresMemberOrderAndNumberRepresentation() {
+		final JsonNode a = Json.parse("{\"a\": 1, \"b\": [1.0, 2e0, \"x\", null, true], \"c\": {\"d\": 10000000000}}");
+		final JsonNode b = Json.parse("{\"c\": {\"d\": 1e10}, \"b\": [1, 2, \"x\", null, true], \"a\": 1.00}");
+		assertThat(a).isEqualTo(b);
+		assertThat(a.hashCode()).isEqualTo(b.hashCode());
+		assertThat(a).isEqualTo(Json.parseLazy(Json.stringify(b)));
+		assertThat(a).isNotEqualTo(Json.parse("{\"a\": 1, \"b\": [1, 2, \"x\", null, false], \"c\": {\"d\": 1e10}}"));
+		assertThat(Json.parse("[1, 2]")).isNotEqualTo(Json.parse("[2, 1]"));
+		assertThat(JsonNode.valueOf(new BigDecimal("0.10"))).isEqualTo(new JsonNode(0.1d))
+			.hasSameHashCodeAs(new JsonNode(0.1d));
+		assertThat(new JsonNode(3L)).isEqualTo(new JsonNode(3.0f)).hasSameHashCodeAs(new JsonNode(3.0f));
+	}
+
+	@Test
+	void dedupeDocuments() {
+		final Set<JsonNode> documents = new HashSet<>();
+		documents.add(Json.parse("{\"id\": 1, \"tags\": [\"a\"]}"));
+		documents.add(Json.parse("{\"tags\": [\"a\"], \"id\": 1}"));
+		documents.add(Json.parse("{\"id\": 2, \"tags\": [\"a\"]}"));
+		assertThat(documents).hasSize(2);
+	}
+
+	@Test
+	void nestedMutationInvalidatesCachedHash() {
+		final JsonNode a = Json.parse("{\"x\": {\"y\": [1, 2]}}");
+		final JsonNode b = Json.parse("{\"x\": {\"y\": [1, 2]}}");
+		assertThat(a).isEqualTo(b);
+		final int before = a.hashCode();
+		a.asObject().get("x").asObject().get("y").asArray().add(JsonNode.valueOf(3));
+		assertThat(a).isNotEqualTo(b);
+		assertThat(a.hashCode()).isNotEqualTo(before);
+		b.asObject().get("x").asObject().get("y").asArray().add(JsonNode.valueOf(3));
+		assertThat(a).isEqualTo(b);
+		a.asObject().get("x").asObject().remove("y");
+		assertThat(a).isNotEqualTo(b);
+		assertThat(a.asObject().digest()).isNull();
+	}
+
+	@Test
+	void persistentHashIsStable() {
+		final PersistentJsonObject base = PersistentJsonObject
+			.of(Json.parse("{\"a\": {\"b\": [1, 2, 3]}, \"c\": \"d\"}").asObject());
+		final JsonHash digest = base.structuralHash();
+		assertThat(digest.isStable()).isTrue();
+		new JsonObject().put("e", 1).hashCode();
+		new JsonArray().add(JsonNode.valueOf(1)).hashCode();
+		assertThat(base.structuralHash()).isSameAs(digest);
+		final PersistentJsonObject changed = base.with("c", "e");
+		assertThat(changed).isNotEqualTo(base);
+		assertThat(changed.with("c", "d")).isEqualTo(base).hasSameHashCodeAs(base);
+		assertThat(base).isEqualTo(Json.parse("{\"c\": \"d\", \"a\": {\"b\": [1, 2, 3]}}").asObject());
+		assertThat(base.with("m", new JsonObject()).structuralHash().isStable()).isFalse();
+	}
+
+	@Test
+	@Timeout(5)
+	void hugeExponentsAreNotExpanded() {
+		final JsonNode huge = Json.parse("[1e99999999, -1E999999, 1.5e-99999999, 1e9999999999]");
+		assertThat(huge.hashCode()).isEqualTo(Json.parse("[10e99999998, -1E999999, 15e-100000000, 1e9999999999]").hashCode());
+		assertThat(huge).isEqualTo(Json.parse("[10e99999998, -1E999999, 15e-100000000, 1e9999999999]"));
+		assertThat(Json.parse("[1e99999999]")).isNotEqualTo(Json.parse("[2]"));
+		assertThat(Json.parse("1e99999999")).isNotEqualTo(Json.parse("1e99999998"));
+		assertThat(Json.parse("1e3")).isEqualTo(new JsonNode(1000)).hasSameHashCodeAs(new JsonNode(1000));
+		assertThat(Json.parse("-0e999999")).isEqualTo(new JsonNode(0)).hasSameHashCodeAs(new JsonNode(0));
+		assertThat(new JsonNumber("1e99999999").hashCode()).isEqualTo(new JsonNumber("100e99999997").hashCode());
+	}
+
+	@Test
+	void mixedFloatDoubleAndNumberHashesAgreeWithEquals() {
+		assertThat(JsonNode.valueOf(0.1f)).isEqualTo(Json.parse("0.1")).hasSameHashCodeAs(Json.parse("0.1"));
+		assertThat(JsonNode.valueOf(0.1f)).isEqualTo(JsonNode.valueOf(0.1)).hasSameHashCodeAs(JsonNode.valueOf(0.1));
+		assertThat(JsonNode.valueOf(1e12f)).isEqualTo(Json.parse("1e12")).hasSameHashCodeAs(Json.parse("1e12"));
+		assertThat(JsonNode.valueOf(1e20f)).isEqualTo(Json.parse("1e20")).hasSameHashCodeAs(Json.parse("1e20"));
+		final Random random = new Random(0);
+		for (int i = 0; i < 20_000; i++) {
+			final float f = Float.intBitsToFloat(random.nextInt(0x7f800000)) * (random.nextBoolean() ? 1 : -1);
+			final double d = Double.longBitsToDouble(random.nextLong() & 0x7fefffffffffffffL);
+			final double n = random.nextInt(1_000_000) / Math.pow(10, random.nextInt(8) - 2);
+			for (JsonNode node : new JsonNode[] { JsonNode.valueOf(f), JsonNode.valueOf(d), JsonNode.valueOf(n),
+					JsonNode.valueOf((float) n) }) {
+				final JsonNode parsed = Json.parse(node.toString());
+				assertThat(node).isEqualTo(parsed).hasSameHashCodeAs(parsed);
+				assertThat(JsonNode.valueOf(new BigDecimal(node.toString()))).isEqualTo(node).hasSameHashCodeAs(node);
+			}
+		}
+	}
+}
\ No newline at end of file
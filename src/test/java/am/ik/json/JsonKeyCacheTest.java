@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonKeyCacheTest {
+
+	@Test
+	void sharedKeysAcrossParses() {
+		final JsonKeyCache keyCache = new JsonKeyCache();
+		final JsonObject first = Json.parse("{\"id\": 1, \"name\": \"foo\"}", keyCache).asObject();
+		final JsonObject second = Json.parse("{\"id\": 2, \"name\": \"bar\"}", keyCache).asObject();
+		final String[] firstKeys = first.asMap().keySet().toArray(new String[0]);
+		final String[] secondKeys = second.asMap().keySet().toArray(new String[0]);
+		assertThat(secondKeys).containsExactly("id", "name");
+		assertThat(secondKeys[0]).isSameAs(firstKeys[0]);
+		assertThat(secondKeys[1]).isSameAs(firstKeys[1]);
+	}
+
+	@Test
+	void intern() {
+		final JsonKeyCache keyCache = new JsonKeyCache(16, 8);
+		final char[] chars = "xxnamexx".toCharArray();
+		final String name = keyCache.intern(chars, 2, 4);
+		assertThat(name).isEqualTo("name");
+		assertThat(keyCache.intern(chars, 2, 4)).isSameAs(name);
+		assertThat(keyCache.intern(new String("name"))).isSameAs(name);
+		assertThat(keyCache.capacity()).isEqualTo(16);
+	}
+
+	@Test
+	void longKeysAreNotCached() {
+		final JsonKeyCache keyCache = new JsonKeyCache(16, 4);
+		final char[] chars = "description".toCharArray();
+		final String first = keyCache.intern(chars, 0, chars.length);
+		assertThat(first).isEqualTo("description");
+		assertThat(keyCache.intern(chars, 0, chars.length)).isNotSameAs(first);
+	}
+
+	@Test
+	void collisionReplacesEntry() {
+		final JsonKeyCache keyCache = new JsonKeyCache(1, 8);
+		final String a = keyCache.intern("a".toCharArray(), 0, 1);
+		final String b = keyCache.intern("b".toCharArray(), 0, 1);
+		assertThat(keyCache.intern("b".toCharArray(), 0, 1)).isSameAs(b);
+		assertThat(keyCache.intern("a".toCharArray(), 0, 1)).isNotSameAs(a).isEqualTo("a");
+	}
+}
\ No newline at end of file
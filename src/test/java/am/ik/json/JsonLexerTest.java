@@ -15,9 +15,12 @@
  */
 package am.ik.json;
 
+import java.io.StringReader;
+
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class JsonLexerTest {
 
@@ -150,6 +153,14 @@ class JsonLexerTest {
 		assertThat(token.value()).isEqualTo("-10.2");
 	}
 
+	@Test
+	void nextToken_FLOAT_exponent() {
+		final JsonLexer lexer = new JsonLexer("-1.5e+10");
+		final Token token = lexer.nextToken();
+		assertThat(token.type()).isEqualTo(TokenType.FLOAT);
+		assertThat(token.value()).isEqualTo("-1.5e+10");
+	}
+
 	@Test
 	void nextToken_TRUE() {
 		final JsonLexer lexer = new JsonLexer("true");
@@ -188,4 +199,57 @@ class JsonLexerTest {
 		assertThat(token.type()).isEqualTo(TokenType.STRING);
 		assertThat(token.value()).isEqualTo("{\"key\":\"value\"}");
 	}
+
+	@Test
+	void nextToken_STRING_unicode() {
+		final JsonLexer lexer = new JsonLexer("\"\\u3053\\u3093\\b\"");
+		final Token token = lexer.nextToken();
+		assertThat(token.type()).isEqualTo(TokenType.STRING);
+		assertThat(token.value()).isEqualTo("こん\b");
+	}
+
+	@Test
+	void advance() {
+		final JsonLexer lexer = new JsonLexer("{\"id\": -9007199254740993, \"ok\": true}");
+		assertThat(lexer.advance()).isEqualTo(TokenType.LEFT_BRACE);
+		assertThat(lexer.advance()).isEqualTo(TokenType.STRING);
+		assertThat(lexer.stringValue()).isEqualTo("id");
+		assertThat(lexer.tokenStart()).isEqualTo(1);
+		assertThat(lexer.tokenEnd()).isEqualTo(5);
+		assertThat(lexer.advance()).isEqualTo(TokenType.COLON);
+		assertThat(lexer.advance()).isEqualTo(TokenType.INT);
+		assertThat(lexer.longValue()).isEqualTo(-9007199254740993L);
+		assertThat(lexer.tokenStart()).isEqualTo(7);
+		assertThat(lexer.tokenEnd()).isEqualTo(24);
+		assertThat(lexer.advance()).isEqualTo(TokenType.COMMA);
+		assertThat(lexer.advance()).isEqualTo(TokenType.STRING);
+		assertThat(lexer.advance()).isEqualTo(TokenType.COLON);
+		assertThat(lexer.advance()).isEqualTo(TokenType.BOOLEAN);
+		assertThat(lexer.booleanValue()).isTrue();
+		assertThat(lexer.advance()).isEqualTo(TokenType.RIGHT_BRACE);
+		assertThat(lexer.advance()).isEqualTo(TokenType.EOF);
+		assertThat(lexer.tokenStart()).isEqualTo(37);
+	}
+
+	@Test
+	void advance_INT_overflow() {
+		final JsonLexer lexer = new JsonLexer("2147483648");
+		assertThat(lexer.advance()).isEqualTo(TokenType.INT);
+		assertThat(lexer.longValue()).isEqualTo(2147483648L);
+		assertThatThrownBy(lexer::intValue).isInstanceOf(NumberFormatException.class);
+	}
+
+	@Test
+	void advance_acrossBuffer() {
+		final JsonLexer lexer = new JsonLexer(new StringReader("[\"hello\\tworld\", 12345]"), 3);
+		assertThat(lexer.advance()).isEqualTo(TokenType.LEFT_BRACKET);
+		assertThat(lexer.advance()).isEqualTo(TokenType.STRING);
+		assertThat(lexer.stringValue()).isEqualTo("hello\tworld");
+		assertThat(lexer.advance()).isEqualTo(TokenType.COMMA);
+		assertThat(lexer.advance()).isEqualTo(TokenType.INT);
+		assertThat(lexer.intValue()).isEqualTo(12345);
+		assertThat(lexer.tokenStart()).isEqualTo(17);
+		assertThat(lexer.tokenEnd()).isEqualTo(22);
+		assertThat(lexer.advance()).isEqualTo(TokenType.RIGHT_BRACKET);
+	}
 }
\ No newline at end of file
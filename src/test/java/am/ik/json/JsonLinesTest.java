@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonLinesTest {
+
+	@Test
+	void stream() {
+		final String input = "{\"id\": 1}\r\n\n  {\"id\": 2}  \n[3]";
+		final List<JsonLines.Line> lines = JsonLines.stream(input).collect(Collectors.toList());
+		assertThat(lines).extracting(JsonLines.Line::offset).containsExactly(0L, 12L, 26L);
+		assertThat(lines).extracting(line -> line.node().toString()).containsExactly("{\"id\":1}", "{\"id\":2}", "[3]");
+	}
+
+	@Test
+	void errorsDoNotAbortBatch() {
+		final byte[] input = "{\"id\": 1}\n{\"id\": }\n{\"id\": 3} 4\n{\"id\": 4}\n".getBytes(StandardCharsets.UTF_8);
+		final List<JsonLines.Line> lines = JsonLines.stream(input).collect(Collectors.toList());
+		assertThat(lines).extracting(JsonLines.Line::isValid).containsExactly(true, false, false, true);
+		assertThat(lines.get(1).offset()).isEqualTo(10L);
+		assertThat(lines.get(1).error()).isInstanceOf(JsonParseException.class);
+		assertThat(lines.get(2).offset()).isEqualTo(19L);
+		assertThatThrownBy(() -> lines.get(2).node()).isInstanceOf(JsonParseException.class);
+	}
+
+	@Test
+	void parallelOrdered() {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			sb.append("{\"id\": ").append(i).append(", \"name\": \"あ").append(i).append("\"}\n");
+		}
+		final byte[] utf8 = sb.toString().getBytes(StandardCharsets.UTF_8);
+		final List<Integer> ids = JsonLines.parallelParse(utf8).map(node -> node.asObject().get("id").asInt()).collect(Collectors.toList());
+		assertThat(ids).hasSize(20000).isSorted();
+		final List<JsonLines.Line> lines = JsonLines.parallelStream(sb.toString(), true).collect(Collectors.toList());
+		assertThat(lines).extracting(line -> line.node().asObject().get("name").asString()).startsWith("あ0", "あ1").endsWith("あ19999");
+	}
+
+	@Test
+	void parallelUnordered() {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			sb.append(i).append('\n');
+		}
+		final long sum = JsonLines.parallelStream(sb.toString(), false).mapToLong(line -> line.node().asLong()).sum();
+		assertThat(sum).isEqualTo(19999L * 20000 / 2);
+	}
+
+	@Test
+	void mappedFile(@TempDir Path dir) throws IOException {
+		final StringBuilder sb = new StringBuilder("\uFEFF");
+		for (int i = 0; i < 5000; i++) {
+			sb.append(i % 7 == 0 ? "  " : "").append("{\"id\": ").append(i).append(", \"name\": \"あ").append(i).append("\"}");
+			sb.append(i % 11 == 0 ? "\r\n\n" : "\n");
+			if (i % 1000 == 0) {
+				sb.append("{\"long\": \"");
+				for (int j = 0; j < 300; j++) {
+					sb.append("xyz");
+				}
+				sb.append("\"}\n{\"id\": }\n");
+			}
+		}
+		final byte[] utf8 = sb.append("[1]").toString().getBytes(StandardCharsets.UTF_8);
+		final Path file = Files.write(dir.resolve("lines.ndjson"), utf8);
+		final List<String> expected = JsonLines.stream(utf8).map(JsonLinesTest::describe).collect(Collectors.toList());
+		assertThat(expected).hasSize(5000 + 10 + 1);
+		for (int windowSize : new int[] { 64, 1000, 1 << 20 }) {
+			try (Stream<JsonLines.Line> lines = JsonLines.stream(file, windowSize, false, JsonParserOptions.defaults())) {
+				assertThat(lines.map(JsonLinesTest::describe)).containsExactlyElementsOf(expected);
+			}
+			try (Stream<JsonLines.Line> lines = JsonLines.stream(file, windowSize, true, JsonParserOptions.defaults())) {
+				assertThat(lines.map(JsonLinesTest::describe)).containsExactlyElementsOf(expected);
+			}
+		}
+		try (Stream<JsonNode> nodes = JsonLines.parallelParse(dir.resolve("lines.ndjson"))) {
+			assertThatThrownBy(() -> nodes.collect(Collectors.toList())).isInstanceOf(JsonParseException.class);
+		}
+		try (Stream<JsonLines.Line> lines = JsonLines.parallelStream(file, false)) {
+			assertThat(lines.filter(JsonLines.Line::isValid).count()).isEqualTo(5000 + 5 + 1);
+		}
+	}
+
+	private static String describe(JsonLines.Line line) {
+		return line.offset() + ": " + (line.isValid() ? line.node().toString() : line.error().getClass().getName());
+	}
+}
\ No newline at end of file
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonMetricsTest {
+
+	@Test
+	void parseMetrics() {
+		final List<JsonMetrics> parsed = new ArrayList<>();
+		final JsonMetricsListener listener = new JsonMetricsListener() {
+			@Override
+			public void parsed(JsonMetrics metrics) {
+				parsed.add(metrics);
+			}
+		};
+		final String json = "{\"a\": [1, 2.5, \"x\"], \"b\": {\"c\": true, \"d\": null}}";
+		new JsonParser(new JsonReader(new JsonLexer(json)), listener).parse();
+		assertThat(parsed).hasSize(1);
+		final JsonMetrics metrics = parsed.get(0);
+		assertThat(metrics.length()).isEqualTo(json.length());
+		assertThat(metrics.tokens(TokenType.LEFT_BRACE)).isEqualTo(2);
+		assertThat(metrics.tokens(TokenType.RIGHT_BRACE)).isEqualTo(2);
+		assertThat(metrics.tokens(TokenType.LEFT_BRACKET)).isEqualTo(1);
+		assertThat(metrics.tokens(TokenType.RIGHT_BRACKET)).isEqualTo(1);
+		assertThat(metrics.tokens(TokenType.COLON)).isEqualTo(4);
+		assertThat(metrics.tokens(TokenType.COMMA)).isEqualTo(4);
+		assertThat(metrics.tokens(TokenType.STRING)).isEqualTo(5);
+		assertThat(metrics.tokens(TokenType.INT)).isEqualTo(1);
+		assertThat(metrics.tokens(TokenType.FLOAT)).isEqualTo(1);
+		assertThat(metrics.tokens(TokenType.BOOLEAN)).isEqualTo(1);
+		assertThat(metrics.tokens(TokenType.NULL)).isEqualTo(1);
+		assertThat(metrics.tokens()).isEqualTo(23);
+		assertThat(metrics.maxDepth()).isEqualTo(2);
+		assertThat(metrics.objects()).isEqualTo(2);
+		assertThat(metrics.arrays()).isEqualTo(1);
+		assertThat(metrics.elapsedNanos()).isPositive();
+	}
+
+	@Test
+	void serializeMetricsMatchParse() {
+		final JsonMetricsCounter counter = new JsonMetricsCounter();
+		final String json = "{\"a\":[1,2.5,\"x\"],\"b\":{\"c\":true,\"d\":null}}";
+		Json.setMetricsListener(counter);
+		try {
+			final String output = Json.stringify(Json.parse(json));
+			assertThat(counter.parseCount()).isEqualTo(1);
+			assertThat(counter.serializeCount()).isEqualTo(1);
+			assertThat(counter.serializedLength()).isEqualTo(output.length());
+			for (TokenType type : TokenType.values()) {
+				assertThat(counter.serializedTokens(type)).as(type.name()).isEqualTo(counter.parsedTokens(type));
+			}
+			assertThat(counter.serializedObjects()).isEqualTo(2);
+			assertThat(counter.serializedArrays()).isEqualTo(1);
+			assertThat(counter.serializeMaxDepth()).isEqualTo(2);
+		}
+		finally {
+			Json.setMetricsListener(null);
+		}
+		Json.parse(json);
+		assertThat(counter.parseCount()).isEqualTo(1);
+	}
+
+	@Test
+	void counterAggregatesAndCountsErrors() {
+		final JsonMetricsCounter counter = new JsonMetricsCounter();
+		new JsonParser(new JsonReader(new JsonLexer("[1, [2, [3]]]")), counter).parse();
+		new JsonParser(new JsonReader(new JsonLexer("[4]")), counter).parse();
+		assertThatThrownBy(() -> new JsonParser(new JsonReader(new JsonLexer("{\"a\": }")), counter).parse())
+			.isInstanceOf(RuntimeException.class);
+		assertThat(counter.parseCount()).isEqualTo(2);
+		assertThat(counter.parsedTokens(TokenType.INT)).isEqualTo(4);
+		assertThat(counter.parsedArrays()).isEqualTo(4);
+		assertThat(counter.parseMaxDepth()).isEqualTo(3);
+		assertThat(counter.errors()).isEqualTo(1);
+		counter.reset();
+		assertThat(counter.parseCount()).isZero();
+		assertThat(counter.parseMaxDepth()).isZero();
+	}
+
+	@Test
+	void generatorReportsScalarDocument() {
+		final JsonMetricsCounter counter = new JsonMetricsCounter();
+		final StringBuilder sb = new StringBuilder();
+		new JsonGenerator(sb, counter).writeString("hello");
+		assertThat(counter.serializeCount()).isEqualTo(1);
+		assertThat(counter.serializedTokens(TokenType.STRING)).isEqualTo(1);
+		assertThat(counter.serializedLength()).isEqualTo(7);
+	}
+
+	@Test
+	void parseContextFollowsCurrentListener() {
+		final JsonParseContext context = new JsonParseContext();
+		context.parse("[1]");
+		final JsonMetricsCounter counter = new JsonMetricsCounter();
+		Json.setMetricsListener(counter);
+		try {
+			context.parse("[1, [2]]");
+			assertThat(counter.parseCount()).isEqualTo(1);
+			assertThat(counter.parsedArrays()).isEqualTo(2);
+		}
+		finally {
+			Json.setMetricsListener(null);
+		}
+		context.parse("[3]");
+		assertThat(counter.parseCount()).isEqualTo(1);
+	}
+
+	@Test
+	void alternativeParsePathsReportMetrics() {
+		final StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < 10_000; i++) {
+			sb.append(i == 0 ? "" : ", ").append("{\"id\": ").append(i).append(", \"tags\": [\"a\", 1.5, null]}");
+		}
+		final String array = sb.append(']').toString();
+		final JsonMetricsCounter expected = new JsonMetricsCounter();
+		new JsonParser(new JsonReader(new JsonLexer(array)), expected).parse();
+		final JsonMetricsCounter counter = new JsonMetricsCounter();
+		Json.setMetricsListener(counter);
+		try {
+			Json.parseParallel(array);
+			assertThat(counter.parseCount()).isEqualTo(1);
+			assertThat(counter.parsedLength()).isEqualTo(array.length());
+			assertThat(counter.parseMaxDepth()).isEqualTo(expected.parseMaxDepth());
+			assertThat(counter.parsedObjects()).isEqualTo(expected.parsedObjects());
+			assertThat(counter.parsedArrays()).isEqualTo(expected.parsedArrays());
+			for (TokenType type : TokenType.values()) {
+				assertThat(counter.parsedTokens(type)).as(type.name()).isEqualTo(expected.parsedTokens(type));
+			}
+			counter.reset();
+			Json.parseLazy(array);
+			assertThat(counter.parseCount()).isEqualTo(1);
+			for (TokenType type : TokenType.values()) {
+				assertThat(counter.parsedTokens(type)).as(type.name()).isEqualTo(expected.parsedTokens(type));
+			}
+			counter.reset();
+			assertThat(JsonLines.stream("[1]\n{\"a\": }\n{\"b\": 2}\n").count()).isEqualTo(3);
+			assertThat(counter.parseCount()).isEqualTo(2);
+			assertThat(counter.errors()).isEqualTo(1);
+			counter.reset();
+			final byte[] utf8 = "{\"a\": [1, true]}".getBytes(StandardCharsets.UTF_8);
+			final JsonFeedParser feed = new JsonFeedParser();
+			feed.feed(utf8, 0, utf8.length).endOfInput();
+			while (feed.nextEvent() != JsonEvent.END_OF_INPUT) {
+			}
+			feed.nextEvent();
+			assertThat(counter.parseCount()).isEqualTo(1);
+			assertThat(counter.parsedTokens(TokenType.INT)).isEqualTo(1);
+			assertThat(counter.parsedTokens(TokenType.BOOLEAN)).isEqualTo(1);
+			assertThat(counter.parseMaxDepth()).isEqualTo(2);
+			counter.reset();
+			final JsonDocumentCache cache = new JsonDocumentCache(1 << 20);
+			cache.parse("[1]");
+			cache.parse("[1]");
+			assertThat(counter.parseCount()).isEqualTo(1);
+		}
+		finally {
+			Json.setMetricsListener(null);
+		}
+	}
+
+	@Test
+	void flightRecorderListenerIsAvailable() {
+		final JsonMetricsListener listener = JsonMetricsListener.flightRecorder();
+		assertThat(listener).isNotNull();
+		new JsonParser(new JsonReader(new JsonLexer("[1]")), listener).parse();
+	}
+
+}
\ No newline at end of file
@@ -39,4 +39,51 @@ class JsonObjectTest {
 		assertThat(foo).isNotNull();
 		assertThat(foo.isNull()).isTrue();
 	}
+
+	@Test
+	void missingKeyReturnsSharedNullNode() {
+		final JsonObject json = new JsonObject();
+		assertThat(json.get("foo")).isSameAs(json.get("bar"));
+	}
+
+	@Test
+	void putReplacesExistingKey() {
+		final JsonObject json = new JsonObject().put("a", 1).put("b", 2).put("a", 3);
+		assertThat(json.size()).isEqualTo(2);
+		assertThat(json.get("a").asInt()).isEqualTo(3);
+		assertThat(json.toString()).isEqualTo("{\"a\":3,\"b\":2}");
+	}
+
+	@Test
+	void largeObjectKeepsInsertionOrder() {
+		final JsonObject json = new JsonObject();
+		for (int i = 0; i < 100; i++) {
+			json.put("key" + i, i);
+		}
+		json.put("key50", "replaced");
+		assertThat(json.size()).isEqualTo(100);
+		for (int i = 0; i < 100; i++) {
+			assertThat(json.containsKey("key" + i)).isTrue();
+		}
+		assertThat(json.containsKey("key100")).isFalse();
+		assertThat(json.get("key50").asString()).isEqualTo("replaced");
+		assertThat(json.keySet()).startsWith("key0", "key1", "key2").endsWith("key99");
+		assertThat(json.asMap()).hasSize(100).containsEntry("key99", json.get("key99"));
+	}
+
+	@Test
+	void duplicateKeysKeepLastValue() {
+		final JsonObject json = Json.parse("{\"a\": 1, \"b\": 2, \"a\": 3}").asObject();
+		assertThat(json.size()).isEqualTo(2);
+		assertThat(json.get("a").asInt()).isEqualTo(3);
+		assertThat(Json.parseLazy("{\"a\": 1, \"b\": 2, \"a\": 3}").toString()).isEqualTo("{\"a\":3,\"b\":2}");
+	}
+
+	@Test
+	void sharedLeafNodes() {
+		final JsonObject json = Json.parse("{\"a\": true, \"b\": true, \"c\": null, \"d\": 10, \"e\": 10}").asObject();
+		assertThat(json.get("a")).isSameAs(json.get("b"));
+		assertThat(json.get("c")).isSameAs(json.get("missing"));
+		assertThat(json.get("d")).isSameAs(json.get("e"));
+	}
 }
\ No newline at end of file
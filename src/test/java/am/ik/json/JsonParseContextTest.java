@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonParseContextTest {
+
+	@Test
+	void parserReset() {
+		final JsonParser parser = new JsonParser(new JsonLexer("{\"a\": [1, 2]}"));
+		assertThat(Json.stringify(parser.parse())).isEqualTo("{\"a\":[1, 2]}");
+		assertThat(parser.reset("\"short\"").parse().asString()).isEqualTo("short");
+		assertThat(Json.stringify(parser.reset(new StringBuilder("{\"long\": {\"nested\": [true, null, 1.5]}}")).parse()))
+			.isEqualTo("{\"long\":{\"nested\":[true, null, 1.5]}}");
+	}
+
+	@Test
+	void parserResetAfterFailure() {
+		final JsonParser parser = new JsonParser(new JsonLexer("{\"a\": [1, }"));
+		assertThatThrownBy(parser::parse).isInstanceOf(JsonParseException.class);
+		assertThat(Json.stringify(parser.reset("[{\"b\": 2}]").parse())).isEqualTo("[{\"b\":2}]");
+	}
+
+	@Test
+	void lexerResetReplacesReaderInput() {
+		final String input = "[1, 2, 3]";
+		final JsonLexer lexer = StringSliceReader.lexer(input, 4, 5);
+		assertThat(lexer.advance()).isEqualTo(TokenType.INT);
+		lexer.reset("{\"key\": \"a longer value than the slice\"}");
+		assertThat(lexer.advance()).isEqualTo(TokenType.LEFT_BRACE);
+		assertThat(lexer.advance()).isEqualTo(TokenType.STRING);
+		assertThat(lexer.advance()).isEqualTo(TokenType.COLON);
+		assertThat(lexer.advance()).isEqualTo(TokenType.STRING);
+		assertThat(lexer.stringValue()).isEqualTo("a longer value than the slice");
+		assertThat(lexer.advance()).isEqualTo(TokenType.RIGHT_BRACE);
+		assertThat(lexer.advance()).isEqualTo(TokenType.EOF);
+	}
+
+	@Test
+	void releasedNodesAreRecycled() {
+		final JsonParseContext context = new JsonParseContext();
+		final JsonNode first = context.parse("{\"name\": \"foo\", \"items\": [\"x\", 100000]}");
+		final JsonArray items = first.asObject().get("items").asArray();
+		context.release(first);
+		assertThat(context.pooled()).isEqualTo(7);
+		final JsonNode second = context.parse("{\"values\": [\"y\", 200000], \"flag\": true}");
+		assertThat(Json.stringify(second)).isEqualTo("{\"values\":[\"y\", 200000],\"flag\":true}");
+		assertThat(second.asObject().get("values").asArray()).isSameAs(items);
+		assertThat(context.pooled()).isEqualTo(1);
+	}
+
+	@Test
+	void releaseKeepsSharedNodesIntact() {
+		final JsonParseContext context = new JsonParseContext();
+		final JsonNode node = context.parse("[1, true, null, false]");
+		context.release(node);
+		context.release(node);
+		assertThat(context.pooled()).isEqualTo(2);
+		assertThat(JsonNode.valueOf(1).asInt()).isEqualTo(1);
+		assertThat(JsonNode.valueOf(true).asBoolean()).isTrue();
+		assertThat(Json.stringify(context.parse("[1, true, null, false]"))).isEqualTo("[1, true, null, false]");
+	}
+
+	@Test
+	void poolIsBounded() {
+		final JsonParseContext context = new JsonParseContext(1);
+		context.release(context.parse("[\"a\", \"b\", \"c\"]"));
+		assertThat(context.pooled()).isEqualTo(2);
+		assertThatThrownBy(() -> new JsonParseContext(-1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void current() {
+		assertThat(JsonParseContext.current()).isSameAs(JsonParseContext.current());
+		assertThat(JsonParseContext.current().parse("{\"a\": 1}").asObject().get("a").asInt()).isEqualTo(1);
+	}
+
+}
\ No newline at end of file
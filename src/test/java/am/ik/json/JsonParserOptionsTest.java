@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonParserOptionsTest {
+
+	@Test
+	void rejectDeepNestingByDefault() {
+		final StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 100_000; i++) {
+			sb.append('[');
+		}
+		assertThatThrownBy(() -> Json.parse(sb.toString())).isInstanceOf(JsonParseException.class)
+			.hasMessage("Nesting depth exceeds the maximum of 1000");
+		final JsonParserOptions options = JsonParserOptions.defaults().withMaxDepth(3);
+		assertThat(Json.parse("[{\"a\": [1]}]", options).toString()).isEqualTo("[{\"a\":[1]}]");
+		assertThatThrownBy(() -> Json.parse("[{\"a\": [[1]]}]", options)).isInstanceOf(JsonParseException.class)
+			.hasMessage("Nesting depth exceeds the maximum of 3");
+	}
+
+	@Test
+	void limitStringAndNumberLength() {
+		final JsonParserOptions options = JsonParserOptions.defaults().withMaxStringLength(5).withMaxNumberLength(3);
+		assertThat(Json.parse("[\"abcde\", 123, -12, 1.5]", options).asArray().size()).isEqualTo(4);
+		assertThatThrownBy(() -> Json.parse("[\"abcdef\"]", options)).isInstanceOf(JsonParseException.class)
+			.hasMessage("String length exceeds the maximum of 5");
+		assertThatThrownBy(() -> Json.parse("{\"abcdef\": 1}", options)).isInstanceOf(JsonParseException.class)
+			.hasMessage("String length exceeds the maximum of 5");
+		assertThatThrownBy(() -> Json.parse("[1234]", options)).isInstanceOf(JsonParseException.class)
+			.hasMessage("Number length exceeds the maximum of 3");
+		final StringBuilder sb = new StringBuilder("\"");
+		for (int i = 0; i < 1 << 20; i++) {
+			sb.append('x');
+		}
+		sb.append('"');
+		final byte[] utf8 = sb.toString().getBytes(StandardCharsets.UTF_8);
+		assertThatThrownBy(() -> Json.parse(new ByteArrayInputStream(utf8), options))
+			.isInstanceOf(JsonParseException.class)
+			.hasMessage("String length exceeds the maximum of 5");
+		final StringBuilder digits = new StringBuilder();
+		for (int i = 0; i < 1001; i++) {
+			digits.append('9');
+		}
+		assertThatThrownBy(() -> Json.parse(digits.toString())).isInstanceOf(JsonParseException.class)
+			.hasMessage("Number length exceeds the maximum of 1000");
+	}
+
+	@Test
+	void limitEntriesAndInputLength() {
+		final JsonParserOptions options = JsonParserOptions.defaults().withMaxEntries(2).withMaxInputLength(20);
+		assertThat(Json.parse("{\"a\": 1, \"b\": 2}", options).asObject().size()).isEqualTo(2);
+		assertThatThrownBy(() -> Json.parse("{\"a\":1,\"b\":2,\"c\":3}", options))
+			.isInstanceOf(JsonParseException.class)
+			.hasMessage("Object entries exceed the maximum of 2");
+		assertThatThrownBy(() -> Json.parse("[1, 2, 3, 4, 5, 6, 7, 8]", options)).isInstanceOf(JsonParseException.class)
+			.hasMessage("Input length exceeds the maximum of 20");
+		final byte[] utf8 = "[1, 2, 3, 4, 5, 6, 7, 8]".getBytes(StandardCharsets.UTF_8);
+		assertThatThrownBy(() -> Json.parse(new ByteArrayInputStream(utf8), options))
+			.isInstanceOf(JsonParseException.class)
+			.hasMessage("Input length exceeds the maximum of 20");
+		assertThatThrownBy(() -> JsonParserOptions.defaults().withMaxDepth(0))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> JsonParserOptions.defaults().withMaxInputLength(-1))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void applyToOtherEntryPoints() {
+		final JsonParserOptions options = JsonParserOptions.defaults().withMaxDepth(2).withMaxStringLength(5);
+		final StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < 20_000; i++) {
+			sb.append(i == 0 ? "" : ",").append("[\"abcde\"]");
+		}
+		final String array = sb.append(']').toString();
+		assertThat(Json.parseParallel(array, options).asArray().size()).isEqualTo(20_000);
+		assertThatThrownBy(() -> Json.parseParallel("[[\"abcdef\"]," + array.substring(1), options))
+			.isInstanceOf(JsonParseException.class)
+			.hasMessage("String length exceeds the maximum of 5");
+		assertThatThrownBy(() -> Json.parseParallel("[[[1]]," + array.substring(1), options))
+			.isInstanceOf(JsonParseException.class)
+			.hasMessage("Nesting depth exceeds the maximum of 2");
+		final List<JsonLines.Line> lines = new ArrayList<>();
+		JsonLines.stream("[[1]]\n[[[1]]]\n\"abcdef\"\n", options).forEach(lines::add);
+		assertThat(lines).hasSize(3);
+		assertThat(lines.get(0).isValid()).isTrue();
+		assertThat(lines.get(1).error()).hasMessage("Nesting depth exceeds the maximum of 2");
+		assertThat(lines.get(2).error()).hasMessage("String length exceeds the maximum of 5");
+		final JsonFeedParser parser = new JsonFeedParser(options.withMaxEntries(1));
+		final byte[] utf8 = "[{\"a\": 1, \"b\": 2}]".getBytes(StandardCharsets.UTF_8);
+		parser.feed(utf8, 0, utf8.length).endOfInput();
+		assertThat(parser.nextEvent()).isEqualTo(JsonEvent.START_ARRAY);
+		assertThat(parser.nextEvent()).isEqualTo(JsonEvent.START_OBJECT);
+		assertThat(parser.nextEvent()).isEqualTo(JsonEvent.NAME);
+		assertThat(parser.nextEvent()).isEqualTo(JsonEvent.INT);
+		assertThatThrownBy(parser::nextEvent).isInstanceOf(JsonParseException.class)
+			.hasMessage("Object entries exceed the maximum of 1");
+		final JsonFeedParser deep = new JsonFeedParser(options);
+		deep.feed("[[[".getBytes(StandardCharsets.UTF_8), 0, 3);
+		deep.nextEvent();
+		deep.nextEvent();
+		assertThatThrownBy(deep::nextEvent).isInstanceOf(JsonParseException.class)
+			.hasMessage("Nesting depth exceeds the maximum of 2");
+		final JsonFeedParser longString = new JsonFeedParser(options);
+		longString.feed("\"abc".getBytes(StandardCharsets.UTF_8), 0, 4);
+		assertThat(longString.nextEvent()).isEqualTo(JsonEvent.NEED_MORE_INPUT);
+		longString.feed("def\"".getBytes(StandardCharsets.UTF_8), 0, 4);
+		assertThatThrownBy(longString::nextEvent).isInstanceOf(JsonParseException.class)
+			.hasMessage("String length exceeds the maximum of 5");
+		assertThatThrownBy(() -> new JsonFeedParser(options.withMaxInputLength(3)).feed(utf8, 0, utf8.length))
+			.isInstanceOf(JsonParseException.class)
+			.hasMessage("Input length exceeds the maximum of 3");
+	}
+
+	@Test
+	void collidingKeys() {
+		List<String> keys = new ArrayList<>();
+		keys.add("");
+		for (int i = 0; i < 12; i++) {
+			final List<String> next = new ArrayList<>();
+			for (String key : keys) {
+				next.add(key + "Aa");
+				next.add(key + "BB");
+			}
+			keys = next;
+		}
+		assertThat(keys).hasSize(4096).allMatch(key -> key.hashCode() == "AaAaAaAaAaAaAaAaAaAaAaAa".hashCode());
+		final StringBuilder sb = new StringBuilder("{");
+		for (int i = 0; i < keys.size(); i++) {
+			sb.append(i == 0 ? "" : ",").append('"').append(keys.get(i)).append("\":").append(i);
+		}
+		final JsonObject object = Json.parse(sb.append('}').toString()).asObject();
+		assertThat(object.size()).isEqualTo(4096);
+		for (int i = 0; i < keys.size(); i++) {
+			assertThat(object.get(keys.get(i)).asInt()).isEqualTo(i);
+		}
+		for (int i = 0; i < keys.size(); i += 2) {
+			assertThat(object.remove(keys.get(i)).asInt()).isEqualTo(i);
+		}
+		assertThat(object.size()).isEqualTo(2048);
+		assertThat(object.containsKey(keys.get(0))).isFalse();
+		assertThat(object.get(keys.get(1)).asInt()).isEqualTo(1);
+	}
+}
\ No newline at end of file
@@ -15,9 +15,20 @@
  */
 package am.ik.json;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class JsonParserTest {
 
@@ -117,4 +128,190 @@ class JsonParserTest {
 		assertThat(json.get("foo").asString()).isEqualTo("bar");
 		assertThat(Json.stringify(json)).isEqualTo("{\"foo\":\"bar\"}");
 	}
+
+	@Test
+	void parseUtf8Bytes() {
+		final byte[] utf8 = "__{\"body\":\"こんにちは😀\",\"price\":10}__".getBytes(StandardCharsets.UTF_8);
+		final JsonObject json = Json.parse(utf8, 2, utf8.length - 4).asObject();
+		assertThat(json.get("body").asString()).isEqualTo("こんにちは😀");
+		assertThat(json.get("price").asInteger()).isEqualTo(10);
+	}
+
+	@Test
+	void parseDirectByteBuffer() {
+		final StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < 1000; i++) {
+			sb.append(i == 0 ? "" : ",").append("\"é😀").append(i).append("\"");
+		}
+		final byte[] utf8 = sb.append("]").toString().getBytes(StandardCharsets.UTF_8);
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(utf8.length);
+		buffer.put(utf8).flip();
+		final JsonArray array = Json.parse(buffer).asArray();
+		assertThat(array.size()).isEqualTo(1000);
+		assertThat(array.get(999).asString()).isEqualTo("é😀999");
+		assertThat(buffer.position()).isZero();
+	}
+
+	@Test
+	void parseInvalidUtf8() {
+		final byte[] utf8 = new byte[] { '"', (byte) 0xC0, (byte) 0xAF, '"' };
+		assertThatThrownBy(() -> Json.parse(utf8)).isInstanceOf(JsonLexerException.class)
+				.hasMessage("Invalid UTF-8 byte sequence at offset 1");
+		final byte[] truncated = new byte[] { '"', (byte) 0xE3, (byte) 0x81 };
+		assertThatThrownBy(() -> Json.parse(truncated)).isInstanceOf(JsonLexerException.class)
+				.hasMessage("Invalid UTF-8 byte sequence at offset 1");
+	}
+
+	@Test
+	void parseLazy() {
+		final String json = "{\"url\":\"/classes\",\"method\":\"POST\",\"headers\":{\"user-agent\":\"curl/7.88.1\",\"host\":\"127.0.0.1:8080\"},\"body\":\"{\\\"foo\\\":\\\"bar\\\"}\",\"items\":[1, 2.5, true, null, [], {}],\"kv\":{}}";
+		final JsonNode node = Json.parseLazy(json);
+		assertThat(node.isObject()).isTrue();
+		final JsonObject object = node.asObject();
+		assertThat(object.size()).isEqualTo(6);
+		assertThat(object.get("body").asString()).isEqualTo("{\"foo\":\"bar\"}");
+		assertThat(object.get("headers").asObject().get("host").asString()).isEqualTo("127.0.0.1:8080");
+		final JsonArray items = object.get("items").asArray();
+		assertThat(items.size()).isEqualTo(6);
+		assertThat(items.get(0).asInteger()).isEqualTo(1);
+		assertThat(items.get(1).asFloat()).isEqualTo(2.5f);
+		assertThat(items.get(2).asBoolean()).isTrue();
+		assertThat(items.get(3).isNull()).isTrue();
+		assertThat(items.get(4).asArray().size()).isZero();
+		assertThat(object.get("kv").asObject().isEmpty()).isTrue();
+		assertThat(Json.stringify(Json.parseLazy(json))).isEqualTo(Json.stringify(Json.parse(json)));
+	}
+
+	@Test
+	void parseLazyDuplicateKeys() {
+		final String json = "{\"a\":1,\"b\":{\"c\":1,\"c\":2},\"a\":2}";
+		final JsonObject object = Json.parseLazy(json).asObject();
+		assertThat(object.size()).isEqualTo(Json.parse(json).asObject().size()).isEqualTo(2);
+		assertThat(object.get("b").asObject().size()).isEqualTo(1);
+		assertThat(object.keySet()).hasSize(2);
+		assertThat(object.get("a").asInteger()).isEqualTo(2);
+	}
+
+	@Test
+	void parseLong() {
+		final JsonNode node = Json.parse("9007199254740993");
+		assertThat(node.isInteger()).isFalse();
+		assertThat(node.isLong()).isTrue();
+		assertThat(node.asLong()).isEqualTo(9007199254740993L);
+		assertThat(node.asBigInteger()).isEqualTo(new BigInteger("9007199254740993"));
+		assertThat(Json.stringify(node)).isEqualTo("9007199254740993");
+	}
+
+	@Test
+	void parseBigNumber() {
+		final String json = "[123456789012345678901234567890, 3.14159265358979323846264338327950288, -1.5E-3, 1e10]";
+		final JsonArray array = Json.parse(json).asArray();
+		assertThat(array.get(0).isLong()).isFalse();
+		assertThat(array.get(0).asBigInteger()).isEqualTo(new BigInteger("123456789012345678901234567890"));
+		assertThat(array.get(1).asBigDecimal()).isEqualTo(new BigDecimal("3.14159265358979323846264338327950288"));
+		assertThat(array.get(2).isFloat()).isTrue();
+		assertThat(array.get(2).asDouble()).isEqualTo(-0.0015);
+		assertThat(array.get(3).isFloat()).isTrue();
+		assertThat(array.get(3).asDouble()).isEqualTo(1e10);
+		assertThat(Json.stringify(array)).isEqualTo(json);
+	}
+
+	@Test
+	void parseInvalidNumber() {
+		assertThatThrownBy(() -> Json.parse("01")).isInstanceOf(JsonLexerException.class);
+		assertThatThrownBy(() -> Json.parse("1.")).isInstanceOf(JsonLexerException.class);
+		assertThatThrownBy(() -> Json.parse("1.2.3")).isInstanceOf(JsonLexerException.class);
+		assertThatThrownBy(() -> Json.parse("-")).isInstanceOf(JsonLexerException.class);
+		assertThatThrownBy(() -> Json.parse("1e")).isInstanceOf(JsonLexerException.class);
+	}
+
+	@Test
+	void parseWithHandler() {
+		final String json = "{\"items\": [{\"price\": 10, \"name\": \"a\"}, {\"price\": 2.5, \"tags\": [true, null]}, {\"price\": 12345678901}]}";
+		final List<String> events = new ArrayList<>();
+		final double[] total = new double[1];
+		new JsonParser(new JsonLexer(json)).parse(new JsonHandler() {
+			@Override
+			public void startObject() {
+				events.add("{");
+			}
+
+			@Override
+			public void key(String name) {
+				events.add(name);
+			}
+
+			@Override
+			public void endObject() {
+				events.add("}");
+			}
+
+			@Override
+			public void startArray() {
+				events.add("[");
+			}
+
+			@Override
+			public void endArray() {
+				events.add("]");
+			}
+
+			@Override
+			public void numberValue(Number value) {
+				events.add(value.toString());
+				total[0] += value.doubleValue();
+			}
+
+			@Override
+			public void booleanValue(boolean value) {
+				events.add(String.valueOf(value));
+			}
+		});
+		assertThat(events).containsExactly("{", "items", "[", "{", "price", "10", "name", "}", "{", "price", "2.5", "tags", "[", "true", "]", "}", "{", "price", "12345678901", "}", "]", "}");
+		assertThat(total[0]).isEqualTo(12345678913.5);
+	}
+
+	@Test
+	void parseParallel() {
+		final String json = " [{\"id\": 1, \"name\": \"a, [b]\"}, \"quote \\\" ] , \\\\\", [1, [2, 3]], {}, [], null, -1.5e3, {\"x\": {\"y\": [\"}\"]}}] ";
+		final String expected = Json.parse(json).toString();
+		for (int chunkSize = 1; chunkSize <= json.length(); chunkSize++) {
+			assertThat(ParallelArrayParser.parse(json, chunkSize).toString()).as("chunkSize=%d", chunkSize).isEqualTo(expected);
+		}
+		assertThat(ParallelArrayParser.parse(" [ ] ", 2).asArray().size()).isZero();
+		assertThat(ParallelArrayParser.parse("{\"a\": [1, 2]}", 2).toString()).isEqualTo("{\"a\":[1, 2]}");
+	}
+
+	@Test
+	void parseParallelLargeArray() {
+		final StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < 50000; i++) {
+			sb.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"tags\":[\"t,").append(i).append("\"]}");
+		}
+		final String json = sb.append("]").toString();
+		final JsonArray array = Json.parseParallel(json).asArray();
+		assertThat(array.size()).isEqualTo(50000);
+		assertThat(array.get(49999).asObject().get("id").asInt()).isEqualTo(49999);
+		assertThat(array.toString()).isEqualTo(Json.parse(json).toString());
+	}
+
+	@Test
+	void parseParallelInvalid() {
+		assertThatThrownBy(() -> ParallelArrayParser.parse("[1, 2, }, 3]", 2)).isInstanceOf(JsonParseException.class);
+		assertThatThrownBy(() -> ParallelArrayParser.parse("[1, 2, 3", 2)).isInstanceOf(JsonParseException.class);
+		assertThatThrownBy(() -> ParallelArrayParser.parse("[1, 2 3]", 2)).isInstanceOf(JsonParseException.class);
+	}
+
+	@Test
+	void parsePath(@TempDir Path dir) throws Exception {
+		final Path file = dir.resolve("test.json");
+		Files.write(file, "\uFEFF{\"message\": \"こんにちは😀\", \"items\": [1, 2, 3]}".getBytes(StandardCharsets.UTF_8));
+		assertThat(Json.parse(file).toString()).isEqualTo("{\"message\":\"こんにちは😀\",\"items\":[1, 2, 3]}");
+		assertThat(JsonPath.compile("$.items[2]").evaluate(file)).extracting(JsonNode::asInt).containsExactly(3);
+		for (int windowSize = 1; windowSize < 8; windowSize++) {
+			try (JsonReader reader = new JsonReader(MappedFile.lexer(file, windowSize))) {
+				assertThat(new JsonParser(reader).parse().asObject().get("message").asString()).isEqualTo("こんにちは😀");
+			}
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonPatchTest {
+
+	@Test
+	void applyOperations() {
+		final JsonNode document = Json.parse("{\"foo\": [\"bar\", \"baz\"], \"a/b\": 1, \"m~n\": {\"x\": 2}}");
+		final JsonNode result = JsonPatch.parse("[" + "{\"op\": \"add\", \"path\": \"/foo/1\", \"value\": \"qux\"},"
+				+ "{\"op\": \"add\", \"path\": \"/foo/-\", \"value\": \"end\"},"
+				+ "{\"op\": \"remove\", \"path\": \"/a~1b\"},"
+				+ "{\"op\": \"replace\", \"path\": \"/m~0n/x\", \"value\": 3.0},"
+				+ "{\"op\": \"test\", \"path\": \"/m~0n/x\", \"value\": 3},"
+				+ "{\"op\": \"copy\", \"from\": \"/foo/0\", \"path\": \"/first\"},"
+				+ "{\"op\": \"move\", \"from\": \"/m~0n\", \"path\": \"/foo/0\"}" + "]")
+			.apply(document);
+		assertThat(result).isSameAs(document);
+		assertThat(Json.stringify(result))
+			.isEqualTo("{\"foo\":[{\"x\":3.0}, \"bar\", \"qux\", \"baz\", \"end\"],\"first\":\"bar\"}");
+	}
+
+	@Test
+	void applyToPersistentDocument() {
+		final JsonNode document = PersistentJsonObject
+			.persistent(Json.parse("{\"a\": {\"b\": [1, 2]}, \"c\": {\"d\": true}}"));
+		final JsonNode result = JsonPatch
+			.parse("[{\"op\": \"add\", \"path\": \"/a/b/1\", \"value\": {\"e\": 5}},"
+					+ "{\"op\": \"remove\", \"path\": \"/a/b/0\"}]")
+			.apply(document);
+		assertThat(Json.stringify(document)).isEqualTo("{\"a\":{\"b\":[1, 2]},\"c\":{\"d\":true}}");
+		assertThat(Json.stringify(result)).isEqualTo("{\"a\":{\"b\":[{\"e\":5}, 2]},\"c\":{\"d\":true}}");
+		assertThat(result.asObject().get("c")).isSameAs(document.asObject().get("c"));
+		assertThat(result.asObject().get("a").asObject().get("b").asArray().get(0).asObject())
+			.isInstanceOf(PersistentJsonObject.class);
+	}
+
+	@Test
+	void concatAndReplaceRoot() {
+		final JsonPatch patch = JsonPatch.concat(Arrays.asList(
+				JsonPatch.parse("[{\"op\": \"replace\", \"path\": \"\", \"value\": {\"n\": 1}}]"),
+				JsonPatch.parse("[{\"op\": \"add\", \"path\": \"/m\", \"value\": 2}]")));
+		assertThat(patch.size()).isEqualTo(2);
+		assertThat(Json.stringify(patch.apply(Json.parse("[]")))).isEqualTo("{\"n\":1,\"m\":2}");
+	}
+
+	@Test
+	void rejectInvalidOperations() {
+		final JsonNode document = Json.parse("{\"a\": [1], \"b\": \"x\"}");
+		assertThatThrownBy(() -> JsonPatch.parse("[{\"op\": \"test\", \"path\": \"/b\", \"value\": \"y\"}]").apply(document))
+			.isInstanceOf(JsonPatchException.class)
+			.hasMessageStartingWith("Test failed");
+		assertThatThrownBy(() -> JsonPatch.parse("[{\"op\": \"remove\", \"path\": \"/a/1\"}]").apply(document))
+			.isInstanceOf(JsonPatchException.class)
+			.hasMessage("Array index out of bounds at path: /a/1");
+		assertThatThrownBy(() -> JsonPatch.parse("[{\"op\": \"add\", \"path\": \"/a/01\", \"value\": 0}]").apply(document))
+			.isInstanceOf(JsonPatchException.class)
+			.hasMessage("Invalid array index '01' at path: /a/01");
+		assertThatThrownBy(() -> JsonPatch.parse("[{\"op\": \"add\", \"path\": \"/x/y\", \"value\": 0}]").apply(document))
+			.isInstanceOf(JsonPatchException.class)
+			.hasMessage("No value at path: /x/y");
+		assertThatThrownBy(() -> JsonPatch.parse("[{\"op\": \"move\", \"from\": \"/a\", \"path\": \"/a/0\"}]"))
+			.isInstanceOf(JsonPatchException.class);
+		assertThatThrownBy(() -> JsonPatch.parse("[{\"op\": \"invalid\", \"path\": \"/a\"}]"))
+			.isInstanceOf(JsonPatchException.class)
+			.hasMessageStartingWith("Unknown operation");
+	}
+
+	@Test
+	void mergePatch() {
+		final JsonNode document = Json
+			.parse("{\"title\": \"Goodbye!\", \"author\": {\"givenName\": \"John\", \"familyName\": \"Doe\"},"
+					+ " \"tags\": [\"example\", \"sample\"], \"content\": \"This will be unchanged\"}");
+		final JsonNode patch = Json.parse("{\"title\": \"Hello!\", \"phoneNumber\": \"+01-123-456-7890\","
+				+ " \"author\": {\"familyName\": null}, \"tags\": [\"example\"]}");
+		final String expected = "{\"title\":\"Hello!\",\"author\":{\"givenName\":\"John\"},\"tags\":[\"example\"],"
+				+ "\"content\":\"This will be unchanged\",\"phoneNumber\":\"+01-123-456-7890\"}";
+		final StringBuilder out = new StringBuilder();
+		JsonMergePatch.apply(new JsonReader(new JsonLexer(Json.stringify(document))), patch, new JsonGenerator(out));
+		assertThat(out.toString()).isEqualTo(expected);
+
+		final JsonNode persistent = PersistentJsonObject.persistent(document);
+		final JsonNode merged = JsonMergePatch.apply(persistent, patch);
+		assertThat(Json.stringify(merged)).isEqualTo(expected);
+		assertThat(Json.stringify(persistent)).isEqualTo(Json.stringify(document));
+
+		assertThat(JsonMergePatch.apply(document, patch)).isSameAs(document);
+		assertThat(Json.stringify(document)).isEqualTo(expected);
+	}
+
+	@Test
+	void mergePatchBatch() {
+		final JsonNode result = JsonMergePatch.apply(Json.parse("{\"a\": \"b\"}"),
+				Arrays.asList(Json.parse("{\"a\": {\"c\": 1}}"), Json.parse("{\"a\": {\"c\": null, \"d\": [2]}}"),
+						Json.parse("{\"e\": null}")));
+		assertThat(Json.stringify(result)).isEqualTo("{\"a\":{\"d\":[2]}}");
+		assertThat(Json.stringify(JsonMergePatch.apply(Json.parse("{\"a\": 1}"), Json.parse("[3]")))).isEqualTo("[3]");
+	}
+
+	@Test
+	void diff() {
+		final JsonNode source = Json.parse(
+				"{\"a\": 1, \"b\": {\"c\": [1, 2, 3, 4], \"d/e\": \"x\"}, \"f\": [1, 2, 3], \"g\": true}");
+		final JsonNode target = Json
+			.parse("{\"a\": 1, \"b\": {\"c\": [1, 5, 4], \"d/e\": \"y\"}, \"f\": [1, 0, 2, 3], \"h\": null}");
+		final JsonPatch patch = JsonPatch.diff(source, target);
+		assertThat(patch.toString()).isEqualTo("[{\"op\":\"replace\",\"path\":\"\\/b\\/c\\/1\",\"value\":5}, "
+				+ "{\"op\":\"remove\",\"path\":\"\\/b\\/c\\/2\"}, "
+				+ "{\"op\":\"replace\",\"path\":\"\\/b\\/d~1e\",\"value\":\"y\"}, "
+				+ "{\"op\":\"add\",\"path\":\"\\/f\\/1\",\"value\":0}, " + "{\"op\":\"remove\",\"path\":\"\\/g\"}, "
+				+ "{\"op\":\"add\",\"path\":\"\\/h\",\"value\":null}]");
+		assertThat(patch.apply(source)).isEqualTo(target);
+		assertThat(JsonPatch.diff(target, Json.parse(Json.stringify(target))).size()).isZero();
+	}
+
+	@Test
+	void diffPersistentSnapshots() {
+		final PersistentJsonObject base = PersistentJsonObject
+			.of(Json.parse("{\"a\": {\"b\": [1, 2, 3]}, \"c\": {\"d\": \"e\"}}").asObject());
+		final PersistentJsonObject next = base.with("c",
+				((PersistentJsonObject) base.get("c").asObject()).with("d", "f"));
+		assertThat(JsonPatch.diff(base.toNode(), next.toNode()).toString())
+			.isEqualTo("[{\"op\":\"replace\",\"path\":\"\\/c\\/d\",\"value\":\"f\"}]");
+	}
+}
\ No newline at end of file
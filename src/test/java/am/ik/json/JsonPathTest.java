@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.io.StringReader;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonPathTest {
+	private static final String JSON = "{\"status\": 200, \"body\": {\"items\": [{\"id\": 1, \"name\": \"a\"}, {\"id\": 2, \"tags\": [\"x\"]}, {\"name\": \"c\"}]}, \"a/b\": {\"m~n\": true}}";
+
+	@Test
+	void name() {
+		assertThat(JsonPath.compile("$.status").evaluate(JSON)).extracting(JsonNode::asInt).containsExactly(200);
+		assertThat(JsonPath.compile("$['status']").evaluate(JSON)).extracting(JsonNode::asInt).containsExactly(200);
+	}
+
+	@Test
+	void wildcard() {
+		assertThat(JsonPath.compile("$.body.items[*].id").evaluate(JSON)).extracting(JsonNode::asInt).containsExactly(1, 2);
+		assertThat(JsonPath.compile("$.body.items.*.name").stream(JSON).map(JsonNode::asString).collect(Collectors.toList())).containsExactly("a", "c");
+	}
+
+	@Test
+	void index() {
+		assertThat(JsonPath.compile("$.body.items[1].tags[0]").evaluate(JSON)).extracting(JsonNode::asString).containsExactly("x");
+		assertThat(JsonPath.compile("$.body.items[5]").evaluate(JSON)).isEmpty();
+	}
+
+	@Test
+	void container() {
+		assertThat(JsonPath.compile("$.body.items[0]").evaluate(new StringReader(JSON))).extracting(JsonNode::toString).containsExactly("{\"id\":1,\"name\":\"a\"}");
+		assertThat(JsonPath.compile("$").evaluate("[1, 2]")).extracting(JsonNode::toString).containsExactly("[1, 2]");
+	}
+
+	@Test
+	void pointer() {
+		assertThat(JsonPath.compile("/body/items/*/id").evaluate(JSON)).extracting(JsonNode::asInt).containsExactly(1, 2);
+		assertThat(JsonPath.compile("/body/items/0/name").evaluate(JSON)).extracting(JsonNode::asString).containsExactly("a");
+		assertThat(JsonPath.compile("/a~1b/m~0n").evaluate(JSON)).extracting(JsonNode::asBoolean).containsExactly(true);
+		assertThat(JsonPath.compile("").evaluate("true")).extracting(JsonNode::asBoolean).containsExactly(true);
+	}
+
+	@Test
+	void mismatchedTypes() {
+		assertThat(JsonPath.compile("$.status.id").evaluate(JSON)).isEmpty();
+		assertThat(JsonPath.compile("$.body[0]").evaluate(JSON)).isEmpty();
+		assertThat(JsonPath.compile("$.body.items.id").evaluate(JSON)).isEmpty();
+	}
+
+	@Test
+	void streamIsLazy() {
+		final JsonPath path = JsonPath.compile("$.items[*].id");
+		final String json = "{\"items\": [{\"id\": 1}, {\"id\": 2}, {\"id\": }]}";
+		assertThat(path.stream(json).limit(2).map(JsonNode::asInt).collect(Collectors.toList())).containsExactly(1, 2);
+		assertThat(path.stream(json).findFirst()).map(JsonNode::asInt).contains(1);
+		assertThatThrownBy(() -> path.evaluate(json)).isInstanceOf(JsonParseException.class);
+		final JsonReader reader = new JsonReader(new JsonLexer("[[1, 2], [3]]"));
+		assertThat(JsonPath.compile("$[*][*]").stream(reader).map(JsonNode::asInt).collect(Collectors.toList())).containsExactly(1, 2, 3);
+		assertThat(JsonPath.compile("$").stream("7").map(JsonNode::asInt).collect(Collectors.toList())).containsExactly(7);
+	}
+
+	@Test
+	void invalidPath() {
+		assertThatThrownBy(() -> JsonPath.compile("body")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> JsonPath.compile("$.body[x]")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> JsonPath.compile("$.body[0")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> JsonPath.compile("$..body")).isInstanceOf(IllegalArgumentException.class);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonReaderTest {
+
+	@Test
+	void readObject() {
+		final JsonReader reader = new JsonReader(new StringReader("{\"id\": 100, \"name\": \"foo\", \"price\": 10.5, \"active\": true, \"tag\": null}"));
+		assertThat(reader.peek()).isEqualTo(TokenType.LEFT_BRACE);
+		reader.beginObject();
+		assertThat(reader.nextName()).isEqualTo("id");
+		assertThat(reader.nextInt()).isEqualTo(100);
+		assertThat(reader.nextName()).isEqualTo("name");
+		assertThat(reader.nextString()).isEqualTo("foo");
+		assertThat(reader.nextName()).isEqualTo("price");
+		assertThat(reader.nextDouble()).isEqualTo(10.5);
+		assertThat(reader.nextName()).isEqualTo("active");
+		assertThat(reader.nextBoolean()).isTrue();
+		assertThat(reader.nextName()).isEqualTo("tag");
+		reader.nextNull();
+		assertThat(reader.hasNext()).isFalse();
+		reader.endObject();
+		assertThat(reader.peek()).isEqualTo(TokenType.EOF);
+	}
+
+	@Test
+	void readArray() {
+		final JsonReader reader = new JsonReader(new StringReader("[1, 2, 3]"));
+		reader.beginArray();
+		int sum = 0;
+		while (reader.hasNext()) {
+			sum += reader.nextInt();
+		}
+		reader.endArray();
+		assertThat(sum).isEqualTo(6);
+	}
+
+	@Test
+	void skipValue() {
+		final JsonReader reader = new JsonReader(new StringReader("{\"skip\": {\"a\": [1, {\"b\": \"c\"}], \"d\": []}, \"body\": \"hello\"}"));
+		reader.beginObject();
+		assertThat(reader.nextName()).isEqualTo("skip");
+		reader.skipValue();
+		assertThat(reader.nextName()).isEqualTo("body");
+		assertThat(reader.nextString()).isEqualTo("hello");
+		reader.endObject();
+	}
+
+	@Test
+	void skipName() {
+		final JsonReader reader = new JsonReader(new StringReader("{\"skip\": [1, 2], \"body\": \"hello\"}"));
+		reader.beginObject();
+		reader.skipValue();
+		assertThat(reader.nextName()).isEqualTo("body");
+	}
+
+	@Test
+	void readInputStreamWithSmallBuffer() {
+		final String json = "{\"body\":\"こんにちは\",\"headers\":{\"user-agent\":\"curl/7.88.1\"},\"kv\":{}}";
+		final JsonLexer lexer = new JsonLexer(new StringReader(json), 4);
+		final JsonObject object = new JsonParser(new JsonReader(lexer)).parse().asObject();
+		assertThat(object.get("body").asString()).isEqualTo("こんにちは");
+		assertThat(object.get("headers").asObject().get("user-agent").asString()).isEqualTo("curl/7.88.1");
+		assertThat(Json.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))).asObject().get("body").asString())
+				.isEqualTo("こんにちは");
+	}
+
+	@Test
+	void missingComma() {
+		final JsonReader reader = new JsonReader(new StringReader("[1 2]"));
+		reader.beginArray();
+		reader.nextInt();
+		assertThatThrownBy(reader::peek).isInstanceOf(JsonParseException.class)
+				.hasMessage("Token mismatch. Expected: COMMA, found: INT");
+	}
+
+	@Test
+	void unexpectedName() {
+		final JsonReader reader = new JsonReader(new StringReader("[\"a\"]"));
+		reader.beginArray();
+		assertThatThrownBy(reader::nextName).isInstanceOf(JsonParseException.class);
+	}
+}
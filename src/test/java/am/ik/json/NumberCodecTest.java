@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NumberCodecTest {
+
+	@Test
+	void parseDouble() {
+		for (String text : new String[] { "0", "-0", "-0.0", "10.2", "1e10", "-1.5E-3", "123456789012345678",
+				"1234567890123456789012", "9007199254740993", "1e23", "1.7976931348623157e308", "4.9e-324",
+				"2.2250738585072014E-308", "0.30000000000000004", "1e400", "1e-400" }) {
+			assertThat(NumberCodec.parseDouble(text)).as(text).isEqualTo(Double.parseDouble(text));
+		}
+	}
+
+	@Test
+	void parseFloat() {
+		for (String text : new String[] { "0", "-0.0", "10.2", "16777217", "3.4028235e38", "1.4e-45", "0.1",
+				"1e-10", "123.456" }) {
+			assertThat(NumberCodec.parseFloat(text)).as(text).isEqualTo(Float.parseFloat(text));
+		}
+	}
+
+	@Test
+	void parseInvalid() {
+		assertThatThrownBy(() -> NumberCodec.parseDouble(".")).isInstanceOf(NumberFormatException.class);
+		assertThatThrownBy(() -> NumberCodec.parseDouble("1e")).isInstanceOf(NumberFormatException.class);
+		assertThatThrownBy(() -> NumberCodec.parseDouble("abc")).isInstanceOf(NumberFormatException.class);
+	}
+
+	@Test
+	void parseRandom() {
+		final Random random = new Random(0);
+		for (int i = 0; i < 100_000; i++) {
+			final String text = (random.nextBoolean() ? "-" : "") + random.nextInt(100_000_000) + "."
+					+ random.nextInt(1_000_000) + "e" + (random.nextInt(60) - 30);
+			assertThat(NumberCodec.parseDouble(text)).as(text).isEqualTo(Double.parseDouble(text));
+			assertThat(NumberCodec.parseFloat(text)).as(text).isEqualTo(Float.parseFloat(text));
+		}
+	}
+
+	@Test
+	void format() {
+		assertThat(format(10.2)).isEqualTo("10.2");
+		assertThat(format(100.0)).isEqualTo("100.0");
+		assertThat(format(-0.001)).isEqualTo("-0.001");
+		assertThat(format(0.1 + 0.2)).isEqualTo("0.30000000000000004");
+		assertThat(format(1e10)).isEqualTo("1.0E10");
+		assertThat(format(10.2f)).isEqualTo("10.2");
+		assertThat(format(0.1f)).isEqualTo("0.1");
+		assertThat(format(Float.NaN)).isEqualTo("NaN");
+	}
+
+	@Test
+	void formatRoundTrip() {
+		final Random random = new Random(0);
+		final char[] buffer = new char[32];
+		for (int i = 0; i < 100_000; i++) {
+			final double d = random.nextInt(10_000_000) / Math.pow(10, random.nextInt(8))
+					* (random.nextBoolean() ? 1 : -1);
+			assertThat(Double.parseDouble(new String(buffer, 0, NumberCodec.format(d, buffer)))).isEqualTo(d);
+			final double r = random.nextDouble() * 1000;
+			assertThat(Double.parseDouble(new String(buffer, 0, NumberCodec.format(r, buffer)))).isEqualTo(r);
+			final float f = (float) d;
+			assertThat(Float.parseFloat(new String(buffer, 0, NumberCodec.format(f, buffer)))).isEqualTo(f);
+		}
+	}
+
+	@Test
+	void formatMatchesJdk() {
+		assertThat(format(1445189.2f)).isEqualTo(Float.toString(1445189.2f));
+		assertThat(format(152678.12f)).isEqualTo(Float.toString(152678.12f));
+		final Random random = new Random(0);
+		final int min = Float.floatToIntBits(1e-4f);
+		final int max = Float.floatToIntBits(1e8f);
+		for (int i = 0; i < 1_000_000; i++) {
+			final float f = Float.intBitsToFloat(min + random.nextInt(max - min));
+			assertThat(format(f)).isEqualTo(Float.toString(f));
+			final double d = random.nextInt(100_000_000) / Math.pow(10, random.nextInt(9));
+			assertThat(format(d)).isEqualTo(Double.toString(d));
+		}
+	}
+
+	private static String format(double value) {
+		final char[] buffer = new char[32];
+		return new String(buffer, 0, NumberCodec.format(value, buffer));
+	}
+
+	private static String format(float value) {
+		final char[] buffer = new char[32];
+		return new String(buffer, 0, NumberCodec.format(value, buffer));
+	}
+}
\ No newline at end of file
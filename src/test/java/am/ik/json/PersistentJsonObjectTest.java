@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2023 Toshiaki Maki <makingx@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package am.ik.json;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PersistentJsonObjectTest {
+
+	@Test
+	void withAndWithoutReturnNewVersions() {
+		final PersistentJsonObject base = PersistentJsonObject
+			.of(Json.parse("{\"name\": \"base\", \"db\": {\"host\": \"localhost\", \"port\": 5432}, \"tags\": [\"a\"]}")
+				.asObject());
+		final PersistentJsonObject tenant = base.with("name", "tenant-1").without("tags");
+		assertThat(Json.stringify(base))
+			.isEqualTo("{\"name\":\"base\",\"db\":{\"host\":\"localhost\",\"port\":5432},\"tags\":[\"a\"]}");
+		assertThat(Json.stringify(tenant)).isEqualTo("{\"name\":\"tenant-1\",\"db\":{\"host\":\"localhost\",\"port\":5432}}");
+		assertThat(tenant.get("db")).isSameAs(base.get("db"));
+		assertThat(base.get("db").asObject()).isInstanceOf(PersistentJsonObject.class);
+		assertThat(base.get("tags").asArray()).isInstanceOf(PersistentJsonArray.class);
+		assertThat(base.without("missing")).isSameAs(base);
+	}
+
+	@Test
+	void keepsInsertionOrder() {
+		final PersistentJsonObject object = PersistentJsonObject.empty()
+			.with("c", 1)
+			.with("a", 2)
+			.with("b", 3)
+			.with("a", 4)
+			.without("c")
+			.with("c", 5);
+		assertThat(object.keySet()).containsExactly("a", "b", "c");
+		assertThat(object.asMap()).containsEntry("a", JsonNode.valueOf(4));
+		assertThat(Json.stringify(object)).isEqualTo("{\"a\":4,\"b\":3,\"c\":5}");
+	}
+
+	@Test
+	void hashCollisions() {
+		assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+		final PersistentJsonObject object = PersistentJsonObject.empty().with("Aa", 1).with("BB", 2).with("AaAa", 3);
+		assertThat(object.get("Aa").asInt()).isEqualTo(1);
+		assertThat(object.get("BB").asInt()).isEqualTo(2);
+		assertThat(object.without("Aa").get("BB").asInt()).isEqualTo(2);
+		assertThat(object.without("Aa").containsKey("Aa")).isFalse();
+		assertThat(object.without("BB").without("Aa").keySet()).containsExactly("AaAa");
+	}
+
+	@Test
+	void matchesLinkedHashMap() {
+		final Random random = new Random(42);
+		final Map<String, Integer> expected = new LinkedHashMap<>();
+		final List<PersistentJsonObject> versions = new ArrayList<>();
+		final List<Map<String, Integer>> snapshots = new ArrayList<>();
+		PersistentJsonObject object = PersistentJsonObject.empty();
+		for (int i = 0; i < 5000; i++) {
+			final String key = "k" + random.nextInt(700);
+			if (random.nextInt(3) == 0) {
+				expected.remove(key);
+				object = object.without(key);
+			}
+			else {
+				final int value = random.nextInt();
+				expected.put(key, value);
+				object = object.with(key, value);
+			}
+			if (i % 500 == 0) {
+				versions.add(object);
+				snapshots.add(new LinkedHashMap<>(expected));
+			}
+		}
+		final PersistentJsonObject last = object;
+		assertThat(last.size()).isEqualTo(expected.size());
+		assertThat(new ArrayList<>(last.keySet())).containsExactlyElementsOf(expected.keySet());
+		expected.forEach((key, value) -> assertThat(last.get(key).asInt()).isEqualTo(value));
+		for (int i = 0; i < versions.size(); i++) {
+			final PersistentJsonObject version = versions.get(i);
+			final Map<String, Integer> snapshot = snapshots.get(i);
+			assertThat(version.size()).isEqualTo(snapshot.size());
+			snapshot.forEach((key, value) -> assertThat(version.get(key).asInt()).isEqualTo(value));
+		}
+	}
+
+	@Test
+	void immutable() {
+		final PersistentJsonObject object = PersistentJsonObject.empty().with("a", 1);
+		assertThatThrownBy(() -> object.put("b", 2)).isInstanceOf(UnsupportedOperationException.class);
+		assertThat(object.containsKey("b")).isFalse();
+		final JsonParseContext context = new JsonParseContext();
+		context.release(object.toNode());
+		assertThat(object.get("a").asInt()).isEqualTo(1);
+	}
+
+	@Test
+	void arrayVersions() {
+		PersistentJsonArray array = PersistentJsonArray.empty();
+		final List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			array = array.withAdded(i);
+			expected.add(i);
+		}
+		final PersistentJsonArray base = array;
+		final PersistentJsonArray updated = base.with(1500, JsonNode.valueOf(-1)).with(3, JsonNode.valueOf(-3));
+		assertThat(base.get(1500).asInt()).isEqualTo(1500);
+		assertThat(updated.get(1500).asInt()).isEqualTo(-1);
+		assertThat(updated.get(3).asInt()).isEqualTo(-3);
+		assertThat(updated.size()).isEqualTo(2000);
+		PersistentJsonArray shrinking = base;
+		for (int i = 1999; i >= 0; i--) {
+			assertThat(shrinking.get(i).asInt()).isEqualTo(i);
+			shrinking = shrinking.without(i);
+			assertThat(shrinking.size()).isEqualTo(i);
+		}
+		assertThat(base.without(0).get(0).asInt()).isEqualTo(1);
+		assertThat(base.values()).hasSize(2000);
+		assertThatThrownBy(() -> base.get(2000)).isInstanceOf(IndexOutOfBoundsException.class);
+		assertThatThrownBy(() -> base.add(JsonNode.valueOf(1))).isInstanceOf(UnsupportedOperationException.class);
+		assertThat(Json.stringify(PersistentJsonArray.of(Json.parse("[1, {\"a\": [true]}]").asArray())))
+			.isEqualTo("[1, {\"a\":[true]}]");
+	}
+
+
+	@Test
+	@Timeout(10)
+	void collidingKeys() {
+		List<String> keys = new ArrayList<>();
+		keys.add("");
+		for (int i = 0; i < 15; i++) {
+			final List<String> next = new ArrayList<>();
+			for (String key : keys) {
+				next.add(key + "Aa");
+				next.add(key + "BB");
+			}
+			keys = next;
+		}
+		final JsonObject source = new JsonObject();
+		for (int i = 0; i < keys.size(); i++) {
+			source.put(keys.get(i), i);
+		}
+		final PersistentJsonObject object = PersistentJsonObject.of(source);
+		assertThat(object.size()).isEqualTo(keys.size());
+		for (int i = 0; i < keys.size(); i += 97) {
+			assertThat(object.get(keys.get(i)).asInt()).isEqualTo(i);
+		}
+		assertThat(object.keySet().iterator().next()).isEqualTo(keys.get(0));
+		final PersistentJsonObject removed = object.without(keys.get(1)).with(keys.get(2), "x");
+		assertThat(removed.containsKey(keys.get(1))).isFalse();
+		assertThat(removed.get(keys.get(2)).asString()).isEqualTo("x");
+		assertThat(object.get(keys.get(2)).asInt()).isEqualTo(2);
+		assertThat(removed.size()).isEqualTo(keys.size() - 1);
+	}
+}
\ No newline at end of file